@@ -2,7 +2,13 @@ package ru.practicum.shareit.booking;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCartDto;
+import ru.practicum.shareit.booking.dto.BookingCartResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.dto.BookingState;
@@ -25,6 +31,12 @@ public class BookingController {
         return bookingService.createBooking(bookingDtoShort, userRenterId);
     }
 
+    @PostMapping("/cart")
+    public List<BookingCartResultDto> createBookings(@RequestBody @Valid BookingCartDto cartDto,
+                                                     @RequestHeader("X-Sharer-User-Id") Long userRenterId) {
+        return bookingService.createBookings(userRenterId, cartDto);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@PathVariable Long bookingId,
                                      @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -32,6 +44,12 @@ public class BookingController {
         return bookingService.approveBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingDecisionResultDto> approveBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestBody List<BookingDecisionDto> decisions) {
+        return bookingService.approveBookings(userId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBooking(@PathVariable Long bookingId,
                                  @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -39,21 +57,43 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                        @RequestParam(required = false, defaultValue = "ALL") BookingState state) {
-        return bookingService.getBookings(userId, state);
+    public ResponseEntity<List<BookingDto>> getBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(bookingService.getBookings(userId, state));
+        }
+        return bookingService.getBookings(userId, state, limit, cursor).toResponseEntity();
     }
 
     @GetMapping("/")
-    public List<BookingDto> getBookingsSlash(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(required = false, defaultValue = "ALL") BookingState state) {
-        return bookingService.getBookings(userId, state);
+    public ResponseEntity<List<BookingDto>> getBookingsSlash(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) String cursor) {
+        return getBookings(userId, state, limit, cursor);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getBookingsOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(required = false, defaultValue = "ALL") BookingState state) {
-        return bookingService.getBookingsOwner(userId, state);
+    public ResponseEntity<List<BookingDto>> getBookingsOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(required = false, defaultValue = "ALL") BookingState state,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(required = false) String cursor) {
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(bookingService.getBookingsOwner(userId, state));
+        }
+        return bookingService.getBookingsOwner(userId, state, limit, cursor).toResponseEntity();
+    }
+
+    @GetMapping("/counts")
+    public BookingCountsDto getBookingCounts(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.getBookingCounts(userId);
+    }
+
+    @GetMapping("/owner/counts")
+    public BookingCountsDto getBookingCountsOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.getBookingCountsOwner(userId);
     }
 
 
@@ -7,11 +7,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.client.BookingClient;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCartDto;
+import ru.practicum.shareit.booking.dto.BookingCartResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.dto.mapper.BookingDtoMapper;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.ResponseHandler;
+import ru.practicum.shareit.pagination.KeysetPage;
 
 import java.util.List;
 
@@ -33,6 +39,15 @@ public class BookingService {
         return bookingDto;
     }
 
+    public List<BookingCartResultDto> createBookings(Long userRenterId, BookingCartDto cartDto) {
+        log.info("GATEWAY: получен запрос на аренду вещей {}.", cartDto.getItemIds());
+        ResponseEntity<Object> response = bookingClient.bookItems(userRenterId, cartDto);
+        List<BookingCartResultDto> results = responseHandler.handleResponse(response,
+                new TypeReference<List<BookingCartResultDto>>(){});
+        log.info("GATEWAY: обработан запрос на аренду вещей {}.", cartDto.getItemIds());
+        return results;
+    }
+
     public BookingDto approveBooking(Long bookingId, Long userId, Boolean approved) {
         log.info("GATEWAY: получен запрос на подтверждение аренды с id = {}.", bookingId);
         ResponseEntity<Object> response = bookingClient.handleBooking(bookingId, userId, approved);
@@ -41,6 +56,15 @@ public class BookingService {
         return bookingDto;
     }
 
+    public List<BookingDecisionResultDto> approveBookings(Long userId, List<BookingDecisionDto> decisions) {
+        log.info("GATEWAY: получен запрос на пакетное подтверждение аренд.");
+        ResponseEntity<Object> response = bookingClient.handleBookings(userId, decisions);
+        List<BookingDecisionResultDto> results = responseHandler.handleResponse(response,
+                new TypeReference<List<BookingDecisionResultDto>>(){});
+        log.info("GATEWAY: обработан запрос на пакетное подтверждение аренд.");
+        return results;
+    }
+
     public BookingDto getBooking(Long bookingId, Long userId) {
         log.info("GATEWAY: получен запрос на получение аренды с id = {}.", bookingId);
         ResponseEntity<Object> response = bookingClient.getBooking(userId, bookingId);
@@ -57,6 +81,14 @@ public class BookingService {
         return bookingDtos;
     }
 
+    public KeysetPage<BookingDto> getBookings(Long userId, BookingState state, Integer limit, String cursor) {
+        log.info("GATEWAY: получен запрос на постраничное получение всех запросов на аренду.");
+        ResponseEntity<Object> response = bookingClient.getBookings(userId, state, limit, cursor);
+        List<BookingDto> bookingDtos = responseHandler.handleResponse(response, new TypeReference<List<BookingDto>>(){});
+        log.info("GATEWAY: обработан запрос на постраничное получение всех запросов на аренду.");
+        return KeysetPage.of(bookingDtos, response);
+    }
+
     public List<BookingDto> getBookingsOwner(Long userId, BookingState state) {
         log.info("GATEWAY: получен запрос на получение исходящих запросов на аренду от пользователя.");
         ResponseEntity<Object> response = bookingClient.getBookingsOwner(userId, state);
@@ -64,4 +96,28 @@ public class BookingService {
         log.info("GATEWAY: обработан запрос на получение исходящих запросов на аренду пользователя.");
         return bookingDtos;
     }
+
+    public KeysetPage<BookingDto> getBookingsOwner(Long userId, BookingState state, Integer limit, String cursor) {
+        log.info("GATEWAY: получен запрос на постраничное получение исходящих запросов на аренду от пользователя.");
+        ResponseEntity<Object> response = bookingClient.getBookingsOwner(userId, state, limit, cursor);
+        List<BookingDto> bookingDtos = responseHandler.handleResponse(response, new TypeReference<List<BookingDto>>(){});
+        log.info("GATEWAY: обработан запрос на постраничное получение исходящих запросов на аренду пользователя.");
+        return KeysetPage.of(bookingDtos, response);
+    }
+
+    public BookingCountsDto getBookingCounts(Long userId) {
+        log.info("GATEWAY: получен запрос на получение количества запросов на аренду.");
+        ResponseEntity<Object> response = bookingClient.getBookingCounts(userId);
+        BookingCountsDto bookingCounts = responseHandler.handleResponse(response, new TypeReference<BookingCountsDto>() {});
+        log.info("GATEWAY: обработан запрос на получение количества запросов на аренду.");
+        return bookingCounts;
+    }
+
+    public BookingCountsDto getBookingCountsOwner(Long userId) {
+        log.info("GATEWAY: получен запрос на получение количества исходящих запросов на аренду от пользователя.");
+        ResponseEntity<Object> response = bookingClient.getBookingCountsOwner(userId);
+        BookingCountsDto bookingCounts = responseHandler.handleResponse(response, new TypeReference<BookingCountsDto>() {});
+        log.info("GATEWAY: обработан запрос на получение количества исходящих запросов на аренду пользователя.");
+        return bookingCounts;
+    }
 }
@@ -1,5 +1,7 @@
 package ru.practicum.shareit.booking.client;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +13,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingCartDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
@@ -44,6 +48,10 @@ public class BookingClient extends BaseClient {
         return get("?state={state}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer limit, String cursor) {
+        return get(withPageParameters("?state={state}", limit, cursor), userId, pageParameters(state, limit, cursor));
+    }
+
     public ResponseEntity<Object> getBookingsOwner(long userId, BookingState state) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name()
@@ -51,10 +59,31 @@ public class BookingClient extends BaseClient {
         return get("/owner?state={state}", userId, parameters);
     }
 
+    public ResponseEntity<Object> getBookingsOwner(long userId, BookingState state, Integer limit, String cursor) {
+        return get(withPageParameters("/owner?state={state}", limit, cursor), userId,
+                pageParameters(state, limit, cursor));
+    }
+
+    public ResponseEntity<Object> getBookingCounts(long userId) {
+        return get("/counts", userId);
+    }
+
+    public ResponseEntity<Object> getBookingCountsOwner(long userId) {
+        return get("/owner/counts", userId);
+    }
+
     public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
         return post("", userId, requestDto);
     }
 
+    public ResponseEntity<Object> bookItems(long userId, BookingCartDto cartDto) {
+        return post("/cart", userId, cartDto);
+    }
+
+    public ResponseEntity<Object> handleBookings(Long userId, List<BookingDecisionDto> decisions) {
+        return patch("/batch", userId, decisions);
+    }
+
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
@@ -66,4 +95,12 @@ public class BookingClient extends BaseClient {
         );
         return patch("/{bookingId}?approved={approved}", userId, parameters, null);
     }
+
+    private static Map<String, Object> pageParameters(BookingState state, Integer limit, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("state", state.name());
+        parameters.put("limit", limit);
+        parameters.put("cursor", cursor);
+        return parameters;
+    }
 }
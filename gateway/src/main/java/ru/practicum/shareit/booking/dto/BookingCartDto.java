@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.dto;
+
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Аренда нескольких вещей на одно время. Без mode корзина создается целиком (ALL_OR_NOTHING).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCartDto {
+
+    @NotEmpty(message = "Не указаны id вещей.")
+    @Size(max = 50, message = "За один запрос можно арендовать не более 50 вещей.")
+    private List<Long> itemIds;
+
+    @NotNull(message = "Время начала аренды не может быть пустым.")
+    @FutureOrPresent(message = "Время старта неверно.")
+    private LocalDateTime start;
+
+    @NotNull(message = "Время окончания аренды не может быть пустым.")
+    @FutureOrPresent(message = "Время окончания неверно.")
+    private LocalDateTime end;
+
+    private BookingCartMode mode;
+
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат аренды одной вещи корзины.
+ * Заполняется либо booking (созданная аренда), либо error.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCartResultDto {
+
+    private Long itemId;
+
+    private BookingDto booking;
+
+    private String error;
+
+}
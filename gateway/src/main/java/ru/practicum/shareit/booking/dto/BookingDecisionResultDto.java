@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Результат обработки одного решения пакетного подтверждения аренд.
+ * Заполняется либо status (новый статус аренды), либо error.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionResultDto {
+
+    private Long bookingId;
+
+    private BookingStatus status;
+
+    private String error;
+
+}
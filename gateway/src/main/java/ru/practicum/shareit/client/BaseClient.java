@@ -79,6 +79,14 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    protected static String withPageParameters(String path, Integer limit, String cursor) {
+        // Параметры страницы передаются на сервер, только если заданы клиентом
+        StringBuilder result = new StringBuilder(path);
+        if (limit != null) result.append(result.indexOf("?") < 0 ? '?' : '&').append("limit={limit}");
+        if (cursor != null) result.append(result.indexOf("?") < 0 ? '?' : '&').append("cursor={cursor}");
+        return result.toString();
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
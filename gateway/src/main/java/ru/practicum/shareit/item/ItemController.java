@@ -2,9 +2,22 @@ package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequestDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBulkUpdateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -35,6 +48,18 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> createItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @RequestBody List<ItemDto> itemDtos) {
+        return itemService.createItems(userId, itemDtos);
+    }
+
+    @PatchMapping("/batch")
+    public List<ItemVersionDto> updateItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @Valid @RequestBody ItemBulkUpdateDto updateDto) {
+        return itemService.updateItems(userId, updateDto);
+    }
+
     @PatchMapping("/{id}")
     public ItemDto updateItem(@RequestBody ItemDto itemDto,
                               @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -43,9 +68,52 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @RequestParam String text) {
-        return itemService.searchItemsByText(userId, text);
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @RequestParam String text,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from != null || to != null) {
+            return itemService.searchFreeItemsByText(userId, text, from, to, limit, cursor).toResponseEntity();
+        }
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(itemService.searchItemsByText(userId, text));
+        }
+        return itemService.searchItemsByText(userId, text, limit, cursor).toResponseEntity();
+    }
+
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam String text) {
+        StreamingResponseBody body = outputStream -> itemService.streamItemsByText(userId, text, outputStream);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix) {
+        return itemService.suggestItemNames(prefix);
+    }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable("id") Long itemId,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) String cursor) {
+        return itemService.getComments(itemId, limit, cursor).toResponseEntity();
+    }
+
+    @GetMapping("/{id}/availability")
+    public List<TimeIntervalDto> getFreeIntervals(@PathVariable("id") Long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getFreeIntervals(itemId, from, to);
+    }
+
+    @PostMapping("/availability")
+    public ItemAvailabilityDto checkAvailability(@Valid @RequestBody ItemAvailabilityRequestDto requestDto) {
+        return itemService.checkAvailability(requestDto);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -8,7 +8,18 @@ import org.springframework.stereotype.Service;
 import ru.practicum.shareit.client.ResponseHandler;
 import ru.practicum.shareit.item.client.ItemClient;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequestDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBulkUpdateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+import ru.practicum.shareit.pagination.KeysetPage;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -43,6 +54,15 @@ public class ItemService {
         return itemDtoCreated;
     }
 
+    public List<ItemBatchResultDto> createItems(Long userId, List<ItemDto> itemDtos) {
+        log.info("GATEWAY: получен запрос на пакетное создание вещей.");
+        ResponseEntity<Object> response = itemClient.createItems(userId, itemDtos);
+        List<ItemBatchResultDto> results = responseHandler.handleResponse(response,
+                new TypeReference<List<ItemBatchResultDto>>(){});
+        log.info("GATEWAY: обработан запрос на пакетное создание вещей.");
+        return results;
+    }
+
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
         log.info("GATEWAY: получен запрос на обновление веши.");
         ResponseEntity<Object> response = itemClient.updateItem(userId, itemId, itemDto);
@@ -51,6 +71,15 @@ public class ItemService {
         return itemDtoUpdated;
     }
 
+    public List<ItemVersionDto> updateItems(Long userId, ItemBulkUpdateDto updateDto) {
+        log.info("GATEWAY: получен запрос на пакетное обновление вещей.");
+        ResponseEntity<Object> response = itemClient.updateItems(userId, updateDto);
+        List<ItemVersionDto> versions = responseHandler.handleResponse(response,
+                new TypeReference<List<ItemVersionDto>>(){});
+        log.info("GATEWAY: обработан запрос на пакетное обновление вещей.");
+        return versions;
+    }
+
     public List<ItemDto> searchItemsByText(Long userId, String text) {
         log.info("GATEWAY: получен запрос на поиск вещей по тексту.");
         ResponseEntity<Object> response = itemClient.findByText(userId, text);
@@ -59,6 +88,63 @@ public class ItemService {
         return itemDtos;
     }
 
+    public KeysetPage<ItemDto> searchItemsByText(Long userId, String text, Integer limit, String cursor) {
+        log.info("GATEWAY: получен запрос на постраничный поиск вещей по тексту.");
+        ResponseEntity<Object> response = itemClient.findByText(userId, text, limit, cursor);
+        List<ItemDto> itemDtos = responseHandler.handleResponse(response, new TypeReference<List<ItemDto>>(){});
+        log.info("GATEWAY: обработан запрос на постраничный поиск вещей по тексту.");
+        return KeysetPage.of(itemDtos, response);
+    }
+
+    public KeysetPage<ItemDto> searchFreeItemsByText(Long userId, String text, LocalDate from, LocalDate to,
+                                                     Integer limit, String cursor) {
+        log.info("GATEWAY: получен запрос на поиск свободных вещей по тексту.");
+        ResponseEntity<Object> response = itemClient.findFreeByText(userId, text, from, to, limit, cursor);
+        List<ItemDto> itemDtos = responseHandler.handleResponse(response, new TypeReference<List<ItemDto>>(){});
+        log.info("GATEWAY: обработан запрос на поиск свободных вещей по тексту.");
+        return KeysetPage.of(itemDtos, response);
+    }
+
+    public void streamItemsByText(Long userId, String text, OutputStream outputStream) {
+        log.info("GATEWAY: получен запрос на потоковый поиск вещей по тексту.");
+        ResponseEntity<Object> response = itemClient.streamByText(userId, text, outputStream);
+        responseHandler.handleError(response);
+        log.info("GATEWAY: обработан запрос на потоковый поиск вещей по тексту.");
+    }
+
+    public List<String> suggestItemNames(String prefix) {
+        log.debug("GATEWAY: получен запрос подсказок названий вещей.");
+        ResponseEntity<Object> response = itemClient.suggest(prefix);
+        return responseHandler.handleResponse(response, new TypeReference<List<String>>(){});
+    }
+
+    public KeysetPage<CommentDto> getComments(Long itemId, Integer limit, String cursor) {
+        log.info("GATEWAY: получен запрос на получение отзывов к вещи.");
+        ResponseEntity<Object> response = itemClient.getComments(itemId, limit, cursor);
+        List<CommentDto> commentDtos = responseHandler.handleResponse(response,
+                new TypeReference<List<CommentDto>>(){});
+        log.info("GATEWAY: обработан запрос на получение отзывов к вещи.");
+        return KeysetPage.of(commentDtos, response);
+    }
+
+    public List<TimeIntervalDto> getFreeIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("GATEWAY: получен запрос на получение свободного времени вещи.");
+        ResponseEntity<Object> response = itemClient.getFreeIntervals(itemId, from, to);
+        List<TimeIntervalDto> intervals = responseHandler.handleResponse(response,
+                new TypeReference<List<TimeIntervalDto>>(){});
+        log.info("GATEWAY: обработан запрос на получение свободного времени вещи.");
+        return intervals;
+    }
+
+    public ItemAvailabilityDto checkAvailability(ItemAvailabilityRequestDto requestDto) {
+        log.info("GATEWAY: получен запрос на проверку свободного времени вещей.");
+        ResponseEntity<Object> response = itemClient.checkAvailability(requestDto);
+        ItemAvailabilityDto availability = responseHandler.handleResponse(response,
+                new TypeReference<ItemAvailabilityDto>(){});
+        log.info("GATEWAY: обработан запрос на проверку свободного времени вещей.");
+        return availability;
+    }
+
     public CommentDto addComment(Long itemId, CommentDto commentDto, Long userId) {
         log.info("GATEWAY: получен запрос на добавление комментария к вещи.");
         ResponseEntity<Object> response = itemClient.addComment(userId, itemId, commentDto);
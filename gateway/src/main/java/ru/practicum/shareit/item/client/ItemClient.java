@@ -3,14 +3,25 @@ package ru.practicum.shareit.item.client;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequestDto;
+import ru.practicum.shareit.item.dto.ItemBulkUpdateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -43,6 +54,14 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
+    public ResponseEntity<Object> createItems(Long userId, List<ItemDto> itemDtos) {
+        return post("/batch", userId, itemDtos);
+    }
+
+    public ResponseEntity<Object> updateItems(Long userId, ItemBulkUpdateDto updateDto) {
+        return patch("/batch", userId, updateDto);
+    }
+
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
         Map<String, Object> parameters = Map.of(
                 "id", itemId
@@ -57,6 +76,71 @@ public class ItemClient extends BaseClient {
         return get("/search?text={text}", userId, parameters);
     }
 
+    public ResponseEntity<Object> findByText(Long userId, String text, Integer limit, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("limit", limit);
+        parameters.put("cursor", cursor);
+        return get(withPageParameters("/search?text={text}", limit, cursor), userId, parameters);
+    }
+
+    public ResponseEntity<Object> findFreeByText(Long userId, String text, LocalDate from, LocalDate to,
+                                                 Integer limit, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from != null ? from.toString() : "");
+        parameters.put("to", to != null ? to.toString() : "");
+        parameters.put("limit", limit);
+        parameters.put("cursor", cursor);
+        return get(withPageParameters("/search?text={text}&from={from}&to={to}", limit, cursor), userId, parameters);
+    }
+
+    public ResponseEntity<Object> suggest(String prefix) {
+        Map<String, Object> parameters = Map.of(
+                "prefix", prefix
+        );
+        return get("/suggest?prefix={prefix}", null, parameters);
+    }
+
+    public ResponseEntity<Object> streamByText(Long userId, String text, OutputStream outputStream) {
+        // Ответ сервера копируется в поток клиента без буферизации всего результата
+        try {
+            return rest.execute("/search?text={text}", HttpMethod.GET,
+                    request -> {
+                        request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON));
+                        request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                    },
+                    response -> {
+                        StreamUtils.copy(response.getBody(), outputStream);
+                        return ResponseEntity.status(response.getStatusCode()).build();
+                    },
+                    Map.of("text", text));
+        } catch (HttpStatusCodeException e) {
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAs(Object.class));
+        }
+    }
+
+    public ResponseEntity<Object> getComments(Long itemId, Integer limit, String cursor) {
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("itemId", itemId);
+        parameters.put("limit", limit);
+        parameters.put("cursor", cursor);
+        return get(withPageParameters("/{itemId}/comments", limit, cursor), null, parameters);
+    }
+
+    public ResponseEntity<Object> getFreeIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "itemId", itemId,
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/{itemId}/availability?from={from}&to={to}", null, parameters);
+    }
+
+    public ResponseEntity<Object> checkAvailability(ItemAvailabilityRequestDto requestDto) {
+        return post("/availability", requestDto);
+    }
+
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
         Map<String, Object> parameters = Map.of(
                 "itemId", itemId
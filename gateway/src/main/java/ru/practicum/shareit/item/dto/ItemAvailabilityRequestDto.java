@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Проверка, свободны ли вещи из itemIds на все время [start, end].
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityRequestDto {
+
+    @NotEmpty(message = "Не указаны id вещей.")
+    @Size(max = 500, message = "За один запрос можно проверить не более 500 вещей.")
+    private List<Long> itemIds;
+
+    @NotNull(message = "Время начала не может быть пустым.")
+    private LocalDateTime start;
+
+    @NotNull(message = "Время окончания не может быть пустым.")
+    private LocalDateTime end;
+
+}
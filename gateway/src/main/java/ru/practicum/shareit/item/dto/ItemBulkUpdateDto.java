@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Пакетное обновление вещей владельца: одни и те же изменения применяются ко всем вещам из ids.
+ * Незаполненные поля не изменяются.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBulkUpdateDto {
+
+    @NotEmpty(message = "Не указаны id вещей.")
+    @Size(max = 1000, message = "За один запрос можно обновить не более 1000 вещей.")
+    private List<Long> ids;
+
+    private String name;
+
+    private String description;
+
+    private Boolean available;
+
+}
@@ -37,6 +37,8 @@ public class ItemDto {
 
     private List<CommentDto> comments;
 
+    private Long commentsCount;
+
     private Long requestId;
 
 }
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+
+/**
+ * Страница keyset-пагинации. Курсор формирует сервер, шлюз передает его как есть
+ * в заголовке X-Next-Cursor.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    public static <T> KeysetPage<T> of(List<T> items, ResponseEntity<?> response) {
+        return new KeysetPage<>(items, response.getHeaders().getFirst(NEXT_CURSOR_HEADER));
+    }
+
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response.body(items);
+    }
+
+}
@@ -9,11 +9,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.booking.dto.BookingCartDto;
+import ru.practicum.shareit.booking.dto.BookingCartMode;
+import ru.practicum.shareit.booking.dto.BookingCartResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
@@ -97,6 +104,28 @@ class BookingControllerRESTTest {
             return bookingDtos;
         });
 
+        when(bookingService.getBookingsOwner(anyLong(), any(BookingState.class), any(), any())).thenAnswer(arguments -> {
+            Long userId = arguments.getArgument(0);
+            Integer limit = arguments.getArgument(2);
+            List<BookingDto> bookingDtos = new ArrayList<>();
+            for (long i = 1; i <= limit; i++) {
+                bookingDtos.add(getBookingDto(i, getBookingDtoShort(getRandomKey()), userId));
+            }
+            return new KeysetPage<>(bookingDtos, "next");
+        });
+
+        when(bookingService.approveBookings(anyLong(), anyList())).thenAnswer(arguments -> {
+            List<BookingDecisionDto> decisions = arguments.getArgument(1);
+            return decisions.stream()
+                    .map(decision -> BookingDecisionResultDto.builder()
+                            .bookingId(decision.getBookingId())
+                            .status(decision.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED)
+                            .build())
+                    .toList();
+        });
+
+        when(bookingService.getBookingCountsOwner(anyLong())).thenReturn(new BookingCountsDto(5L, 1L, 1L, 2L, 1L, 1L));
+
     }
 
     @Test
@@ -120,6 +149,36 @@ class BookingControllerRESTTest {
 
     }
 
+    @Test
+    void createBookings() {
+        when(bookingService.createBookings(anyLong(), any(BookingCartDto.class))).thenReturn(List.of(
+                BookingCartResultDto.builder().itemId(1L).booking(BookingDto.builder().id(10L).build()).build(),
+                BookingCartResultDto.builder().itemId(2L).error("Вещь с id = 2 не доступна для аренды в это время.")
+                        .build()));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        try {
+            mockMvc.perform(post("/bookings/cart")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new BookingCartDto(List.of(1L, 2L), start,
+                                    start.plusDays(1), BookingCartMode.BEST_EFFORT)))
+                            .header("X-Sharer-User-Id", getRandomKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(2))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].booking.id").value(10L))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[1].error").isNotEmpty());
+            // Пустая корзина не передается на сервер
+            mockMvc.perform(post("/bookings/cart")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new BookingCartDto(List.of(), start,
+                                    start.plusDays(1), null)))
+                            .header("X-Sharer-User-Id", getRandomKey()))
+                    .andExpect(status().isBadRequest());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
     @Test
     void approveBooking() {
         Long bookingId = getRandomKey();
@@ -139,6 +198,24 @@ class BookingControllerRESTTest {
         }
     }
 
+    @Test
+    void approveBookings() {
+        List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false));
+
+        try {
+            mockMvc.perform(patch("/bookings/batch")
+                            .header("X-Sharer-User-Id", getRandomKey())
+                            .content(objectMapper.writeValueAsString(decisions))
+                            .contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(2))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].status").value(BookingStatus.APPROVED.toString()))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[1].status").value(BookingStatus.REJECTED.toString()));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
     @Test
     void getBooking() {
         Long bookingId = getRandomKey();
@@ -196,6 +273,36 @@ class BookingControllerRESTTest {
         }
     }
 
+    @Test
+    void getBookingsOwnerPaged() {
+        try {
+            mockMvc.perform(get("/bookings/owner")
+                            .header("X-Sharer-User-Id", getRandomKey())
+                            .param("state", BookingState.WAITING.toString())
+                            .param("limit", "2")
+                            .param("cursor", "cursor"))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(2))
+                    .andExpect(MockMvcResultMatchers.header().string(KeysetPage.NEXT_CURSOR_HEADER, "next"));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void getBookingCountsOwner() {
+        try {
+            mockMvc.perform(get("/bookings/owner/counts")
+                            .header("X-Sharer-User-Id", getRandomKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.all").value(5))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.future").value(2))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.waiting").value(1));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
     private Long getRandomKey() {
         Random random = new Random();
         while (true) {
@@ -8,10 +8,21 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequestDto;
+import ru.practicum.shareit.item.dto.ItemBulkUpdateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+import ru.practicum.shareit.pagination.KeysetPage;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,6 +32,7 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.everyItem;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -96,6 +108,32 @@ class ItemControllerRESTTest {
             return itemDtos;
         });
 
+        when(itemService.searchItemsByText(anyLong(), anyString(), anyInt(), any())).thenAnswer(arguments -> {
+            Integer limit = arguments.getArgument(2);
+            List<ItemDto> itemDtos = new ArrayList<>();
+            for (int i = 0; i < limit; i++) {
+                itemDtos.add(getItemDto(getRandomKey()));
+            }
+            return new KeysetPage<>(itemDtos, "next");
+        });
+
+        doAnswer(arguments -> {
+            OutputStream outputStream = arguments.getArgument(2);
+            outputStream.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(itemService).streamItemsByText(anyLong(), anyString(), any(OutputStream.class));
+
+        when(itemService.suggestItemNames(anyString())).thenAnswer(arguments -> {
+            String prefix = arguments.getArgument(0);
+            return List.of(prefix + "1", prefix + "2");
+        });
+
+        when(itemService.getFreeIntervals(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(arguments -> List.of(new TimeIntervalDto(arguments.getArgument(1), arguments.getArgument(2))));
+
+        when(itemService.getComments(anyLong(), any(), any())).thenAnswer(arguments ->
+                new KeysetPage<>(List.of(getCommentDto(getRandomKey())), null));
+
         when(itemService.addComment(anyLong(), any(CommentDto.class), anyLong())).thenAnswer(arguments -> {
             Long itemId = arguments.getArgument(0);
             CommentDto commentDto = arguments.getArgument(1);
@@ -154,6 +192,60 @@ class ItemControllerRESTTest {
         }
     }
 
+    @Test
+    void createItems() {
+        Long userId = getRandomKey();
+        List<ItemDto> itemDtos = List.of(getItemDto(null), getItemDto(null));
+        when(itemService.createItems(anyLong(), anyList())).thenReturn(List.of(
+                ItemBatchResultDto.builder().index(0).item(getItemDto(1L)).build(),
+                ItemBatchResultDto.builder().index(1).error("Имя не может быть пустым.").build()));
+
+        try {
+            mockMvc.perform(post("/items/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(itemDtos))
+                            .header("X-Sharer-User-Id", userId))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(2))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].item.id").value(1))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[1].error").value("Имя не может быть пустым."));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void updateItems() {
+        Long userId = getRandomKey();
+        when(itemService.updateItems(anyLong(), any(ItemBulkUpdateDto.class))).thenReturn(List.of(
+                ItemVersionDto.builder().id(1L).version(2L).build(),
+                ItemVersionDto.builder().id(2L).version(1L).build()));
+
+        try {
+            mockMvc.perform(patch("/items/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(ItemBulkUpdateDto.builder()
+                                    .ids(List.of(1L, 2L))
+                                    .available(Boolean.FALSE)
+                                    .build()))
+                            .header("X-Sharer-User-Id", userId))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(2))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].version").value(2));
+            // Без id вещей запрос не передается на сервер
+            mockMvc.perform(patch("/items/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(ItemBulkUpdateDto.builder()
+                                    .ids(List.of())
+                                    .available(Boolean.FALSE)
+                                    .build()))
+                            .header("X-Sharer-User-Id", userId))
+                    .andExpect(status().isBadRequest());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
     @Test
     void updateItem() {
         Long userId = getRandomKey();
@@ -193,6 +285,125 @@ class ItemControllerRESTTest {
 
     }
 
+    @Test
+    void searchItemsPaged() {
+        try {
+            mockMvc.perform(get("/items/search")
+                            .param("text", "search_text")
+                            .param("limit", "2")
+                            .header("X-Sharer-User-Id", getRandomKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(2))
+                    .andExpect(MockMvcResultMatchers.header().string(KeysetPage.NEXT_CURSOR_HEADER, "next"));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void searchFreeItems() {
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(2);
+        when(itemService.searchFreeItemsByText(anyLong(), anyString(), eq(from), eq(to), any(), any()))
+                .thenReturn(new KeysetPage<>(List.of(getItemDto(1L)), null));
+        try {
+            mockMvc.perform(get("/items/search")
+                            .param("text", "search_text")
+                            .param("from", from.toString())
+                            .param("to", to.toString())
+                            .header("X-Sharer-User-Id", getRandomKey()))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(1))
+                    .andExpect(MockMvcResultMatchers.header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void suggestItemNames() {
+        try {
+            mockMvc.perform(get("/items/suggest")
+                            .param("prefix", "dri"))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(2))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[*]", everyItem(containsString("dri"))));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void getComments() {
+        try {
+            mockMvc.perform(get("/items/{itemId}/comments", getRandomKey())
+                            .param("limit", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(1))
+                    .andExpect(MockMvcResultMatchers.header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void getFreeIntervals() {
+        try {
+            mockMvc.perform(get("/items/{itemId}/availability", getRandomKey())
+                            .param("from", "2030-01-01T00:00:00")
+                            .param("to", "2030-01-10T00:00:00"))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(1))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].start").value("2030-01-01T00:00:00"))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].end").value("2030-01-10T00:00:00"));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void checkAvailability() {
+        when(itemService.checkAvailability(any(ItemAvailabilityRequestDto.class))).thenReturn(
+                new ItemAvailabilityDto(List.of(1L), List.of(2L)));
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+        try {
+            mockMvc.perform(post("/items/availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new ItemAvailabilityRequestDto(List.of(1L, 2L), start, start.plusDays(1)))))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.freeItemIds[0]").value(1L))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.busyItemIds[0]").value(2L));
+            // Без времени запрос не передается на сервер
+            mockMvc.perform(post("/items/availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new ItemAvailabilityRequestDto(List.of(1L), start, null))))
+                    .andExpect(status().isBadRequest());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void streamItems() {
+        try {
+            MvcResult result = mockMvc.perform(get("/items/search")
+                            .param("text", "search_text")
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .header("X-Sharer-User-Id", getRandomKey()))
+                    .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                    .andReturn();
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andExpect(MockMvcResultMatchers.content().string("{\"id\":1}\n{\"id\":2}\n"));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
     @Test
     void addComment() {
         Long itemId = getRandomKey();
@@ -2,37 +2,80 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.dao.BookingCreateRepository;
+import ru.practicum.shareit.booking.dao.BookingCreateResult;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCartDto;
+import ru.practicum.shareit.booking.dto.BookingCartMode;
+import ru.practicum.shareit.booking.dto.BookingCartResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.dto.mapper.BookingDtoMapper;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.outbox.BookingOutboxRepository;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    public static final int MAX_BATCH_SIZE = 1000;
+    // Не больше hibernate.jdbc.batch_size, чтобы аренды корзины вставлялись одним пакетом
+    public static final int MAX_CART_SIZE = 50;
+    // SQLSTATE нарушения ограничения-исключения в PostgreSQL
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingDtoMapper bookingDtoMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BookingAvailabilityIndex availabilityIndex;
+    private final BookingOutboxRepository bookingOutboxRepository;
+    // Есть только при shareit.booking.create-mode=single-statement
+    private final Optional<BookingCreateRepository> bookingCreateRepository;
 
+    @Transactional
     public BookingDto createBooking(BookingDtoShort bookingDtoShort, Long userRenterId) {
         log.info("Запрос на аренду вещи с id = {}.", bookingDtoShort.getItemId());
+        if (bookingCreateRepository.isPresent()) {
+            return createBookingInOneStatement(bookingCreateRepository.get(), bookingDtoShort, userRenterId);
+        }
 
         // Получение арендатора
         User renter = userRepository.findById(userRenterId).orElseThrow(() ->
@@ -57,8 +100,7 @@ public class BookingService {
         }
 
         // Проверка доступа для аренды на определенное время
-        if (!bookingRepository.availableAtTime(item, BookingStatus.WAITING,
-                bookingDtoShort.getStart(), bookingDtoShort.getEnd())) {
+        if (!availabilityIndex.isAvailable(item, bookingDtoShort.getStart(), bookingDtoShort.getEnd())) {
             throw new BadRequestException("Вещь с id = " + bookingDtoShort.getItemId() + " не доступна для аренды в это время.");
         }
 
@@ -66,8 +108,21 @@ public class BookingService {
         Booking booking = bookingDtoMapper.toBooking(bookingDtoShort, renter, item);
         booking.setStatus(BookingStatus.WAITING);
 
-        // Сохранение аренды
-        Booking bookingSaved = bookingRepository.save(booking);
+        // Сохранение аренды. На PostgreSQL пересечение с другой арендой, созданной параллельно,
+        // отклоняется ограничением booking_no_overlap. Аренда вставляется сразу: с пулом id последовательности
+        // save откладывает вставку до сброса сессии при фиксации, и нарушение ограничения не попало бы в обработку ниже
+        Booking bookingSaved;
+        try {
+            bookingSaved = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isBookingOverlap(e)) {
+                throw new BadRequestException("Вещь с id = " + bookingDtoShort.getItemId() + " не доступна для аренды в это время.");
+            }
+            throw e;
+        }
+        // Событие для BookingOutboxPoller записывается в той же транзакции, что и аренда
+        bookingOutboxRepository.add(bookingSaved, null);
+        eventPublisher.publishEvent(new BookingChangedEvent(null, bookingSaved));
 
         // Создание ответа
         BookingDto bookingDto = bookingDtoMapper.toBookingDto(booking);
@@ -75,50 +130,244 @@ public class BookingService {
         return bookingDto;
     }
 
-    public BookingDto approveBooking(Long bookingId, Long userId, Boolean approved) {
-        log.info("Запрос на подтверждение аренды с id = {}.", bookingId);
-
-        // Получение аренды
-        Booking booking = bookingRepository.findById(bookingId).orElseThrow(() ->
-                new NotFoundException("Запроса на аренду с id = " + bookingId + " не существует."));
+    private BookingDto createBookingInOneStatement(BookingCreateRepository createRepository,
+                                                   BookingDtoShort bookingDtoShort, Long userRenterId) {
+        // Время проверяется до обращения к БД, остальные проверки выполняются в том же запросе, что и вставка
+        if (!bookingTimeIsCorrect(bookingDtoShort)) {
+            throw new ValidationException("Время неверно относительно друг друга.");
+        }
+        Long itemId = bookingDtoShort.getItemId();
+        BookingCreateResult result;
+        try {
+            result = createRepository.createBooking(userRenterId, itemId, bookingDtoShort.getStart(),
+                    bookingDtoShort.getEnd());
+        } catch (DataIntegrityViolationException e) {
+            if (isBookingOverlap(e)) {
+                throw new BadRequestException("Вещь с id = " + itemId + " не доступна для аренды в это время.");
+            }
+            throw e;
+        }
+        switch (result.code()) {
+            case RENTER_NOT_FOUND -> throw new NotFoundException("Пользователь с id = " + userRenterId + " не существует.");
+            case ITEM_NOT_FOUND -> throw new NotFoundException("Вещь с id = " + itemId + " не существует.");
+            case ITEM_NOT_AVAILABLE -> throw new BadRequestException("Вещь с id = " + itemId + " не доступна для аренды.");
+            case OWNER_BOOKING -> throw new NotFoundException("Владелец не может арендовать свою вещь.");
+            case TIME_NOT_AVAILABLE ->
+                    throw new BadRequestException("Вещь с id = " + itemId + " не доступна для аренды в это время.");
+            default -> {
+            }
+        }
+        // Событие для BookingOutboxPoller записано тем же запросом, что и аренда
+        Booking bookingSaved = result.booking();
+        eventPublisher.publishEvent(new BookingChangedEvent(null, bookingSaved));
+        log.info("Запрос c id = {} на аренду вещи с id = {} создан.", bookingSaved.getId(), itemId);
+        return bookingDtoMapper.toBookingDto(bookingSaved);
+    }
 
-        // Проверка статуса аренды
-        if (booking.getStatus() != BookingStatus.WAITING) {
-            throw new BadRequestException("Запрос на аренду с id = " + bookingId + " уже обработан.");
+    @Transactional
+    public List<BookingCartResultDto> createBookings(Long userRenterId, BookingCartDto cartDto) {
+        log.info("Запрос на аренду вещей {} пользователем с id = {}.", cartDto.getItemIds(), userRenterId);
+        List<Long> itemIds = cartDto.getItemIds();
+        if (itemIds == null || itemIds.isEmpty()) {
+            throw new BadRequestException("Не указаны id вещей.");
         }
+        if (itemIds.size() > MAX_CART_SIZE) {
+            throw new BadRequestException("За один запрос можно арендовать не более " + MAX_CART_SIZE + " вещей.");
+        }
+        Set<Long> uniqueItemIds = new LinkedHashSet<>();
+        for (Long itemId : itemIds) {
+            if (itemId == null) {
+                throw new BadRequestException("Не указан id вещи.");
+            }
+            if (!uniqueItemIds.add(itemId)) {
+                throw new BadRequestException("Вещь с id = " + itemId + " указана несколько раз.");
+            }
+        }
+        LocalDateTime start = cartDto.getStart();
+        LocalDateTime end = cartDto.getEnd();
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ValidationException("Время неверно относительно друг друга.");
+        }
+        User renter = userRepository.findById(userRenterId).orElseThrow(() ->
+                new NotFoundException("Пользователь с id = " + userRenterId + " не существует."));
 
-        // Проверка доступа пользователя
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
-            throw new ForbiddenException("Пользователь с id = " + userId + " не имеет доступа.");
+        // Вещи с владельцами загружаются одним запросом
+        Map<Long, Item> itemById = itemRepository.findAllByIdIn(uniqueItemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, String> errorByItemId = new HashMap<>();
+        List<Long> checkedItemIds = new ArrayList<>();
+        for (Long itemId : uniqueItemIds) {
+            String error = checkCartItem(itemId, itemById.get(itemId), userRenterId);
+            if (error != null) {
+                errorByItemId.put(itemId, error);
+            } else {
+                checkedItemIds.add(itemId);
+            }
+        }
+        // Пересечения по времени проверяются для всех вещей одним запросом, минуя BookingAvailabilityIndex
+        if (!checkedItemIds.isEmpty()) {
+            for (Long busyItemId : bookingRepository.getBusyItemIds(checkedItemIds,
+                    BookingAvailabilityIndex.ACTIVE_STATUSES, start, end)) {
+                errorByItemId.put(busyItemId, "Вещь с id = " + busyItemId + " не доступна для аренды в это время.");
+            }
+        }
+        if (cartDto.getMode() != BookingCartMode.BEST_EFFORT && !errorByItemId.isEmpty()) {
+            throw new BadRequestException(uniqueItemIds.stream()
+                    .map(errorByItemId::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.joining(" ")));
         }
 
-        // Получение арендуемой вещи
-        Item bookingItem = booking.getItem();
+        // Аренды сохраняются одной пакетной вставкой (id выделяются из booking_seq блоками)
+        List<Booking> bookings = new ArrayList<>();
+        for (Long itemId : uniqueItemIds) {
+            if (!errorByItemId.containsKey(itemId)) {
+                bookings.add(Booking.builder()
+                        .renter(renter)
+                        .startTime(start)
+                        .endTime(end)
+                        .item(itemById.get(itemId))
+                        .status(BookingStatus.WAITING)
+                        .build());
+            }
+        }
+        List<Booking> bookingsSaved;
+        try {
+            bookingsSaved = bookingRepository.saveAllAndFlush(bookings);
+        } catch (DataIntegrityViolationException e) {
+            // Пересечение с арендой, созданной параллельно, отменяет всю корзину
+            if (isBookingOverlap(e)) {
+                throw new BadRequestException("Вещи не доступны для аренды в это время.");
+            }
+            throw e;
+        }
+        bookingOutboxRepository.addAll(bookingsSaved, null);
 
-        // Проверка доступа для сдачи
-        if (!bookingItem.getAvailable()) {
-            throw new BadRequestException("Вещь с id = " + bookingItem.getId() + " уже сдана в аренду.");
+        // Создание ответа в порядке вещей
+        Map<Long, Booking> bookingByItemId = new HashMap<>();
+        for (Booking booking : bookingsSaved) {
+            bookingByItemId.put(booking.getItem().getId(), booking);
+            eventPublisher.publishEvent(new BookingChangedEvent(null, booking));
+        }
+        List<BookingCartResultDto> results = new ArrayList<>(uniqueItemIds.size());
+        for (Long itemId : uniqueItemIds) {
+            Booking booking = bookingByItemId.get(itemId);
+            results.add(booking != null ?
+                    BookingCartResultDto.builder().itemId(itemId).booking(bookingDtoMapper.toBookingDto(booking)).build() :
+                    BookingCartResultDto.builder().itemId(itemId).error(errorByItemId.get(itemId)).build());
         }
+        log.info("Создано {} из {} запросов на аренду вещей.", bookingsSaved.size(), uniqueItemIds.size());
+        return results;
+    }
 
-        // Подтверждение или отмена
-        if (approved) {
-            booking.setStatus(BookingStatus.APPROVED);
-        } else {
-            booking.setStatus(BookingStatus.REJECTED);
+    @Transactional
+    public BookingDto approveBooking(Long bookingId, Long userId, Boolean approved) {
+        log.info("Запрос на подтверждение аренды с id = {}.", bookingId);
+
+        // Подтверждение или отмена одним условным обновлением: статус меняется, только если аренда
+        // ожидает подтверждения, а вещь принадлежит пользователю и доступна. Параллельные запросы
+        // не могут обработать одну аренду дважды
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        int updated = bookingRepository.updateStatusIfCurrent(status, List.of(bookingId), BookingStatus.WAITING,
+                userId);
+        if (updated == 0) {
+            throw getApprovalError(bookingId, userId);
         }
 
-        // Сохранение
-        bookingRepository.save(booking);
+        // Данные для ответа загружаются только после успешного обновления
+        Booking booking = bookingRepository.findAllByIdIn(List.of(bookingId)).getFirst();
+        bookingOutboxRepository.add(booking, BookingStatus.WAITING);
+        eventPublisher.publishEvent(new BookingChangedEvent(BookingStatus.WAITING, booking));
 
         // Создание ответа
         BookingDto bookingDto = bookingDtoMapper.toBookingDto(booking);
         log.info("Запрос c id = {} на аренду вещи с id = {} обработан ({}).",
                 booking.getId(),
-                bookingItem.getId(),
+                booking.getItem().getId(),
                 approved.toString().toUpperCase());
         return bookingDto;
     }
 
+    @Transactional
+    public List<BookingDecisionResultDto> approveBookings(Long userId, List<BookingDecisionDto> decisions) {
+        log.info("Запрос на пакетное подтверждение аренд пользователем с id = {}.", userId);
+        if (decisions == null || decisions.isEmpty()) {
+            throw new BadRequestException("Не указаны решения по арендам.");
+        }
+        if (decisions.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("За один запрос можно обработать не более " + MAX_BATCH_SIZE + " аренд.");
+        }
+        Map<Long, Boolean> approvedById = new LinkedHashMap<>();
+        for (BookingDecisionDto decision : decisions) {
+            if (decision == null || decision.getBookingId() == null || decision.getApproved() == null) {
+                throw new BadRequestException("Не указаны id аренды или решение.");
+            }
+            if (approvedById.put(decision.getBookingId(), decision.getApproved()) != null) {
+                throw new BadRequestException("Аренда с id = " + decision.getBookingId() + " указана несколько раз.");
+            }
+        }
+
+        // Аренды с вещами и владельцами загружаются одним запросом
+        Map<Long, Booking> bookingById = bookingRepository.findAllByIdIn(approvedById.keySet()).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, String> errorById = new HashMap<>();
+        List<Long> approvedIds = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        approvedById.forEach((bookingId, approved) -> {
+            String error = checkDecision(bookingId, bookingById.get(bookingId), userId);
+            if (error != null) {
+                errorById.put(bookingId, error);
+            } else if (approved) {
+                approvedIds.add(bookingId);
+            } else {
+                rejectedIds.add(bookingId);
+            }
+        });
+
+        // Статусы меняются условными обновлениями: аренда, обработанная параллельно, не изменится
+        int updated = 0;
+        if (!approvedIds.isEmpty()) {
+            updated += bookingRepository.updateStatusIfCurrent(BookingStatus.APPROVED, approvedIds,
+                    BookingStatus.WAITING, userId);
+        }
+        if (!rejectedIds.isEmpty()) {
+            updated += bookingRepository.updateStatusIfCurrent(BookingStatus.REJECTED, rejectedIds,
+                    BookingStatus.WAITING, userId);
+        }
+        if (updated < approvedIds.size() + rejectedIds.size()) {
+            // Часть аренд обработана между чтением и обновлением, их итоговые статусы перечитываются
+            List<Long> changedIds = new ArrayList<>(approvedIds);
+            changedIds.addAll(rejectedIds);
+            for (Booking booking : bookingRepository.findAllByIdIn(changedIds)) {
+                BookingStatus expected = approvedById.get(booking.getId()) ? BookingStatus.APPROVED :
+                        BookingStatus.REJECTED;
+                if (booking.getStatus() != expected) {
+                    errorById.put(booking.getId(), "Запрос на аренду с id = " + booking.getId() + " уже обработан.");
+                }
+            }
+        }
+
+        // Создание ответа в порядке решений
+        List<BookingDecisionResultDto> results = new ArrayList<>(approvedById.size());
+        List<Booking> changed = new ArrayList<>();
+        approvedById.forEach((bookingId, approved) -> {
+            String error = errorById.get(bookingId);
+            if (error != null) {
+                results.add(BookingDecisionResultDto.builder().bookingId(bookingId).error(error).build());
+                return;
+            }
+            Booking booking = bookingById.get(bookingId);
+            booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            changed.add(booking);
+            eventPublisher.publishEvent(new BookingChangedEvent(BookingStatus.WAITING, booking));
+            results.add(BookingDecisionResultDto.builder().bookingId(bookingId).status(booking.getStatus()).build());
+        });
+        bookingOutboxRepository.addAll(changed, BookingStatus.WAITING);
+        log.info("Пакетно обработано {} из {} запросов на аренду.", approvedById.size() - errorById.size(),
+                approvedById.size());
+        return results;
+    }
+
     public BookingDto getBooking(Long bookingId, Long userId) {
         log.info("Запрос на получение аренды с id = {}.", bookingId);
 
@@ -151,30 +400,7 @@ public class BookingService {
         }
 
         // Поиск по фильтру
-        List<Booking> bookings;
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByRenterIdOrderByIdDesc(userId);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.getBookingsCurrentForRenter(userId);
-                break;
-            case PAST:
-                bookings = bookingRepository.getBookingsPastForRenter(userId, BookingStatus.APPROVED);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.getBookingsFutureForRenter(userId,
-                        BookingStatus.WAITING, BookingStatus.APPROVED);
-                break;
-            case WAITING:
-                bookings = bookingRepository.getBookingsWaitingForRenter(userId, BookingStatus.WAITING);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.getBookingsRejectedForRenter(userId, BookingStatus.REJECTED);
-                break;
-            default:
-                throw new BadRequestException("Неправильный статус.");
-        }
+        List<Booking> bookings = findBookings(userId, state, firstPageCursor(state), Limit.unlimited());
 
         // Создание ответа
         List<BookingDto> bookingDto = bookings.stream().map(bookingDtoMapper::toBookingDto).toList();
@@ -184,6 +410,28 @@ public class BookingService {
         return bookingDto;
     }
 
+    public KeysetPage<BookingDto> getBookings(Long userId, BookingState state, Integer limit, String cursor) {
+        log.info("Запрос на получение исходящих запросов на аренду от пользователя с id = {} по фильтру {}, " +
+                "limit = {}, cursor = {}.", userId, state, limit, cursor);
+
+        // Проверка существования пользователя
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
+        }
+
+        // Запрашивается на одну аренду больше, чтобы понять, есть ли следующая страница
+        int pageSize = KeysetPage.getPageSize(limit);
+        long cursorId = cursor != null ? KeysetPage.decodeCursor(cursor) : firstPageCursor(state);
+        List<Booking> bookings = findBookings(userId, state, cursorId, Limit.of(pageSize + 1));
+
+        // Создание ответа
+        KeysetPage<BookingDto> page = toPage(bookings, pageSize);
+        log.info("Запрос для пользователя с id = {} показал {} исходящих заявок на аренду.",
+                userId,
+                page.items().size());
+        return page;
+    }
+
     public List<BookingDto> getBookingsOwner(Long userId, BookingState state) {
         log.info("Запрос на получение входящих запросов на аренду от пользователя с id = {} по фильтру {}.",
                 userId, state);
@@ -194,30 +442,7 @@ public class BookingService {
         }
 
         // Поиск по фильтру
-        List<Booking> bookings;
-        switch (state) {
-            case ALL:
-                bookings = bookingRepository.findAllByOwnerIdOrderByIdDesc(userId);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.getBookingsCurrentForOwner(userId);
-                break;
-            case PAST:
-                bookings = bookingRepository.getBookingsPastForOwner(userId, BookingStatus.APPROVED);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.getBookingsFutureForOwner(userId,
-                        BookingStatus.WAITING, BookingStatus.APPROVED);
-                break;
-            case WAITING:
-                bookings = bookingRepository.getBookingsWaitingForOwner(userId, BookingStatus.WAITING);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.getBookingsRejectedForOwner(userId, BookingStatus.REJECTED);
-                break;
-            default:
-                throw new BadRequestException("Неправильный статус.");
-        }
+        List<Booking> bookings = findBookingsOwner(userId, state, firstPageCursor(state), Limit.unlimited());
 
         // Создание ответа
         List<BookingDto> bookingDto = bookings.stream().map(bookingDtoMapper::toBookingDto).toList();
@@ -227,6 +452,155 @@ public class BookingService {
         return bookingDto;
     }
 
+    public KeysetPage<BookingDto> getBookingsOwner(Long userId, BookingState state, Integer limit, String cursor) {
+        log.info("Запрос на получение входящих запросов на аренду от пользователя с id = {} по фильтру {}, " +
+                "limit = {}, cursor = {}.", userId, state, limit, cursor);
+
+        // Проверка существования пользователя
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
+        }
+
+        // Запрашивается на одну аренду больше, чтобы понять, есть ли следующая страница
+        int pageSize = KeysetPage.getPageSize(limit);
+        long cursorId = cursor != null ? KeysetPage.decodeCursor(cursor) : firstPageCursor(state);
+        List<Booking> bookings = findBookingsOwner(userId, state, cursorId, Limit.of(pageSize + 1));
+
+        // Создание ответа
+        KeysetPage<BookingDto> page = toPage(bookings, pageSize);
+        log.info("Запрос для пользователя с id = {} показал {} входящих заявок на аренду.",
+                userId,
+                page.items().size());
+        return page;
+    }
+
+    public BookingCountsDto getBookingCounts(Long userId) {
+        log.info("Запрос на получение количества исходящих запросов на аренду от пользователя с id = {}.", userId);
+
+        // Проверка существования пользователя
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
+        }
+
+        BookingCountsDto bookingCounts = bookingRepository.getBookingCountsForRenter(userId,
+                BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED);
+        log.info("Запрос для пользователя с id = {} показал {} исходящих заявок на аренду.",
+                userId,
+                bookingCounts.getAll());
+        return bookingCounts;
+    }
+
+    public BookingCountsDto getBookingCountsOwner(Long userId) {
+        log.info("Запрос на получение количества входящих запросов на аренду от пользователя с id = {}.", userId);
+
+        // Проверка существования пользователя
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
+        }
+
+        BookingCountsDto bookingCounts = bookingRepository.getBookingCountsForOwner(userId,
+                BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED);
+        log.info("Запрос для пользователя с id = {} показал {} входящих заявок на аренду.",
+                userId,
+                bookingCounts.getAll());
+        return bookingCounts;
+    }
+
+    private List<Booking> findBookings(Long userId, BookingState state, Long cursorId, Limit limit) {
+        return switch (state) {
+            case ALL -> bookingRepository.findAllByRenterIdOrderByIdDesc(userId, cursorId, limit);
+            case CURRENT -> bookingRepository.getBookingsCurrentForRenter(userId, cursorId, limit);
+            case PAST -> bookingRepository.getBookingsPastForRenter(userId, BookingStatus.APPROVED, cursorId, limit);
+            case FUTURE -> bookingRepository.getBookingsFutureForRenter(userId,
+                    BookingStatus.WAITING, BookingStatus.APPROVED, cursorId, limit);
+            case WAITING -> bookingRepository.getBookingsWaitingForRenter(userId, BookingStatus.WAITING,
+                    cursorId, limit);
+            case REJECTED -> bookingRepository.getBookingsRejectedForRenter(userId, BookingStatus.REJECTED,
+                    cursorId, limit);
+        };
+    }
+
+    private List<Booking> findBookingsOwner(Long userId, BookingState state, Long cursorId, Limit limit) {
+        return switch (state) {
+            case ALL -> bookingRepository.findAllByOwnerIdOrderByIdDesc(userId, cursorId, limit);
+            case CURRENT -> bookingRepository.getBookingsCurrentForOwner(userId, cursorId, limit);
+            case PAST -> bookingRepository.getBookingsPastForOwner(userId, BookingStatus.APPROVED, cursorId, limit);
+            case FUTURE -> bookingRepository.getBookingsFutureForOwner(userId,
+                    BookingStatus.WAITING, BookingStatus.APPROVED, cursorId, limit);
+            case WAITING -> bookingRepository.getBookingsWaitingForOwner(userId, BookingStatus.WAITING,
+                    cursorId, limit);
+            case REJECTED -> bookingRepository.getBookingsRejectedForOwner(userId, BookingStatus.REJECTED,
+                    cursorId, limit);
+        };
+    }
+
+    private long firstPageCursor(BookingState state) {
+        // CURRENT упорядочен по возрастанию id, остальные фильтры - по убыванию
+        return state == BookingState.CURRENT ? 0L : Long.MAX_VALUE;
+    }
+
+    private KeysetPage<BookingDto> toPage(List<Booking> bookings, int pageSize) {
+        boolean hasNext = bookings.size() > pageSize;
+        List<BookingDto> bookingDtos = bookings.stream().limit(pageSize).map(bookingDtoMapper::toBookingDto).toList();
+        String nextCursor = hasNext ? KeysetPage.encodeCursor(bookingDtos.getLast().getId()) : null;
+        return new KeysetPage<>(bookingDtos, nextCursor);
+    }
+
+    private RuntimeException getApprovalError(Long bookingId, Long userId) {
+        // Аренда не изменилась: причина определяется по ее текущему состоянию
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            return new NotFoundException("Запроса на аренду с id = " + bookingId + " не существует.");
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return new BadRequestException("Запрос на аренду с id = " + bookingId + " уже обработан.");
+        }
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            return new ForbiddenException("Пользователь с id = " + userId + " не имеет доступа.");
+        }
+        if (!booking.getItem().getAvailable()) {
+            return new BadRequestException("Вещь с id = " + booking.getItem().getId() + " уже сдана в аренду.");
+        }
+        // Аренда снова ожидает подтверждения только если состояние изменилось между обновлением и чтением
+        return new BadRequestException("Запрос на аренду с id = " + bookingId + " уже обработан.");
+    }
+
+    private String checkDecision(Long bookingId, Booking booking, Long userId) {
+        // Проверки и сообщения те же, что и при подтверждении одной аренды
+        if (booking == null) {
+            return "Запроса на аренду с id = " + bookingId + " не существует.";
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            return "Запрос на аренду с id = " + bookingId + " уже обработан.";
+        }
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            return "Пользователь с id = " + userId + " не имеет доступа.";
+        }
+        if (!booking.getItem().getAvailable()) {
+            return "Вещь с id = " + booking.getItem().getId() + " уже сдана в аренду.";
+        }
+        return null;
+    }
+
+    private String checkCartItem(Long itemId, Item item, Long userRenterId) {
+        // Проверки и сообщения те же, что и при аренде одной вещи
+        if (item == null) {
+            return "Вещь с id = " + itemId + " не существует.";
+        }
+        if (!item.getAvailable()) {
+            return "Вещь с id = " + itemId + " не доступна для аренды.";
+        }
+        if (item.getOwner().getId().equals(userRenterId)) {
+            return "Владелец не может арендовать свою вещь.";
+        }
+        return null;
+    }
+
+    private boolean isBookingOverlap(DataIntegrityViolationException e) {
+        return e.getMostSpecificCause() instanceof SQLException sqlException &&
+                EXCLUSION_VIOLATION.equals(sqlException.getSQLState());
+    }
+
     private boolean bookingTimeIsCorrect(BookingDtoShort bookingDtoShort) {
         // Проводится валидация времени только относительно друг друга
         return bookingDtoShort.getStart() != null && bookingDtoShort.getEnd() != null &&
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingItemIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Битовые карты занятых дней вещей: день занят, если его пересекает ожидающая или подтвержденная аренда.
+ * Карты загружаются из БД при запуске (аренды, которые еще не закончились) и поддерживаются
+ * по BookingChangedEvent, закончившиеся аренды удаляются по BookingTransitionEvent.
+ * Индекс видит изменения только своего узла, поэтому, как и BookingAvailabilityIndex, он только отсеивает
+ * занятые вещи, а свободные подтверждаются в БД. Аренды, отклоненные или удаленные на другом узле, а также
+ * удаленные каскадно вместе с арендатором, скрывают вещь не дольше shareit.booking.days.reload-interval:
+ * с этим интервалом карты загружаются из БД заново.
+ */
+@Slf4j
+@Component
+public class BookedDaysIndex {
+
+    private final BookingRepository bookingRepository;
+    private volatile Map<Long, ItemDays> daysByItemId = new ConcurrentHashMap<>();
+    // Аренды, измененные во время загрузки: прочитанные для них из БД данные могли устареть,
+    // поэтому к загруженным картам применяется последнее состояние аренды из события
+    private Map<Long, Booking> changedDuringLoad;
+
+    public BookedDaysIndex(BookingRepository bookingRepository) {
+        this.bookingRepository = bookingRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${shareit.booking.days.reload-interval:PT5M}",
+            initialDelayString = "${shareit.booking.days.reload-interval:PT5M}")
+    public void load() {
+        synchronized (this) {
+            changedDuringLoad = new HashMap<>();
+        }
+        List<BookingItemIntervalView> bookings = bookingRepository.getBookingItemIntervals(
+                BookingAvailabilityIndex.ACTIVE_STATUSES, LocalDate.now().atStartOfDay());
+        Map<Long, ItemDays> loaded = new ConcurrentHashMap<>();
+        synchronized (this) {
+            for (BookingItemIntervalView booking : bookings) {
+                if (!changedDuringLoad.containsKey(booking.getId())) {
+                    add(loaded, booking.getItemId(), booking.getId(), booking.getStartTime(), booking.getEndTime());
+                }
+            }
+            changedDuringLoad.values().forEach(booking -> apply(loaded, booking));
+            daysByItemId = loaded;
+            changedDuringLoad = null;
+        }
+        log.info("Загружены занятые дни {} аренд {} вещей.", bookings.size(), loaded.size());
+    }
+
+    /**
+     * Свободна ли вещь во все дни от from до to включительно.
+     */
+    public boolean isFree(Long itemId, LocalDate from, LocalDate to) {
+        ItemDays itemDays = daysByItemId.get(itemId);
+        return itemDays == null || !itemDays.intersects(from.toEpochDay(), to.toEpochDay());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onBookingChanged(BookingChangedEvent event) {
+        Booking booking = event.current();
+        if (changedDuringLoad != null) {
+            changedDuringLoad.put(booking.getId(), booking);
+        }
+        apply(daysByItemId, booking);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onBookingTransition(BookingTransitionEvent event) {
+        if (event.type() == BookingTransitionEvent.Type.ENDED) {
+            remove(daysByItemId, event.booking().getItem().getId(), event.booking().getId());
+        }
+    }
+
+    // Аренды удаленного пользователя как арендатора остаются в картах до следующей загрузки
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserDeleted(UserDeletedEvent event) {
+        event.items().forEach(item -> daysByItemId.remove(item.getId()));
+    }
+
+    private static void apply(Map<Long, ItemDays> days, Booking booking) {
+        if (BookingAvailabilityIndex.ACTIVE_STATUSES.contains(booking.getStatus())) {
+            add(days, booking.getItem().getId(), booking.getId(), booking.getStartTime(), booking.getEndTime());
+        } else {
+            remove(days, booking.getItem().getId(), booking.getId());
+        }
+    }
+
+    private static void add(Map<Long, ItemDays> days, Long itemId, Long bookingId, LocalDateTime start,
+                            LocalDateTime end) {
+        days.computeIfAbsent(itemId, id -> new ItemDays())
+                .add(bookingId, new DayRange(start.toLocalDate().toEpochDay(), end.toLocalDate().toEpochDay()));
+    }
+
+    private static void remove(Map<Long, ItemDays> days, Long itemId, Long bookingId) {
+        ItemDays itemDays = days.get(itemId);
+        if (itemDays != null && itemDays.remove(bookingId)) {
+            days.remove(itemId);
+        }
+    }
+
+    private record DayRange(long fromDay, long toDay) {
+    }
+
+    private static final class ItemDays {
+
+        private final Map<Long, DayRange> rangeByBookingId = new HashMap<>();
+        private final DayBitmap bitmap = new DayBitmap();
+
+        private synchronized void add(Long bookingId, DayRange range) {
+            DayRange previous = rangeByBookingId.put(bookingId, range);
+            if (previous == null) {
+                bitmap.set(range.fromDay(), range.toDay());
+            } else if (!previous.equals(range)) {
+                rebuild();
+            }
+        }
+
+        /**
+         * Возвращает true, если у вещи не осталось аренд.
+         */
+        private synchronized boolean remove(Long bookingId) {
+            // Дни удаленной аренды могут быть заняты и другими арендами, поэтому карта строится заново
+            if (rangeByBookingId.remove(bookingId) != null) {
+                rebuild();
+            }
+            return rangeByBookingId.isEmpty();
+        }
+
+        private synchronized boolean intersects(long fromDay, long toDay) {
+            return bitmap.intersects(fromDay, toDay);
+        }
+
+        private void rebuild() {
+            bitmap.clear();
+            rangeByBookingId.values().forEach(range -> bitmap.set(range.fromDay(), range.toDay()));
+        }
+    }
+}
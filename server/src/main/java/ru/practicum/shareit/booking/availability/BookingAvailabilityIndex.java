@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Проверка свободного времени вещи по дереву интервалов ожидающих и подтвержденных аренд.
+ * Дерево вещи загружается из БД при первой проверке (только аренды, которые еще не закончились)
+ * и поддерживается по BookingChangedEvent. Деревья хранятся в LRU на shareit.booking.availability.max-items вещей.
+ * Свободное время всегда подтверждается запросом к БД, выигрыш O(log n) без запроса есть только при отказе.
+ * Индекс видит изменения только своего узла: аренда, отклоненная или истекшая на другом узле,
+ * остается занятой в дереве этого узла. Такие интервалы живут не дольше shareit.booking.availability.max-age,
+ * после чего дерево перечитывается из БД. Удаление пользователя удаляет его аренды каскадно, без событий,
+ * поэтому по UserDeletedEvent сбрасываются все деревья.
+ */
+@Slf4j
+@Component
+public class BookingAvailabilityIndex {
+
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final int maxItems;
+    private final long maxAgeNanos;
+    private final Map<Long, ItemIntervals> intervals;
+    // Увеличивается при каждом изменении аренд, чтобы не положить в индекс дерево, прочитанное до изменения
+    private long generation;
+
+    public BookingAvailabilityIndex(BookingRepository bookingRepository,
+                                    @Value("${shareit.booking.availability.index-enabled:true}") boolean enabled,
+                                    @Value("${shareit.booking.availability.max-items:10000}") int maxItems,
+                                    @Value("${shareit.booking.availability.max-age:PT10S}") Duration maxAge) {
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.maxItems = maxItems;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.intervals = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemIntervals> eldest) {
+                return size() > BookingAvailabilityIndex.this.maxItems;
+            }
+        };
+    }
+
+    /**
+     * Свободна ли вещь на [start, end]: нет ожидающей или подтвержденной аренды,
+     * пересекающейся с интервалом или целиком его содержащей.
+     */
+    public boolean isAvailable(Item item, LocalDateTime start, LocalDateTime end) {
+        if (enabled && maxItems > 0) {
+            ItemIntervals itemIntervals = getIntervals(item.getId());
+            if (itemIntervals != null && itemIntervals.overlaps(start, end)) {
+                return false;
+            }
+        }
+        return bookingRepository.availableAtTime(item, ACTIVE_STATUSES, start, end);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        Booking booking = event.current();
+        ItemIntervals itemIntervals;
+        synchronized (this) {
+            generation++;
+            itemIntervals = intervals.get(booking.getItem().getId());
+        }
+        if (itemIntervals == null) {
+            return;
+        }
+        if (ACTIVE_STATUSES.contains(booking.getStatus())) {
+            itemIntervals.add(booking.getId(), booking.getStartTime(), booking.getEndTime());
+        } else {
+            itemIntervals.remove(booking.getId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onUserDeleted(UserDeletedEvent event) {
+        generation++;
+        intervals.clear();
+    }
+
+    private ItemIntervals getIntervals(Long itemId) {
+        long loadGeneration;
+        synchronized (this) {
+            ItemIntervals cached = intervals.get(itemId);
+            if (cached != null && System.nanoTime() - cached.loadedAt < maxAgeNanos) {
+                return cached;
+            }
+            loadGeneration = generation;
+        }
+        long loadedAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingIntervalView> bookings = bookingRepository.getBookingIntervals(itemId, ACTIVE_STATUSES, now);
+        ItemIntervals loaded = new ItemIntervals(loadedAt);
+        for (BookingIntervalView booking : bookings) {
+            loaded.add(booking.getId(), booking.getStartTime(), booking.getEndTime());
+        }
+        log.debug("Загружено {} интервалов аренды вещи с id = {}.", bookings.size(), itemId);
+        synchronized (this) {
+            if (loadGeneration != generation) {
+                return null;
+            }
+            intervals.put(itemId, loaded);
+        }
+        return loaded;
+    }
+
+    private static final class ItemIntervals {
+
+        private final BookingIntervalTree tree = new BookingIntervalTree();
+        private final long loadedAt;
+
+        private ItemIntervals(long loadedAt) {
+            this.loadedAt = loadedAt;
+        }
+
+        private synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+            return tree.overlaps(start, end);
+        }
+
+        private synchronized void add(Long bookingId, LocalDateTime start, LocalDateTime end) {
+            tree.add(bookingId, start, end);
+        }
+
+        private synchronized void remove(Long bookingId) {
+            tree.remove(bookingId);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package ru.practicum.shareit.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Дерево интервалов аренд одной вещи: AVL-дерево по (начало, id аренды), в каждом узле
+ * хранится максимальный конец интервала в поддереве. Вставка, удаление и поиск пересечения
+ * выполняются за O(log n). Интервалы замкнутые, как в BookingRepository.availableAtTime.
+ * Не потокобезопасно.
+ */
+class BookingIntervalTree {
+
+    private final Map<Long, LocalDateTime> startByBookingId = new HashMap<>();
+    private Node root;
+
+    void add(long bookingId, LocalDateTime start, LocalDateTime end) {
+        remove(bookingId);
+        root = insert(root, new Node(bookingId, start, end));
+        startByBookingId.put(bookingId, start);
+    }
+
+    void remove(long bookingId) {
+        LocalDateTime start = startByBookingId.remove(bookingId);
+        if (start != null) {
+            root = delete(root, start, bookingId);
+        }
+    }
+
+    /**
+     * Есть ли интервал, пересекающийся с [start, end], в том числе целиком его содержащий.
+     */
+    boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        Node node = root;
+        while (node != null) {
+            if (!node.start.isAfter(end) && !node.end.isBefore(start)) {
+                return true;
+            }
+            // Если в левом поддереве есть интервал, заканчивающийся не раньше start, и он не пересекается,
+            // то он начинается после end, а значит и все интервалы правого поддерева тоже
+            node = node.left != null && !node.left.maxEnd.isBefore(start) ? node.left : node.right;
+        }
+        return false;
+    }
+
+    int size() {
+        return startByBookingId.size();
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.start, added.bookingId, node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node delete(Node node, LocalDateTime start, long bookingId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, bookingId, node);
+        if (cmp < 0) {
+            node.left = delete(node.left, start, bookingId);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, start, bookingId);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node min = node.right;
+            while (min.left != null) {
+                min = min.left;
+            }
+            min.right = deleteMin(node.right);
+            min.left = node.left;
+            node = min;
+        }
+        return balance(node);
+    }
+
+    private Node deleteMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = deleteMin(node.left);
+        return balance(node);
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        LocalDateTime maxEnd = node.end;
+        if (node.left != null && node.left.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(maxEnd)) {
+            maxEnd = node.right.maxEnd;
+        }
+        node.maxEnd = maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int compare(LocalDateTime start, long bookingId, Node node) {
+        int cmp = start.compareTo(node.start);
+        return cmp != 0 ? cmp : Long.compare(bookingId, node.bookingId);
+    }
+
+    private static final class Node {
+
+        private final long bookingId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long bookingId, LocalDateTime start, LocalDateTime end) {
+            this.bookingId = bookingId;
+            this.start = start;
+            this.end = end;
+            this.maxEnd = end;
+        }
+    }
+}
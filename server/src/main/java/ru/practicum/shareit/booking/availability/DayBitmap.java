@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.availability;
+
+/**
+ * Битовая карта дней (номера дней от эпохи): бит на день в массиве long, покрывающем только
+ * слова от первого до последнего отмеченного дня. Год занятости вещи занимает шесть long.
+ * Не потокобезопасно.
+ */
+class DayBitmap {
+
+    private static final long[] EMPTY = new long[0];
+
+    // Номер слова, соответствующего words[0]
+    private long firstWord;
+    private long[] words = EMPTY;
+
+    /**
+     * Отмечает дни от fromDay до toDay включительно.
+     */
+    void set(long fromDay, long toDay) {
+        ensureCapacity(fromDay >> 6, toDay >> 6);
+        for (long word = fromDay >> 6; word <= toDay >> 6; word++) {
+            words[(int) (word - firstWord)] |= mask(word, fromDay, toDay);
+        }
+    }
+
+    /**
+     * Отмечен ли хотя бы один день от fromDay до toDay включительно.
+     */
+    boolean intersects(long fromDay, long toDay) {
+        long from = Math.max(fromDay >> 6, firstWord);
+        long to = Math.min(toDay >> 6, firstWord + words.length - 1);
+        for (long word = from; word <= to; word++) {
+            if ((words[(int) (word - firstWord)] & mask(word, fromDay, toDay)) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clear() {
+        words = EMPTY;
+    }
+
+    private void ensureCapacity(long fromWord, long toWord) {
+        if (words.length == 0) {
+            firstWord = fromWord;
+            words = new long[(int) (toWord - fromWord + 1)];
+            return;
+        }
+        long newFirst = Math.min(firstWord, fromWord);
+        long newLast = Math.max(firstWord + words.length - 1, toWord);
+        if (newFirst == firstWord && newLast == firstWord + words.length - 1) {
+            return;
+        }
+        long[] grown = new long[(int) (newLast - newFirst + 1)];
+        System.arraycopy(words, 0, grown, (int) (firstWord - newFirst), words.length);
+        firstWord = newFirst;
+        words = grown;
+    }
+
+    // Биты дней слова word, попадающих в [fromDay, toDay]
+    private static long mask(long word, long fromDay, long toDay) {
+        int fromBit = word == fromDay >> 6 ? (int) (fromDay & 63) : 0;
+        int toBit = word == toDay >> 6 ? (int) (toDay & 63) : 63;
+        return (-1L >>> (63 - toBit)) & (-1L << fromBit);
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.availability;
+
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Свободные интервалы вещи на периоде [from, to] по ее арендам, отсортированным по началу.
+ * Аренды проходятся один раз (sweep line): пересекающиеся и соседние аренды сливаются,
+ * промежутки между ними попадают в ответ. Границы свободного интервала совпадают с концом
+ * и началом соседних аренд, сами эти моменты заняты (интервалы аренд замкнутые).
+ */
+public final class FreeIntervals {
+
+    private FreeIntervals() {
+    }
+
+    public static List<TimeIntervalDto> between(LocalDateTime from, LocalDateTime to,
+                                                List<BookingIntervalView> bookingsByStart) {
+        List<TimeIntervalDto> free = new ArrayList<>();
+        // Момент, до которого период уже занят или разобран
+        LocalDateTime busyUntil = from;
+        for (BookingIntervalView booking : bookingsByStart) {
+            if (!booking.getStartTime().isBefore(to)) {
+                break;
+            }
+            if (booking.getStartTime().isAfter(busyUntil)) {
+                free.add(new TimeIntervalDto(busyUntil, booking.getStartTime()));
+            }
+            if (booking.getEndTime().isAfter(busyUntil)) {
+                busyUntil = booking.getEndTime();
+            }
+        }
+        if (busyUntil.isBefore(to)) {
+            free.add(new TimeIntervalDto(busyUntil, to));
+        }
+        return free;
+    }
+}
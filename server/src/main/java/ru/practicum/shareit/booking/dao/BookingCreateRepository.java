@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Создание аренды одним запросом к PostgreSQL: проверки арендатора, вещи, владельца и пересечения
+ * по времени и вставка выполняются в одном CTE. Ответ содержит код результата и данные
+ * арендатора и вещи, нужные для ответа, поэтому создание занимает одно обращение к БД.
+ * Событие создания для BookingOutboxPoller записывается в booking_outbox тем же запросом.
+ * Включается свойством shareit.booking.create-mode=single-statement (H2 не поддерживает INSERT в CTE).
+ */
+@Repository
+@ConditionalOnProperty(name = "shareit.booking.create-mode", havingValue = "single-statement")
+public class BookingCreateRepository {
+
+    private static final String CREATE_BOOKING = """
+        with renter as (
+            select u.id, u.name, u.email
+            from users as u
+            where u.id = :renterId
+        ), item as (
+            select i.id, i.name, i.description, i.available, i.owner, i.request
+            from items as i
+            where i.id = :itemId
+        ), check_result as (
+            select case
+                when not exists (select 1 from renter) then 'RENTER_NOT_FOUND'
+                when not exists (select 1 from item) then 'ITEM_NOT_FOUND'
+                when not (select available from item) then 'ITEM_NOT_AVAILABLE'
+                when (select owner from item) = :renterId then 'OWNER_BOOKING'
+                when exists (
+                    select 1
+                    from booking as b
+                    where b.rented_item = :itemId and b.status in (:waitingId, :approvedId) and
+                        b.start_time <= :endTime and b.end_time >= :startTime
+                ) then 'TIME_NOT_AVAILABLE'
+                else 'CREATED'
+            end as result
+        ), inserted as (
+            insert into booking (renter_user, start_time, end_time, rented_item, status)
+            select :renterId, :startTime, :endTime, :itemId, :waitingId
+            from check_result
+            where result = 'CREATED'
+            returning id
+        ), outbox as (
+            insert into booking_outbox (booking_id, item_id, previous_status, status, created)
+            select ins.id, :itemId, null, :waitingId, current_timestamp
+            from inserted as ins
+        )
+        select c.result, ins.id as booking_id,
+            r.name as renter_name, r.email as renter_email,
+            i.name as item_name, i.description as item_description, i.available as item_available,
+            i.owner as item_owner, i.request as item_request
+        from check_result as c
+        left join inserted as ins on true
+        left join renter as r on true
+        left join item as i on true
+    """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public BookingCreateRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public BookingCreateResult createBooking(Long renterId, Long itemId, LocalDateTime start, LocalDateTime end) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("renterId", renterId)
+                .addValue("itemId", itemId)
+                .addValue("startTime", start)
+                .addValue("endTime", end)
+                .addValue("waitingId", BookingStatus.WAITING.getId())
+                .addValue("approvedId", BookingStatus.APPROVED.getId());
+        return jdbcTemplate.queryForObject(CREATE_BOOKING, parameters, (resultSet, rowNum) -> {
+            BookingCreateResult.Code code = BookingCreateResult.Code.valueOf(resultSet.getString("result"));
+            if (code != BookingCreateResult.Code.CREATED) {
+                return new BookingCreateResult(code, null);
+            }
+            long requestId = resultSet.getLong("item_request");
+            ItemRequest request = resultSet.wasNull() ? null : ItemRequest.builder().id(requestId).build();
+            Item item = Item.builder()
+                    .id(itemId)
+                    .name(resultSet.getString("item_name"))
+                    .description(resultSet.getString("item_description"))
+                    .available(resultSet.getBoolean("item_available"))
+                    .owner(User.builder().id(resultSet.getLong("item_owner")).build())
+                    .request(request)
+                    .build();
+            Booking booking = Booking.builder()
+                    .id(resultSet.getLong("booking_id"))
+                    .renter(new User(renterId, resultSet.getString("renter_name"), resultSet.getString("renter_email")))
+                    .startTime(start)
+                    .endTime(end)
+                    .item(item)
+                    .status(BookingStatus.WAITING)
+                    .build();
+            return new BookingCreateResult(code, booking);
+        });
+    }
+}
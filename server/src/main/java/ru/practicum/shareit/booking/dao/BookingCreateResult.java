@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * Результат создания аренды одним запросом.
+ *
+ * @param code    какая проверка не прошла, либо CREATED
+ * @param booking созданная аренда, только для CREATED
+ */
+public record BookingCreateResult(Code code, Booking booking) {
+
+    public enum Code {
+        CREATED, RENTER_NOT_FOUND, ITEM_NOT_FOUND, ITEM_NOT_AVAILABLE, OWNER_BOOKING, TIME_NOT_AVAILABLE
+    }
+}
@@ -1,116 +1,243 @@
 package ru.practicum.shareit.booking.dao;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingItemIntervalView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    List<Booking> findAllByRenterIdOrderByIdDesc(Long userId);
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner"})
+    List<Booking> findAllByIdIn(Collection<Long> ids);
 
+    // Статус меняется только у ожидающих аренд доступных вещей владельца, остальные строки не затрагиваются
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Booking as b
+        set b.status = ?1
+        where b.id in ?2 and b.status = ?3 and
+            b.item.id in (select i.id from Item as i where i.owner.id = ?4 and i.available = true)
+    """)
+    int updateStatusIfCurrent(BookingStatus status, Collection<Long> ids, BookingStatus currentStatus, Long ownerId);
+
+    // Отклонение ожидающих аренд, время начала которых прошло (BookingTransitionScheduler)
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+        update Booking as b
+        set b.status = ?1
+        where b.id in ?2 and b.status = ?3 and b.startTime <= ?4
+    """)
+    int updateStatusIfStarted(BookingStatus status, Collection<Long> ids, BookingStatus currentStatus,
+                              LocalDateTime startedBefore);
+
+    // Списки аренд читаются страницами по id: курсор - id последней аренды предыдущей страницы,
+    // для первой страницы передается Long.MAX_VALUE (0 для CURRENT, который упорядочен по возрастанию)
+
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
-        where b.item.owner.id = ?1
+        where b.renter.id = ?1 and b.id < ?2
+        order by b.id desc
+    """)
+    List<Booking> findAllByRenterIdOrderByIdDesc(Long userId, Long cursorId, Limit limit);
+
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
+    @Query("""
+        select b
+        from Booking as b
+        where b.item.owner.id = ?1 and b.id < ?2
         order by b.id desc
     """)
-    List<Booking> findAllByOwnerIdOrderByIdDesc(Long userId);
+    List<Booking> findAllByOwnerIdOrderByIdDesc(Long userId, Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
-        where b.renter.id = ?1 and current_timestamp between b.startTime and b.endTime
+        where b.renter.id = ?1 and current_timestamp between b.startTime and b.endTime and b.id > ?2
         order by b.id asc
     """)
-    List<Booking> getBookingsCurrentForRenter(Long userId);
+    List<Booking> getBookingsCurrentForRenter(Long userId, Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
         where b.renter.id = ?1 and b.status = ?2 and
-            current_timestamp > b.endTime
+            current_timestamp > b.endTime and b.id < ?3
         order by b.id desc
     """)
-    List<Booking> getBookingsPastForRenter(Long userId, BookingStatus status);
+    List<Booking> getBookingsPastForRenter(Long userId, BookingStatus status, Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
         where b.renter.id = ?1 and (b.status = ?2 or b.status = ?3) and
-            current_timestamp < b.startTime
+            current_timestamp < b.startTime and b.id < ?4
         order by b.id desc
     """)
-    List<Booking> getBookingsFutureForRenter(Long userId, BookingStatus status1, BookingStatus status2);
+    List<Booking> getBookingsFutureForRenter(Long userId, BookingStatus status1, BookingStatus status2,
+                                             Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
-        where b.renter.id = ?1 and b.status = ?2
+        where b.renter.id = ?1 and b.status = ?2 and b.id < ?3
         order by b.id desc
     """)
-    List<Booking> getBookingsWaitingForRenter(Long userId, BookingStatus status);
+    List<Booking> getBookingsWaitingForRenter(Long userId, BookingStatus status, Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
-        where b.renter.id = ?1 and b.status = ?2
+        where b.renter.id = ?1 and b.status = ?2 and b.id < ?3
         order by b.id desc
     """)
-    List<Booking> getBookingsRejectedForRenter(Long userId, BookingStatus status);
+    List<Booking> getBookingsRejectedForRenter(Long userId, BookingStatus status, Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
-        where b.item.owner.id = ?1 and current_timestamp between b.startTime and b.endTime
+        where b.item.owner.id = ?1 and current_timestamp between b.startTime and b.endTime and b.id > ?2
         order by b.id asc
     """)
-    List<Booking> getBookingsCurrentForOwner(Long userId);
+    List<Booking> getBookingsCurrentForOwner(Long userId, Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
-        where b.item.owner.id = ?1 and b.status = ?2 and current_timestamp > b.endTime
+        where b.item.owner.id = ?1 and b.status = ?2 and current_timestamp > b.endTime and b.id < ?3
         order by b.id desc
     """)
-    List<Booking> getBookingsPastForOwner(Long userId, BookingStatus status);
+    List<Booking> getBookingsPastForOwner(Long userId, BookingStatus status, Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
-        where b.item.owner.id = ?1 and (b.status = ?2 or b.status = ?3) and current_timestamp < b.startTime
+        where b.item.owner.id = ?1 and (b.status = ?2 or b.status = ?3) and current_timestamp < b.startTime and
+            b.id < ?4
         order by b.id desc
     """)
-    List<Booking> getBookingsFutureForOwner(Long userId, BookingStatus status1, BookingStatus status2);
+    List<Booking> getBookingsFutureForOwner(Long userId, BookingStatus status1, BookingStatus status2,
+                                            Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
-        where b.item.owner.id = ?1 and b.status = ?2
+        where b.item.owner.id = ?1 and b.status = ?2 and b.id < ?3
         order by b.id desc
     """)
-    List<Booking> getBookingsWaitingForOwner(Long userId, BookingStatus status);
+    List<Booking> getBookingsWaitingForOwner(Long userId, BookingStatus status, Long cursorId, Limit limit);
 
+    @EntityGraph(attributePaths = {"renter", "item", "item.owner", "item.request", "item.request.creator"})
     @Query("""
         select b
         from Booking as b
-        where b.item.owner.id = ?1 and b.status = ?2
+        where b.item.owner.id = ?1 and b.status = ?2 and b.id < ?3
         order by b.id desc
     """)
-    List<Booking> getBookingsRejectedForOwner(Long userId, BookingStatus status);
+    List<Booking> getBookingsRejectedForOwner(Long userId, BookingStatus status, Long cursorId, Limit limit);
+
+    // Количества по фильтрам считаются одним агрегатным запросом с теми же условиями, что и в списках выше
+
+    @Query("""
+        select new ru.practicum.shareit.booking.dto.BookingCountsDto(
+            count(b),
+            count(b) filter (where current_timestamp between b.startTime and b.endTime),
+            count(b) filter (where b.status = ?2 and current_timestamp > b.endTime),
+            count(b) filter (where (b.status = ?3 or b.status = ?2) and current_timestamp < b.startTime),
+            count(b) filter (where b.status = ?3),
+            count(b) filter (where b.status = ?4))
+        from Booking as b
+        where b.renter.id = ?1
+    """)
+    BookingCountsDto getBookingCountsForRenter(Long userId, BookingStatus approved, BookingStatus waiting,
+                                               BookingStatus rejected);
+
+    @Query("""
+        select new ru.practicum.shareit.booking.dto.BookingCountsDto(
+            count(b),
+            count(b) filter (where current_timestamp between b.startTime and b.endTime),
+            count(b) filter (where b.status = ?2 and current_timestamp > b.endTime),
+            count(b) filter (where (b.status = ?3 or b.status = ?2) and current_timestamp < b.startTime),
+            count(b) filter (where b.status = ?3),
+            count(b) filter (where b.status = ?4))
+        from Booking as b
+        where b.item.owner.id = ?1
+    """)
+    BookingCountsDto getBookingCountsForOwner(Long userId, BookingStatus approved, BookingStatus waiting,
+                                              BookingStatus rejected);
 
     @Query("""
         select not exists (select b
         from Booking as b
-        where b.item = ?1 and b.status = ?2 and (
-            ?3 between b.startTime and b.endTime or ?4 between b.startTime and b.endTime
-        ))
+        where b.item = ?1 and b.status in ?2 and b.startTime <= ?4 and b.endTime >= ?3)
     """)
-    boolean availableAtTime(Item item, BookingStatus bookingStatus, LocalDateTime startTime, LocalDateTime endTime);
+    boolean availableAtTime(Item item, Collection<BookingStatus> statuses, LocalDateTime startTime,
+                            LocalDateTime endTime);
+
+    @Query("""
+        select b.id as id, b.startTime as startTime, b.endTime as endTime
+        from Booking as b
+        where b.item.id = ?1 and b.status in ?2 and b.endTime >= ?3
+    """)
+    List<BookingIntervalView> getBookingIntervals(Long itemId, Collection<BookingStatus> statuses,
+                                                  LocalDateTime endAfter);
+
+    @Query("""
+        select b.id as id, b.item.id as itemId, b.startTime as startTime, b.endTime as endTime
+        from Booking as b
+        where b.status in ?1 and b.endTime >= ?2
+    """)
+    List<BookingItemIntervalView> getBookingItemIntervals(Collection<BookingStatus> statuses, LocalDateTime endAfter);
+
+    // Все ожидающие аренды и еще не закончившиеся подтвержденные для таймеров BookingTransitionScheduler
+    @Query("""
+        select b.id as id, b.startTime as startTime, b.endTime as endTime
+        from Booking as b
+        where b.status = ?1 or (b.status = ?2 and b.endTime > ?3)
+    """)
+    List<BookingIntervalView> getBookingTimers(BookingStatus waiting, BookingStatus approved, LocalDateTime endAfter);
+
+    @Query("""
+        select b.id as id, b.startTime as startTime, b.endTime as endTime
+        from Booking as b
+        where b.item.id = ?1 and b.status in ?2 and b.startTime <= ?4 and b.endTime >= ?3
+        order by b.startTime asc
+    """)
+    List<BookingIntervalView> getBookingIntervals(Long itemId, Collection<BookingStatus> statuses,
+                                                  LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+        select distinct b.item.id
+        from Booking as b
+        where b.item.id in ?1 and b.status in ?2 and b.startTime <= ?4 and b.endTime >= ?3
+    """)
+    List<Long> getBusyItemIds(Collection<Long> itemIds, Collection<BookingStatus> statuses,
+                              LocalDateTime startTime, LocalDateTime endTime);
 
     @Query("""
         select b
@@ -132,6 +259,41 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     """)
     Booking getNextBooking(Long userId, Long itemId, BookingStatus status);
 
+    @Query("""
+        select min(b.startTime)
+        from Booking as b
+        where b.item.id = ?1 and current_timestamp < b.startTime
+    """)
+    LocalDateTime getNearestBookingStart(Long itemId);
+
+    @Query(value = """
+        select b.id as id, b.rented_item as itemId, b.renter_user as bookerId
+        from (
+            select bk.id, bk.rented_item, bk.renter_user,
+                row_number() over (partition by bk.rented_item order by bk.start_time desc) as rn
+            from booking as bk
+            join items as i on i.id = bk.rented_item
+            where i.owner = :userId and bk.rented_item in (:itemIds) and
+                bk.start_time < current_timestamp
+        ) as b
+        where b.rn = 1
+    """, nativeQuery = true)
+    List<BookingForItemView> getLastBookings(Long userId, Collection<Long> itemIds);
+
+    @Query(value = """
+        select b.id as id, b.rented_item as itemId, b.renter_user as bookerId
+        from (
+            select bk.id, bk.rented_item, bk.renter_user,
+                row_number() over (partition by bk.rented_item order by bk.start_time asc) as rn
+            from booking as bk
+            join items as i on i.id = bk.rented_item
+            where i.owner = :userId and bk.rented_item in (:itemIds) and
+                current_timestamp < bk.start_time and bk.status = :statusId
+        ) as b
+        where b.rn = 1
+    """, nativeQuery = true)
+    List<BookingForItemView> getNextBookings(Long userId, Collection<Long> itemIds, Long statusId);
+
     @Query("""
         select b
         from Booking as b
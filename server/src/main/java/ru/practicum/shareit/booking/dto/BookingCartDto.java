@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Аренда нескольких вещей на одно время. Без mode корзина создается целиком (ALL_OR_NOTHING).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCartDto {
+
+    private List<Long> itemIds;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+    private BookingCartMode mode;
+
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.booking.dto;
+
+public enum BookingCartMode {
+    // Аренды создаются, только если можно арендовать все вещи корзины
+    ALL_OR_NOTHING,
+    // Создаются аренды вещей, которые можно арендовать, для остальных возвращается ошибка
+    BEST_EFFORT
+}
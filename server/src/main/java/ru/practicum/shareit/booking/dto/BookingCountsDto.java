@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Количество аренд пользователя по каждому фильтру BookingState.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingCountsDto {
+
+    private Long all;
+
+    private Long current;
+
+    private Long past;
+
+    private Long future;
+
+    private Long waiting;
+
+    private Long rejected;
+
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.dto;
+
+/**
+ * Проекция последней/следующей аренды вещи для пакетного заполнения списков вещей.
+ */
+public interface BookingForItemView {
+
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+}
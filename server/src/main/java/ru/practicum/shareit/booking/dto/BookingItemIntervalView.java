@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Проекция интервала аренды с id вещи для битовых карт занятых дней.
+ */
+public interface BookingItemIntervalView {
+
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStartTime();
+
+    LocalDateTime getEndTime();
+
+}
@@ -5,6 +5,7 @@ import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.dto.BookingForItem;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.dto.mapper.MapperItemDto;
 import ru.practicum.shareit.item.model.Item;
@@ -43,4 +44,11 @@ public class BookingDtoMapper {
                 .bookerId(booking.getRenter().getId())
                 .build();
     }
+
+    public BookingForItem toBookingForItem(final BookingForItemView bookingForItemView) {
+        return BookingForItem.builder()
+                .id(bookingForItemView.getId())
+                .bookerId(bookingForItemView.getBookerId())
+                .build();
+    }
 }
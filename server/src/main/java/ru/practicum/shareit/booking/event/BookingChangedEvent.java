@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Публикуется после сохранения аренды. При создании previousStatus равен null.
+ * Слушатели получают событие после фиксации транзакции, а вне транзакции сразу.
+ */
+public record BookingChangedEvent(BookingStatus previousStatus, Booking current) {
+}
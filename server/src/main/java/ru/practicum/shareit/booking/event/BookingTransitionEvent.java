@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.event;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * Публикуется BookingTransitionScheduler, когда у подтвержденной аренды наступает начало
+ * (из FUTURE в CURRENT) или конец (из CURRENT в PAST). Статус аренды при этом не меняется.
+ */
+public record BookingTransitionEvent(Type type, Booking booking) {
+
+    public enum Type {
+        STARTED, ENDED
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.outbox;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Счетчики событий аренд shareit.booking.events с тегом нового статуса для аналитики.
+ */
+@Component
+public class BookingEventMetrics implements BookingOutboxListener {
+
+    private final MeterRegistry meterRegistry;
+
+    public BookingEventMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onBookingEvent(BookingOutboxEvent event) {
+        meterRegistry.counter("shareit.booking.events", "status", event.status().name()).increment();
+    }
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.outbox;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие аренды из таблицы booking_outbox. При создании аренды previousStatus равен null.
+ */
+public record BookingOutboxEvent(long id, long bookingId, long itemId, BookingStatus previousStatus,
+                                 BookingStatus status, LocalDateTime created) {
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.outbox;
+
+/**
+ * Получатель событий аренд из booking_outbox. Вызывается в потоке BookingOutboxPoller, а не в потоке запроса.
+ * Доставка "хотя бы один раз": если получатель бросит исключение, пачка событий будет доставлена повторно
+ * всем получателям, поэтому обработка должна быть идемпотентной.
+ */
+public interface BookingOutboxListener {
+
+    void onBookingEvent(BookingOutboxEvent event);
+}
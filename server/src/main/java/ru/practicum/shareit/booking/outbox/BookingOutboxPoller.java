@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Доставка событий из booking_outbox получателям BookingOutboxListener. События читаются пачками
+ * по shareit.booking.outbox.batch-size с FOR UPDATE SKIP LOCKED и удаляются в той же транзакции
+ * после вызова всех получателей, поэтому несколько узлов сервера могут разбирать таблицу параллельно.
+ * Если получатель бросит исключение, транзакция откатывается и пачка доставляется при следующем опросе.
+ */
+@Slf4j
+@Component
+public class BookingOutboxPoller {
+
+    private final BookingOutboxRepository outboxRepository;
+    private final List<BookingOutboxListener> listeners;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public BookingOutboxPoller(BookingOutboxRepository outboxRepository,
+                               List<BookingOutboxListener> listeners,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${shareit.booking.outbox.enabled:true}") boolean enabled,
+                               @Value("${shareit.booking.outbox.batch-size:100}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.listeners = listeners;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.outbox.poll-interval:PT1S}")
+    public void poll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            int delivered = deliverAll();
+            if (delivered > 0) {
+                log.debug("Доставлено {} событий аренд.", delivered);
+            }
+        } catch (RuntimeException e) {
+            log.error("Не удалось доставить события аренд, они будут доставлены при следующем опросе.", e);
+        }
+    }
+
+    /**
+     * Доставляет события пачками, пока таблица не опустеет. Возвращает количество доставленных событий.
+     */
+    public int deliverAll() {
+        int total = 0;
+        int delivered;
+        do {
+            delivered = deliverBatch();
+            total += delivered;
+        } while (delivered == batchSize);
+        return total;
+    }
+
+    private int deliverBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            List<BookingOutboxEvent> events = outboxRepository.lockBatch(batchSize);
+            for (BookingOutboxEvent event : events) {
+                for (BookingOutboxListener listener : listeners) {
+                    listener.onBookingEvent(event);
+                }
+            }
+            outboxRepository.deleteAll(events.stream().map(BookingOutboxEvent::id).toList());
+            return events.size();
+        });
+        return delivered != null ? delivered : 0;
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Таблица booking_outbox: события аренд записываются в той же транзакции, что и изменение аренды,
+ * и удаляются после доставки получателям.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingOutboxRepository {
+
+    private static final String INSERT = """
+        insert into booking_outbox (booking_id, item_id, previous_status, status, created)
+        values (:bookingId, :itemId, :previousStatus, :status, current_timestamp)
+    """;
+
+    // Строки, заблокированные другим узлом, пропускаются, поэтому узлы разбирают таблицу параллельно
+    private static final String LOCK_BATCH = """
+        select o.id, o.booking_id, o.item_id, o.previous_status, o.status, o.created
+        from booking_outbox as o
+        order by o.id
+        limit :batchSize
+        for update skip locked
+    """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public void add(Booking booking, BookingStatus previousStatus) {
+        jdbcTemplate.update(INSERT, toParameters(booking, previousStatus));
+    }
+
+    public void addAll(Collection<Booking> bookings, BookingStatus previousStatus) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT, bookings.stream()
+                .map(booking -> toParameters(booking, previousStatus))
+                .toArray(SqlParameterSource[]::new));
+    }
+
+    /**
+     * Первые batchSize событий по порядку записи, заблокированные до конца транзакции.
+     */
+    public List<BookingOutboxEvent> lockBatch(int batchSize) {
+        return jdbcTemplate.query(LOCK_BATCH, new MapSqlParameterSource("batchSize", batchSize),
+                (resultSet, rowNum) -> {
+                    long previousStatusId = resultSet.getLong("previous_status");
+                    BookingStatus previousStatus = resultSet.wasNull() ? null : BookingStatus.fromId(previousStatusId);
+                    return new BookingOutboxEvent(
+                            resultSet.getLong("id"),
+                            resultSet.getLong("booking_id"),
+                            resultSet.getLong("item_id"),
+                            previousStatus,
+                            BookingStatus.fromId(resultSet.getLong("status")),
+                            resultSet.getTimestamp("created").toLocalDateTime());
+                });
+    }
+
+    public void deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("delete from booking_outbox where id in (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    private SqlParameterSource toParameters(Booking booking, BookingStatus previousStatus) {
+        return new MapSqlParameterSource()
+                .addValue("bookingId", booking.getId())
+                .addValue("itemId", booking.getItem().getId())
+                .addValue("previousStatus", previousStatus != null ? previousStatus.getId() : null, Types.BIGINT)
+                .addValue("status", booking.getStatus().getId());
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking.partition;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingForItem;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Чтение аренд из booking_archive, куда BookingPartitionManager переносит старые секции. Запросы к booking
+ * архив не видят, поэтому право на отзыв и последняя аренда вещи при пустом результате дочитываются отсюда.
+ * Без секционирования (shareit.booking.partitioning.enabled=false) архива нет и запросы не выполняются.
+ */
+@Repository
+public class BookingArchiveRepository {
+
+    private static final String CONTAINS_COMPLETED = """
+        select exists (
+            select 1
+            from booking_archive as b
+            where b.renter_user = :renterId and b.rented_item = :itemId and b.end_time < :endBefore
+        )
+    """;
+
+    private static final String LAST_BOOKINGS = """
+        select b.id, b.rented_item, b.renter_user
+        from (
+            select bk.id, bk.rented_item, bk.renter_user,
+                row_number() over (partition by bk.rented_item order by bk.start_time desc) as rn
+            from booking_archive as bk
+            join items as i on i.id = bk.rented_item
+            where i.owner = :ownerId and bk.rented_item in (:itemIds)
+        ) as b
+        where b.rn = 1
+    """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+
+    public BookingArchiveRepository(NamedParameterJdbcTemplate jdbcTemplate,
+                                    @Value("${shareit.booking.partitioning.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+    }
+
+    public boolean containsCompletedBooking(Long renterId, Long itemId, LocalDateTime endBefore) {
+        if (!enabled) {
+            return false;
+        }
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(CONTAINS_COMPLETED, new MapSqlParameterSource()
+                .addValue("renterId", renterId)
+                .addValue("itemId", itemId)
+                .addValue("endBefore", endBefore), Boolean.class));
+    }
+
+    /**
+     * Последние архивные аренды вещей владельца по id вещи. Все архивные аренды начались в прошлом.
+     */
+    public Map<Long, BookingForItem> getLastBookings(Long ownerId, Collection<Long> itemIds) {
+        Map<Long, BookingForItem> lastBookings = new HashMap<>();
+        if (!enabled || itemIds.isEmpty()) {
+            return lastBookings;
+        }
+        jdbcTemplate.query(LAST_BOOKINGS, new MapSqlParameterSource()
+                        .addValue("ownerId", ownerId)
+                        .addValue("itemIds", itemIds),
+                resultSet -> {
+                    lastBookings.put(resultSet.getLong("rented_item"), BookingForItem.builder()
+                            .id(resultSet.getLong("id"))
+                            .bookerId(resultSet.getLong("renter_user"))
+                            .build());
+                });
+        return lastBookings;
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit.booking.partition;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Обслуживание месячных секций таблицы booking на PostgreSQL (см. schema-postgresql.sql).
+ * Создает секции текущего и shareit.booking.partitioning.months-ahead следующих месяцев, перенося
+ * в них аренды, уже попавшие в booking_default. Пересечения аренд проверяются не в секциях,
+ * а в общей таблице booking_period, которую заполняет триггер. Секции месяцев, закончившихся больше
+ * shareit.booking.partitioning.archive-after-months месяцев назад, переносятся в booking_archive,
+ * если в них нет незакончившихся аренд. Архивные аренды не показываются в списках аренд и не учитываются
+ * в их количестве, право на отзыв и последняя аренда вещи дочитываются из архива (BookingArchiveRepository).
+ * На нескольких узлах обслуживание выполняет узел, получивший advisory-блокировку PostgreSQL.
+ * Включается свойством shareit.booking.partitioning.enabled=true.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.partitioning.enabled", havingValue = "true")
+public class BookingPartitionManager {
+
+    // Ключ advisory-блокировки обслуживания секций, общий для всех узлов
+    static final long MAINTENANCE_LOCK = 0x73686172656974L;
+    private static final String PARTITION_PREFIX = "booking_p";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String PARTITIONS = """
+        select c.relname
+        from pg_inherits as i
+        join pg_class as c on c.oid = i.inhrelid
+        where i.inhparent = ?::regclass
+    """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+
+    public BookingPartitionManager(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${shareit.booking.partitioning.months-ahead:3}") int monthsAhead,
+                                   @Value("${shareit.booking.partitioning.archive-after-months:12}")
+                                   int archiveAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${shareit.booking.partitioning.cron:0 0 3 * * *}")
+    public void maintain() {
+        // Блокировка сессионная, поэтому берется и снимается на одном соединении. DDL выполняется на других
+        // соединениях пула, пока это соединение держит блокировку
+        Boolean maintained = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            JdbcTemplate lockTemplate = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            if (!Boolean.TRUE.equals(lockTemplate.queryForObject("select pg_try_advisory_lock(?)", Boolean.class,
+                    MAINTENANCE_LOCK))) {
+                return false;
+            }
+            try {
+                maintain(LocalDateTime.now());
+            } finally {
+                lockTemplate.queryForObject("select pg_advisory_unlock(?)", Boolean.class, MAINTENANCE_LOCK);
+            }
+            return true;
+        });
+        if (!Boolean.TRUE.equals(maintained)) {
+            log.info("Секции аренд обслуживает другой узел.");
+        }
+    }
+
+    public void maintain(LocalDateTime now) {
+        YearMonth current = YearMonth.from(now);
+        Set<String> partitions = new HashSet<>(getPartitions("booking"));
+        partitions.addAll(getPartitions("booking_archive"));
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!partitions.contains(partitionName(month))) {
+                createPartition(month);
+            }
+        }
+
+        YearMonth archiveBefore = current.minusMonths(archiveAfterMonths);
+        for (String partition : getPartitions("booking")) {
+            YearMonth month = partitionMonth(partition);
+            if (month != null && month.isBefore(archiveBefore)) {
+                archivePartition(month, now);
+            }
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(PARTITION_MONTH);
+    }
+
+    static YearMonth partitionMonth(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        return YearMonth.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_MONTH);
+    }
+
+    private void createPartition(YearMonth month) {
+        String partition = partitionName(month);
+        String from = bound(month);
+        String to = bound(month.plusMonths(1));
+        transactionTemplate.executeWithoutResult(status -> {
+            // Аренды месяца из booking_default переносятся в новую секцию, иначе PostgreSQL не создаст ее
+            jdbcTemplate.execute("""
+                create temporary table booking_moved (
+                    id BIGINT, renter_user BIGINT, start_time TIMESTAMP, end_time TIMESTAMP,
+                    rented_item BIGINT, status BIGINT
+                ) on commit drop
+            """);
+            jdbcTemplate.execute("""
+                with moved as (
+                    delete from booking_default
+                    where start_time >= '%s' and start_time < '%s'
+                    returning id, renter_user, start_time, end_time, rented_item, status
+                )
+                insert into booking_moved select * from moved
+            """.formatted(from, to));
+            jdbcTemplate.execute("create table %s partition of booking for values from ('%s') to ('%s')"
+                    .formatted(partition, from, to));
+            jdbcTemplate.execute("""
+                insert into booking (id, renter_user, start_time, end_time, rented_item, status)
+                select id, renter_user, start_time, end_time, rented_item, status
+                from booking_moved
+            """);
+        });
+        log.info("Создана секция аренд {}.", partition);
+    }
+
+    private void archivePartition(YearMonth month, LocalDateTime now) {
+        String partition = partitionName(month);
+        Boolean active = jdbcTemplate.queryForObject("select exists (select 1 from %s where end_time >= ?)"
+                .formatted(partition), Boolean.class, now);
+        if (Boolean.TRUE.equals(active)) {
+            log.info("Секция аренд {} не перенесена в архив: в ней есть незакончившиеся аренды.", partition);
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            // Интервалы закончившихся аренд больше не нужны для проверки пересечений
+            jdbcTemplate.execute("delete from booking_period where booking_id in (select id from %s)"
+                    .formatted(partition));
+            jdbcTemplate.execute("alter table booking detach partition " + partition);
+            jdbcTemplate.execute("alter table booking_archive attach partition %s for values from ('%s') to ('%s')"
+                    .formatted(partition, bound(month), bound(month.plusMonths(1))));
+        });
+        log.info("Секция аренд {} перенесена в архив.", partition);
+    }
+
+    private List<String> getPartitions(String table) {
+        return jdbcTemplate.queryForList(PARTITIONS, String.class, table);
+    }
+
+    private static String bound(YearMonth month) {
+        return month.atDay(1).atStartOfDay().format(BOUND);
+    }
+}
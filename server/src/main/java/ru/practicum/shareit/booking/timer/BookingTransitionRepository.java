@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.timer;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Таблица booking_transition: отметки о публикации начала и конца аренды. Таймеры аренд есть на каждом узле,
+ * событие публикует только узел, первым записавший отметку.
+ */
+@Repository
+@RequiredArgsConstructor
+public class BookingTransitionRepository {
+
+    private static final String CLAIM = """
+        insert into booking_transition (booking_id, type, created)
+        values (:bookingId, :type, current_timestamp)
+    """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Записывает отметку вне транзакции. Возвращает false, если событие уже опубликовано этим или другим узлом.
+     */
+    public boolean claim(long bookingId, BookingTransitionEvent.Type type) {
+        try {
+            return jdbcTemplate.update(CLAIM, new MapSqlParameterSource()
+                    .addValue("bookingId", bookingId)
+                    .addValue("type", type.name())) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    public int deleteCreatedBefore(LocalDateTime createdBefore) {
+        return jdbcTemplate.update("delete from booking_transition where created < :createdBefore",
+                new MapSqlParameterSource("createdBefore", createdBefore));
+    }
+}
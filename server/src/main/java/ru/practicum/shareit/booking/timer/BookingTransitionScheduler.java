@@ -0,0 +1,207 @@
+package ru.practicum.shareit.booking.timer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.outbox.BookingOutboxRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Таймеры начала и конца ожидающих и подтвержденных аренд в хешированном колесе. Колесо загружается
+ * из БД при запуске и поддерживается по BookingChangedEvent. Сработавшие за тик таймеры обрабатываются
+ * вместе: аренды читаются одним запросом, ожидающие аренды, время начала которых прошло, отклоняются
+ * одним условным обновлением, для подтвержденных публикуется BookingTransitionEvent.
+ * На нескольких узлах отклонение выполняет тот узел, чье обновление изменило строки, а BookingTransitionEvent
+ * публикует узел, первым записавший отметку в booking_transition. Поэтому получатели BookingTransitionEvent
+ * на остальных узлах его не видят и не должны полагаться на него для своего локального состояния.
+ */
+@Slf4j
+@Component
+public class BookingTransitionScheduler {
+
+    private final BookingRepository bookingRepository;
+    private final BookingOutboxRepository outboxRepository;
+    private final BookingTransitionRepository transitionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration claimRetention;
+    private final HashedTimerWheel<BookingTimer> wheel;
+
+    public BookingTransitionScheduler(BookingRepository bookingRepository,
+                                      BookingOutboxRepository outboxRepository,
+                                      BookingTransitionRepository transitionRepository,
+                                      ApplicationEventPublisher eventPublisher,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${shareit.booking.timer.enabled:true}") boolean enabled,
+                                      @Value("${shareit.booking.timer.tick:PT1S}") Duration tick,
+                                      @Value("${shareit.booking.timer.wheel-size:4096}") int wheelSize,
+                                      @Value("${shareit.booking.timer.claim-retention:P1D}")
+                                      Duration claimRetention) {
+        this.bookingRepository = bookingRepository;
+        this.outboxRepository = outboxRepository;
+        this.transitionRepository = transitionRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.claimRetention = claimRetention;
+        this.wheel = new HashedTimerWheel<>(tick.toMillis(), wheelSize, toMillis(LocalDateTime.now()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        // Ожидающие аренды загружаются все: таймер начала уже прошедшей аренды сработает на ближайшем тике.
+        // Начало подтвержденной аренды, уже опубликованное до перезапуска, повторно не публикуется (booking_transition)
+        List<BookingIntervalView> bookings = bookingRepository.getBookingTimers(BookingStatus.WAITING,
+                BookingStatus.APPROVED, LocalDateTime.now());
+        synchronized (this) {
+            for (BookingIntervalView booking : bookings) {
+                schedule(booking.getId(), booking.getStartTime(), booking.getEndTime());
+            }
+        }
+        log.info("Загружены таймеры {} ожидающих и подтвержденных аренд.", bookings.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Booking booking = event.current();
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (this) {
+            if (BookingAvailabilityIndex.ACTIVE_STATUSES.contains(booking.getStatus())) {
+                // Прошедшие сроки не планируются заново: таймер начала аренды, подтвержденной после начала,
+                // уже сработал. Таймер начала ожидающей аренды нужен всегда, чтобы отклонить ее
+                if (booking.getStatus() == BookingStatus.WAITING || booking.getStartTime().isAfter(now)) {
+                    wheel.schedule(new BookingTimer(booking.getId(), BookingTransitionEvent.Type.STARTED),
+                            toMillis(booking.getStartTime()));
+                }
+                if (booking.getEndTime().isAfter(now)) {
+                    wheel.schedule(new BookingTimer(booking.getId(), BookingTransitionEvent.Type.ENDED),
+                            toMillis(booking.getEndTime()));
+                }
+            } else {
+                wheel.cancel(new BookingTimer(booking.getId(), BookingTransitionEvent.Type.STARTED));
+                wheel.cancel(new BookingTimer(booking.getId(), BookingTransitionEvent.Type.ENDED));
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.timer.tick:PT1S}")
+    public void tick() {
+        if (enabled) {
+            advance(LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Обрабатывает таймеры, срок которых наступил к моменту now.
+     */
+    public void advance(LocalDateTime now) {
+        List<BookingTimer> fired;
+        synchronized (this) {
+            fired = wheel.advance(toMillis(now));
+        }
+        if (fired.isEmpty()) {
+            return;
+        }
+
+        // Текущие статусы сработавших аренд читаются одним запросом
+        Map<Long, Booking> bookingById = bookingRepository.findAllByIdIn(fired.stream()
+                        .map(BookingTimer::bookingId)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        List<Booking> stale = new ArrayList<>();
+        for (BookingTimer timer : fired) {
+            Booking booking = bookingById.get(timer.bookingId());
+            if (booking == null) {
+                continue;
+            }
+            if (timer.type() == BookingTransitionEvent.Type.STARTED && booking.getStatus() == BookingStatus.WAITING) {
+                stale.add(booking);
+            } else if (booking.getStatus() == BookingStatus.APPROVED
+                    && transitionRepository.claim(booking.getId(), timer.type())) {
+                eventPublisher.publishEvent(new BookingTransitionEvent(timer.type(), booking));
+            }
+        }
+        if (!stale.isEmpty()) {
+            expire(stale, now);
+        }
+    }
+
+    @Scheduled(cron = "${shareit.booking.timer.claim-cleanup-cron:0 15 * * * *}")
+    public void deleteOldClaims() {
+        if (!enabled) {
+            return;
+        }
+        int deleted = transitionRepository.deleteCreatedBefore(LocalDateTime.now().minus(claimRetention));
+        log.debug("Удалено {} отметок о начале и конце аренд.", deleted);
+    }
+
+    synchronized int size() {
+        return wheel.size();
+    }
+
+    private void expire(List<Booking> bookings, LocalDateTime now) {
+        List<Long> ids = bookings.stream().map(Booking::getId).toList();
+        List<Booking> expired = transactionTemplate.execute(status -> {
+            int updated = bookingRepository.updateStatusIfStarted(BookingStatus.REJECTED, ids,
+                    BookingStatus.WAITING, now);
+            List<Booking> changed = bookings;
+            if (updated < bookings.size()) {
+                // Часть аренд обработана владельцем или другим узлом между чтением и обновлением
+                changed = bookingRepository.findAllByIdIn(ids).stream()
+                        .filter(booking -> booking.getStatus() == BookingStatus.REJECTED)
+                        .toList();
+            }
+            changed.forEach(booking -> booking.setStatus(BookingStatus.REJECTED));
+            outboxRepository.addAll(changed, BookingStatus.WAITING);
+            return changed;
+        });
+        if (expired == null) {
+            return;
+        }
+        for (Booking booking : expired) {
+            eventPublisher.publishEvent(new BookingChangedEvent(BookingStatus.WAITING, booking));
+        }
+        log.info("Отклонено {} неподтвержденных аренд, время начала которых прошло.", expired.size());
+    }
+
+    private void schedule(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        wheel.schedule(new BookingTimer(bookingId, BookingTransitionEvent.Type.STARTED), toMillis(start));
+        wheel.schedule(new BookingTimer(bookingId, BookingTransitionEvent.Type.ENDED), toMillis(end));
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record BookingTimer(Long bookingId, BookingTransitionEvent.Type type) {
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.timer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Хешированное колесо таймеров: срок таймера округляется вверх до тика, таймер кладется в ячейку
+ * номер_тика % wheelSize. Добавление и отмена выполняются за O(1), продвижение на один тик
+ * просматривает только одну ячейку. Таймеры на несколько оборотов вперед остаются в ячейке,
+ * пока не наступит их тик. Ключ уникален: повторное добавление переносит таймер. Не потокобезопасно.
+ */
+class HashedTimerWheel<K> {
+
+    private final long tickMillis;
+    private final List<List<Timeout<K>>> wheel;
+    private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+    private long currentTick;
+
+    HashedTimerWheel(long tickMillis, int wheelSize, long startMillis) {
+        this.tickMillis = tickMillis;
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Таймер сработает при первом advance, после которого наступил срок deadlineMillis.
+     * Просроченный таймер сработает при следующем тике.
+     */
+    void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long tick = Math.max(Math.ceilDiv(deadlineMillis, tickMillis), currentTick + 1);
+        Timeout<K> timeout = new Timeout<>(key, tick);
+        timeouts.put(key, timeout);
+        wheel.get(bucket(tick)).add(timeout);
+    }
+
+    void cancel(K key) {
+        Timeout<K> timeout = timeouts.remove(key);
+        if (timeout != null) {
+            // Из ячейки отмененный таймер удаляется при ее просмотре
+            timeout.cancelled = true;
+        }
+    }
+
+    /**
+     * Продвигает колесо до nowMillis и возвращает ключи сработавших таймеров в порядке ячеек.
+     */
+    List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<K> expired = new ArrayList<>();
+        // После долгой паузы достаточно одного оборота: каждая ячейка просматривается один раз
+        long ticks = Math.min(targetTick - currentTick, wheel.size());
+        for (long i = 1; i <= ticks; i++) {
+            Iterator<Timeout<K>> iterator = wheel.get(bucket(currentTick + i)).iterator();
+            while (iterator.hasNext()) {
+                Timeout<K> timeout = iterator.next();
+                if (timeout.cancelled) {
+                    iterator.remove();
+                } else if (timeout.tick <= targetTick) {
+                    iterator.remove();
+                    timeouts.remove(timeout.key);
+                    expired.add(timeout.key);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return expired;
+    }
+
+    int size() {
+        return timeouts.size();
+    }
+
+    private int bucket(long tick) {
+        return (int) Math.floorMod(tick, (long) wheel.size());
+    }
+
+    private static final class Timeout<K> {
+
+        private final K key;
+        private final long tick;
+        private boolean cancelled;
+
+        private Timeout(K key, long tick) {
+            this.key = key;
+            this.tick = tick;
+        }
+    }
+}
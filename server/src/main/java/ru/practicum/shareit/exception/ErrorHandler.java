@@ -1,6 +1,7 @@
 package ru.practicum.shareit.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -28,6 +29,16 @@ public class ErrorHandler {
         return errorResponse;
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLocking(final OptimisticLockingFailureException e) {
+        // Объект изменен параллельным запросом после чтения, клиент может перечитать его и повторить запрос
+        ErrorResponse errorResponse = new ErrorResponse("Конфликт изменений.",
+                "Объект был изменен другим запросом, повторите запрос.");
+        logError(HttpStatus.CONFLICT.value(), errorResponse);
+        return errorResponse;
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleValidation(final ValidationException e) {
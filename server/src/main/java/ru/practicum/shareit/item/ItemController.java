@@ -1,9 +1,26 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequestDto;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBulkUpdateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+import ru.practicum.shareit.item.search.ItemSearchStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -16,6 +33,7 @@ import java.util.List;
 public class ItemController {
 
     private final ItemService itemService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping("/{id}")
     public ItemDto getItem(@PathVariable("id") Long itemId,
@@ -34,6 +52,18 @@ public class ItemController {
         return itemService.createItem(userId, itemDto);
     }
 
+    @PostMapping("/batch")
+    public List<ItemBatchResultDto> createItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @RequestBody List<ItemDto> itemDtos) {
+        return itemService.createItems(userId, itemDtos);
+    }
+
+    @PatchMapping("/batch")
+    public List<ItemVersionDto> updateItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                            @RequestBody ItemBulkUpdateDto updateDto) {
+        return itemService.updateItems(userId, updateDto);
+    }
+
     @PatchMapping("/{id}")
     public ItemDto updateItem(@RequestBody ItemDto itemDto,
                               @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -42,9 +72,74 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                     @RequestParam String text) {
-        return itemService.searchItemsByText(userId, text);
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     @RequestParam String text,
+                                                     @RequestParam(required = false) Integer limit,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                     @RequestParam(required = false)
+                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        // Поиск свободных вещей просматривает ограниченное число совпадений за запрос, поэтому страница
+        // может быть неполной или пустой при непустом курсоре следующей страницы
+        if (from != null || to != null) {
+            return itemService.searchFreeItemsByText(userId, text, from, to, limit, cursor).toResponseEntity();
+        }
+        // Только поиск без limit и cursor ранжирует результаты по shareit.search.mode и ограничен
+        // shareit.search.max-results. Страницы идут по всем совпадениям по подстроке в порядке id
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(itemService.searchItemsByText(userId, text));
+        }
+        return itemService.searchItemsByText(userId, text, limit, cursor).toResponseEntity();
+    }
+
+    // Все совпадения по подстроке в порядке id, без ранжирования, при любом shareit.search.mode
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam String text) {
+        ItemSearchStream stream = itemService.streamItemsByText(userId, text);
+        StreamingResponseBody body = outputStream -> {
+            try {
+                stream.forEachChunk(chunk -> {
+                    try {
+                        for (ItemDto itemDto : chunk) {
+                            outputStream.write(objectMapper.writeValueAsBytes(itemDto));
+                            outputStream.write('\n');
+                        }
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/suggest")
+    public List<String> suggestItemNames(@RequestParam String prefix) {
+        return itemService.suggestItemNames(prefix);
+    }
+
+    @GetMapping("/{id}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(@PathVariable("id") Long itemId,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestParam(required = false) String cursor) {
+        return itemService.getComments(itemId, limit, cursor).toResponseEntity();
+    }
+
+    @GetMapping("/{id}/availability")
+    public List<TimeIntervalDto> getFreeIntervals(@PathVariable("id") Long itemId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.getFreeIntervals(itemId, from, to);
+    }
+
+    @PostMapping("/availability")
+    public ItemAvailabilityDto checkAvailability(@RequestBody ItemAvailabilityRequestDto requestDto) {
+        return itemService.checkAvailability(requestDto);
     }
 
     @PostMapping("{itemId}/comment")
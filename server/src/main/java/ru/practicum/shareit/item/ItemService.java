@@ -2,35 +2,83 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.availability.BookedDaysIndex;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.availability.FreeIntervals;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingForItem;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
 import ru.practicum.shareit.booking.dto.mapper.BookingDtoMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.partition.BookingArchiveRepository;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.cache.ItemViewCache.OwnerView;
+import ru.practicum.shareit.item.cache.ItemViewCache.SharedView;
+import ru.practicum.shareit.item.comment.CommentPreviews;
 import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemJdbcRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequestDto;
+import ru.practicum.shareit.item.dto.ItemAvailableView;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBulkUpdateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemStateView;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 import ru.practicum.shareit.item.dto.mapper.MapperCommentDto;
 import ru.practicum.shareit.item.dto.mapper.MapperItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchStream;
+import ru.practicum.shareit.item.suggest.ItemNameTrie;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ItemService {
 
+    public static final int MAX_AVAILABILITY_DAYS = 366;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int MAX_AVAILABILITY_ITEMS = 500;
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int STREAM_CHUNK_SIZE = 100;
+    private static final int FREE_SEARCH_CHUNK_SIZE = 500;
+    // Сколько найденных вещей просматривает один запрос свободных вещей, если свободных среди них мало
+    private static final int MAX_FREE_SEARCH_CANDIDATES = 5000;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final MapperItemDto mapperItemDto;
@@ -39,17 +87,32 @@ public class ItemService {
     private final CommentRepository commentRepository;
     private final MapperCommentDto mapperCommentDto;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearch itemSearch;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ItemJdbcRepository itemJdbcRepository;
+    private final ItemNameTrie itemNameTrie;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemViewCache itemViewCache;
+    private final BookedDaysIndex bookedDaysIndex;
+    private final CommentPreviews commentPreviews;
+    private final BookingArchiveRepository bookingArchiveRepository;
 
     public ItemDto getItem(Long itemId, Long userId) {
         log.info("Запрос (userId = {}) на получение вещи с id = {}.", userId, itemId);
-        Item item = itemRepository.findById(itemId).orElseThrow(() ->
-                new NotFoundException("Вещь с id = " + itemId + " не существует."));
-        ItemDto itemDto = mapperItemDto.toItemDto(item);
-        if (item.getOwner().getId().equals(userId)) {
-            fillItemsDtoByBookingsDto(itemDto, userId);
+        SharedView sharedView = itemViewCache.getSharedView(itemId, () -> {
+            Item item = itemRepository.findById(itemId).orElseThrow(() ->
+                    new NotFoundException("Вещь с id = " + itemId + " не существует."));
+            ItemDto itemDto = mapperItemDto.toItemDto(item);
+            fillItemsDtoByCommentsDto(itemDto);
+            return new SharedView(item.getOwner().getId(), itemDto);
+        });
+        ItemDto itemDto = sharedView.toItemDto();
+        if (sharedView.ownerId().equals(userId)) {
+            OwnerView ownerView = itemViewCache.getOwnerView(itemId, () -> getOwnerView(itemId, userId));
+            itemDto.setLastBooking(ownerView.lastBooking());
+            itemDto.setNextBooking(ownerView.nextBooking());
         }
-        fillItemsDtoByCommentsDto(itemDto);
-        log.info("Получена вещь {}.", item);
+        log.info("Получена вещь {}.", itemDto);
         return itemDto;
     }
 
@@ -60,10 +123,8 @@ public class ItemService {
         }
         List<Item> items = itemRepository.findItemsByOwnerId(userId);
         List<ItemDto> itemDtos = items.stream().map(mapperItemDto::toItemDto).toList();
-        for (ItemDto itemDto : itemDtos) {
-            fillItemsDtoByBookingsDto(itemDto, userId);
-            fillItemsDtoByCommentsDto(itemDto);
-        }
+        fillItemsDtoByBookingsDto(itemDtos, userId);
+        fillItemsDtoByCommentsDto(itemDtos);
         log.info("Получено {} вещей.", itemDtos.size());
         return itemDtos;
     }
@@ -86,12 +147,57 @@ public class ItemService {
         }
 
         Item created = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(null, created));
         log.info("Создана вещь {}.", created);
         return mapperItemDto.toItemDto(created);
     }
 
+    public List<ItemBatchResultDto> createItems(Long userId, List<ItemDto> itemDtos) {
+        log.info("Запрос на пакетное создание {} вещей с ownerId = {}.", itemDtos.size(), userId);
+        if (itemDtos.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("За один запрос можно создать не более " + MAX_BATCH_SIZE + " вещей.");
+        }
+        User user = userRepository.findById(userId).orElseThrow(() ->
+                new NotFoundException("Пользователь с id = " + userId + " не существует."));
+
+        // Запросы всех строк получаются одним запросом
+        List<Long> requestIds = itemDtos.stream().map(ItemDto::getRequestId).filter(Objects::nonNull).distinct().toList();
+        Map<Long, ItemRequest> itemRequests = requestIds.isEmpty() ? Map.of() :
+                itemRequestRepository.findAllByIdIn(requestIds).stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        // Строки с ошибками не прерывают пакет, остальные вещи сохраняются пакетной вставкой
+        List<ItemBatchResultDto> results = new ArrayList<>(itemDtos.size());
+        List<Item> items = new ArrayList<>();
+        List<ItemBatchResultDto> createdResults = new ArrayList<>();
+        for (int index = 0; index < itemDtos.size(); index++) {
+            ItemDto itemDto = itemDtos.get(index);
+            ItemBatchResultDto result = ItemBatchResultDto.builder().index(index).build();
+            results.add(result);
+            String error = validateBatchItem(userId, itemDto, itemRequests);
+            if (error != null) {
+                result.setError(error);
+                continue;
+            }
+            Item item = mapperItemDto.fromItemDto(itemDto);
+            item.setId(null);
+            item.setOwner(user);
+            item.setRequest(itemDto.getRequestId() != null ? itemRequests.get(itemDto.getRequestId()) : null);
+            items.add(item);
+            createdResults.add(result);
+        }
+        List<Item> created = itemRepository.saveAll(items);
+        for (int i = 0; i < created.size(); i++) {
+            eventPublisher.publishEvent(new ItemChangedEvent(null, created.get(i)));
+            createdResults.get(i).setItem(mapperItemDto.toItemDto(created.get(i)));
+        }
+        log.info("Создано {} вещей, отклонено {}.", created.size(), itemDtos.size() - created.size());
+        return results;
+    }
+
     public ItemDto updateItem(Long userId, Long itemId, ItemDto itemDto) {
         log.info("Запрос на обновление веши с itemId = {}, пользователем с userId = {}, полями {}.", itemId, userId, itemDto);
+        validateTextLength(itemDto.getName(), itemDto.getDescription());
         if (!userRepository.existsById(userId)) {
             throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
         }
@@ -101,11 +207,13 @@ public class ItemService {
             throw new ForbiddenException("Пользователь с id = " + userId + " не владеет этой вещью с id = "
                     + itemId + ".");
         }
+        Item previous = item.toBuilder().build();
         if (itemDto.getName() != null && !itemDto.getName().isBlank()) item.setName(itemDto.getName());
         if (itemDto.getDescription() != null && !itemDto.getDescription().isBlank())
             item.setDescription(itemDto.getDescription());
         if (itemDto.getAvailable() != null) item.setAvailable(itemDto.getAvailable());
         Item updated = itemRepository.save(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(previous, updated));
         ItemDto itemDtoUpdsted = mapperItemDto.toItemDto(updated);
         if (item.getOwner().getId().equals(userId)) {
             fillItemsDtoByBookingsDto(itemDtoUpdsted, userId);
@@ -115,6 +223,64 @@ public class ItemService {
         return itemDtoUpdsted;
     }
 
+    @Transactional
+    public List<ItemVersionDto> updateItems(Long userId, ItemBulkUpdateDto updateDto) {
+        log.info("Запрос на пакетное обновление вещей пользователем с userId = {}, полями {}.", userId, updateDto);
+        List<Long> ids = updateDto.getIds();
+        if (ids == null || ids.isEmpty()) {
+            throw new BadRequestException("Не указаны id вещей.");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new BadRequestException("За один запрос можно обновить не более " + MAX_BATCH_SIZE + " вещей.");
+        }
+        String name = updateDto.getName() != null && !updateDto.getName().isBlank() ? updateDto.getName() : null;
+        String description = updateDto.getDescription() != null && !updateDto.getDescription().isBlank() ?
+                updateDto.getDescription() : null;
+        Boolean available = updateDto.getAvailable();
+        if (name == null && description == null && available == null) {
+            throw new BadRequestException("Не указаны поля для обновления.");
+        }
+
+        validateTextLength(name, description);
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
+        }
+
+        // Чужие и несуществующие вещи не обновляются и не попадают в ответ. Прежнее состояние читается
+        // проекцией с блокировкой строк, новое состояние и версии вычисляются без повторного чтения
+        List<ItemStateView> states = itemRepository.lockStatesByOwnerIdAndIdIn(userId, ids);
+        if (states.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ownedIds = states.stream().map(ItemStateView::getId).toList();
+        int updated = itemRepository.updateItems(userId, ownedIds, name, description, available);
+
+        List<ItemVersionDto> versions = new ArrayList<>(states.size());
+        User owner = User.builder().id(userId).build();
+        for (ItemStateView state : states) {
+            Item previous = Item.builder()
+                    .id(state.getId())
+                    .name(state.getName())
+                    .description(state.getDescription())
+                    .available(state.getAvailable())
+                    .owner(owner)
+                    .request(state.getRequestId() != null ? ItemRequest.builder().id(state.getRequestId()).build() : null)
+                    .version(state.getVersion())
+                    .build();
+            Item current = previous.toBuilder()
+                    .name(name != null ? name : previous.getName())
+                    .description(description != null ? description : previous.getDescription())
+                    .available(available != null ? available : previous.getAvailable())
+                    .version(previous.getVersion() + 1)
+                    .build();
+            // Слушатели получают событие после фиксации транзакции
+            eventPublisher.publishEvent(new ItemChangedEvent(previous, current));
+            versions.add(ItemVersionDto.builder().id(current.getId()).version(current.getVersion()).build());
+        }
+        log.info("Обновлено {} вещей.", updated);
+        return versions;
+    }
+
     public List<ItemDto> searchItemsByText(Long userId, String text) {
         log.info("Запрос на поиск вещей по тексту '{}'.", text);
         if (!userRepository.existsById(userId)) {
@@ -124,16 +290,212 @@ public class ItemService {
             log.info("Найдено 0 вещей. Пустой текст.");
             return List.of();
         }
-        List<Item> items = itemRepository.findItemsBySubstring(text.toLowerCase());
+        String query = text.toLowerCase();
+        List<Item> items = itemSearchCache.get(query, null, null, () -> itemSearch.search(query));
         List<ItemDto> itemDtos = items.stream().map(mapperItemDto::toItemDto).toList();
-        for (ItemDto itemDto : itemDtos) {
-            fillItemsDtoByBookingsDto(itemDto, userId);
-            fillItemsDtoByCommentsDto(itemDto);
-        }
+        fillItemsDtoByBookingsDto(itemDtos, userId);
+        fillItemsDtoByCommentsDto(itemDtos);
         log.info("Найдено {} вещей.", itemDtos.size());
         return itemDtos;
     }
 
+    public KeysetPage<ItemDto> searchItemsByText(Long userId, String text, Integer limit, String cursor) {
+        log.info("Запрос на поиск вещей по тексту '{}', limit = {}, cursor = {}.", text, limit, cursor);
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
+        }
+        int pageSize = KeysetPage.getPageSize(limit);
+        long afterId = cursor != null ? KeysetPage.decodeCursor(cursor) : 0L;
+        if (text.isBlank()) {
+            log.info("Найдено 0 вещей. Пустой текст.");
+            return new KeysetPage<>(List.of(), null);
+        }
+        // Страницы идут по id, а не по релевантности ItemSearch: курсор по id позволяет дойти до любого
+        // совпадения, а ранжированный поиск ограничен shareit.search.max-results. На PostgreSQL этот like
+        // может использовать триграммные индексы при любом режиме поиска.
+        // Запрашивается на одну вещь больше, чтобы понять, есть ли следующая страница
+        String query = text.toLowerCase();
+        List<Item> items = itemSearchCache.get(query, pageSize, cursor, () ->
+                itemRepository.findItemsBySubstringAfter(query, afterId, Limit.of(pageSize + 1)));
+        boolean hasNext = items.size() > pageSize;
+        List<ItemDto> itemDtos = items.stream().limit(pageSize).map(mapperItemDto::toItemDto).toList();
+        fillItemsDtoByBookingsDto(itemDtos, userId);
+        fillItemsDtoByCommentsDto(itemDtos);
+        String nextCursor = hasNext ? KeysetPage.encodeCursor(itemDtos.getLast().getId()) : null;
+        log.info("Найдено {} вещей, следующая страница {}.", itemDtos.size(), hasNext ? "есть" : "отсутствует");
+        return new KeysetPage<>(itemDtos, nextCursor);
+    }
+
+    public KeysetPage<ItemDto> searchFreeItemsByText(Long userId, String text, LocalDate from, LocalDate to,
+                                                     Integer limit, String cursor) {
+        log.info("Запрос на поиск вещей по тексту '{}', свободных с {} по {}, limit = {}, cursor = {}.",
+                text, from, to, limit, cursor);
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
+        }
+        if (from == null || to == null || from.isAfter(to)) {
+            throw new ValidationException("Время неверно относительно друг друга.");
+        }
+        if (from.plusDays(MAX_AVAILABILITY_DAYS).isBefore(to)) {
+            throw new BadRequestException("Период не может быть длиннее " + MAX_AVAILABILITY_DAYS + " дней.");
+        }
+        int pageSize = KeysetPage.getPageSize(limit);
+        long afterId = cursor != null ? KeysetPage.decodeCursor(cursor) : 0L;
+        if (text.isBlank()) {
+            log.info("Найдено 0 вещей. Пустой текст.");
+            return new KeysetPage<>(List.of(), null);
+        }
+
+        // Найденные вещи читаются порциями по id. Битовые карты дней отсеивают занятые вещи, свободные
+        // подтверждаются одним запросом к booking на порцию: карты других узлов и каскадные удаления
+        // этот узел не видит. Набирается на одну вещь больше, чтобы понять, есть ли следующая страница
+        String query = text.toLowerCase();
+        LocalDateTime periodStart = from.atStartOfDay();
+        LocalDateTime periodEnd = to.atTime(LocalTime.MAX);
+        List<Item> items = new ArrayList<>(pageSize + 1);
+        List<Item> candidates;
+        int scanned = 0;
+        boolean moreCandidates;
+        do {
+            candidates = itemRepository.findItemsBySubstringAfter(query, afterId, Limit.of(FREE_SEARCH_CHUNK_SIZE));
+            scanned += candidates.size();
+            List<Item> free = candidates.stream()
+                    .filter(candidate -> bookedDaysIndex.isFree(candidate.getId(), from, to))
+                    .toList();
+            Set<Long> busy = free.isEmpty() ? Set.of() : new HashSet<>(bookingRepository.getBusyItemIds(
+                    free.stream().map(Item::getId).toList(), BookingAvailabilityIndex.ACTIVE_STATUSES,
+                    periodStart, periodEnd));
+            for (Item candidate : free) {
+                if (items.size() > pageSize) {
+                    break;
+                }
+                if (!busy.contains(candidate.getId())) {
+                    items.add(candidate);
+                }
+            }
+            if (!candidates.isEmpty()) {
+                afterId = candidates.getLast().getId();
+            }
+            moreCandidates = candidates.size() == FREE_SEARCH_CHUNK_SIZE;
+        } while (items.size() <= pageSize && moreCandidates && scanned < MAX_FREE_SEARCH_CANDIDATES);
+
+        boolean hasNext = items.size() > pageSize;
+        List<ItemDto> itemDtos = items.stream().limit(pageSize).map(mapperItemDto::toItemDto).toList();
+        fillItemsDtoByBookingsDto(itemDtos, userId);
+        fillItemsDtoByCommentsDto(itemDtos);
+        String nextCursor = null;
+        if (hasNext) {
+            nextCursor = KeysetPage.encodeCursor(itemDtos.getLast().getId());
+        } else if (moreCandidates) {
+            // Просмотрено MAX_FREE_SEARCH_CANDIDATES вещей: страница может быть неполной или пустой,
+            // следующая продолжит поиск после последней просмотренной вещи
+            nextCursor = KeysetPage.encodeCursor(afterId);
+            hasNext = true;
+        }
+        log.info("Найдено {} свободных вещей, следующая страница {}.", itemDtos.size(),
+                hasNext ? "есть" : "отсутствует");
+        return new KeysetPage<>(itemDtos, nextCursor);
+    }
+
+    public ItemSearchStream streamItemsByText(Long userId, String text) {
+        log.info("Запрос на потоковый поиск вещей по тексту '{}'.", text);
+        if (!userRepository.existsById(userId)) {
+            throw new NotFoundException("Пользователь с id = " + userId + " не существует.");
+        }
+        if (text.isBlank()) {
+            return chunkConsumer -> { };
+        }
+        // Вещи читаются из БД по мере записи ответа и дополняются арендами и отзывами порциями.
+        // Как и постраничный поиск, поток идет по всем совпадениям в порядке id, минуя ItemSearch
+        return chunkConsumer -> itemJdbcRepository.forEachBySubstring(text.toLowerCase(), STREAM_CHUNK_SIZE,
+                chunk -> {
+                    fillItemsDtoByBookingsDto(chunk, userId);
+                    fillItemsDtoByCommentsDto(chunk);
+                    chunkConsumer.accept(chunk);
+                });
+    }
+
+    public List<String> suggestItemNames(String prefix) {
+        log.debug("Запрос подсказок названий вещей по префиксу '{}'.", prefix);
+        return itemNameTrie.suggest(prefix);
+    }
+
+    public KeysetPage<CommentDto> getComments(Long itemId, Integer limit, String cursor) {
+        log.info("Запрос на получение отзывов к вещи с id = {}, limit = {}, cursor = {}.", itemId, limit, cursor);
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id = " + itemId + " не существует.");
+        }
+        int pageSize = KeysetPage.getPageSize(limit);
+        // Запрашивается на один отзыв больше, чтобы понять, есть ли следующая страница
+        List<CommentView> comments = cursor == null ?
+                commentRepository.findNewestByItemId(itemId, Limit.of(pageSize + 1)) :
+                commentRepository.findNewestByItemIdBefore(itemId, KeysetPage.decodeCursor(cursor),
+                        Limit.of(pageSize + 1));
+        boolean hasNext = comments.size() > pageSize;
+        List<CommentDto> commentDtos = comments.stream().limit(pageSize).map(mapperCommentDto::toCommentDto).toList();
+        String nextCursor = hasNext ? KeysetPage.encodeCursor(commentDtos.getLast().getId()) : null;
+        log.info("Получено {} отзывов.", commentDtos.size());
+        return new KeysetPage<>(commentDtos, nextCursor);
+    }
+
+    public List<TimeIntervalDto> getFreeIntervals(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Запрос на получение свободного времени вещи с id = {} с {} по {}.", itemId, from, to);
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Время неверно относительно друг друга.");
+        }
+        if (from.plusDays(MAX_AVAILABILITY_DAYS).isBefore(to)) {
+            throw new BadRequestException("Период не может быть длиннее " + MAX_AVAILABILITY_DAYS + " дней.");
+        }
+        if (!itemRepository.existsById(itemId)) {
+            throw new NotFoundException("Вещь с id = " + itemId + " не существует.");
+        }
+        // Ожидающие и подтвержденные аренды, пересекающие период, одним запросом, слияние в памяти
+        List<TimeIntervalDto> freeIntervals = FreeIntervals.between(from, to,
+                bookingRepository.getBookingIntervals(itemId, BookingAvailabilityIndex.ACTIVE_STATUSES, from, to));
+        log.info("Найдено {} свободных интервалов вещи с id = {}.", freeIntervals.size(), itemId);
+        return freeIntervals;
+    }
+
+    public ItemAvailabilityDto checkAvailability(ItemAvailabilityRequestDto requestDto) {
+        log.info("Запрос на проверку свободного времени вещей {}.", requestDto);
+        List<Long> itemIds = requestDto.getItemIds();
+        if (itemIds == null || itemIds.isEmpty()) {
+            throw new BadRequestException("Не указаны id вещей.");
+        }
+        if (itemIds.size() > MAX_AVAILABILITY_ITEMS) {
+            throw new BadRequestException("За один запрос можно проверить не более " + MAX_AVAILABILITY_ITEMS +
+                    " вещей.");
+        }
+        LocalDateTime start = requestDto.getStart();
+        LocalDateTime end = requestDto.getEnd();
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ValidationException("Время неверно относительно друг друга.");
+        }
+        List<Long> ids = itemIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, Boolean> availableById = itemRepository.findAvailableViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ItemAvailableView::getId, ItemAvailableView::getAvailable));
+        List<Long> availableIds = new ArrayList<>(ids.size());
+        for (Long itemId : ids) {
+            Boolean available = availableById.get(itemId);
+            if (available == null) {
+                throw new NotFoundException("Вещь с id = " + itemId + " не существует.");
+            }
+            if (available) {
+                availableIds.add(itemId);
+            }
+        }
+        // Недоступная для аренды вещь занята всегда, аренды проверяются только у доступных
+        Set<Long> busyIds = availableIds.isEmpty() ? new HashSet<>() : new HashSet<>(bookingRepository
+                .getBusyItemIds(availableIds, BookingAvailabilityIndex.ACTIVE_STATUSES, start, end));
+        List<Long> freeItemIds = new ArrayList<>(ids.size());
+        List<Long> busyItemIds = new ArrayList<>(busyIds.size());
+        for (Long itemId : ids) {
+            (availableById.get(itemId) && !busyIds.contains(itemId) ? freeItemIds : busyItemIds).add(itemId);
+        }
+        log.info("Свободно {} вещей, занято {}.", freeItemIds.size(), busyItemIds.size());
+        return new ItemAvailabilityDto(freeItemIds, busyItemIds);
+    }
+
     public CommentDto addComment(Long itemId, CommentDto commentDto, Long userId) {
         LocalDateTime commentTime = LocalDateTime.now();
         User user = userRepository.findById(userId).orElseThrow(() ->
@@ -148,28 +510,98 @@ public class ItemService {
                 .build();
         validateCommentTimeAndBooking(comment);
         Comment savedComment = commentRepository.save(comment);
+        itemViewCache.evictSharedView(itemId);
         return mapperCommentDto.toCommentDto(savedComment);
     }
 
+    private OwnerView getOwnerView(Long itemId, Long userId) {
+        BookingForItem last = getLastBooking(userId, itemId);
+        Booking next = bookingRepository.getNextBooking(userId, itemId, BookingStatus.APPROVED);
+        // С началом ближайшей аренды меняется последняя аренда, поэтому кэш действителен только до него
+        LocalDateTime validUntil = bookingRepository.getNearestBookingStart(itemId);
+        return new OwnerView(last, next != null ? bookingDtoMapper.toBookingForItem(next) : null, validUntil);
+    }
+
     private void fillItemsDtoByBookingsDto(ItemDto itemDto, Long userId) {
-        Booking last = bookingRepository.getLastBooking(userId, itemDto.getId());
-        if (last != null) itemDto.setLastBooking(bookingDtoMapper.toBookingForItem(last));
+        BookingForItem last = getLastBooking(userId, itemDto.getId());
+        if (last != null) itemDto.setLastBooking(last);
         Booking next = bookingRepository.getNextBooking(userId, itemDto.getId(), BookingStatus.APPROVED);
         if (next != null) itemDto.setNextBooking(bookingDtoMapper.toBookingForItem(next));
     }
 
+    private void fillItemsDtoByBookingsDto(List<ItemDto> itemDtos, Long userId) {
+        // Последние и следующие аренды для всего списка вещей получаются двумя запросами
+        if (itemDtos.isEmpty()) return;
+        List<Long> itemIds = itemDtos.stream().map(ItemDto::getId).toList();
+        Map<Long, BookingForItem> lastBookings = bookingRepository.getLastBookings(userId, itemIds).stream()
+                .collect(Collectors.toMap(BookingForItemView::getItemId, bookingDtoMapper::toBookingForItem));
+        List<Long> withoutLast = itemIds.stream().filter(id -> !lastBookings.containsKey(id)).toList();
+        lastBookings.putAll(bookingArchiveRepository.getLastBookings(userId, withoutLast));
+        Map<Long, BookingForItem> nextBookings = bookingRepository.getNextBookings(userId, itemIds,
+                        BookingStatus.APPROVED.getId()).stream()
+                .collect(Collectors.toMap(BookingForItemView::getItemId, bookingDtoMapper::toBookingForItem));
+        for (ItemDto itemDto : itemDtos) {
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
+        }
+    }
+
     private void fillItemsDtoByCommentsDto(ItemDto itemDto) {
-        List<Comment> comments = commentRepository.findAllByItemId(itemDto.getId());
-        List<CommentDto> commentDtos = comments.stream()
-                .map(mapperCommentDto::toCommentDto)
-                .toList();
-        itemDto.setComments(commentDtos);
+        fillItemsDtoByCommentsDto(List.of(itemDto));
+    }
+
+    private void fillItemsDtoByCommentsDto(List<ItemDto> itemDtos) {
+        commentPreviews.fill(itemDtos);
+    }
+
+    private String validateBatchItem(Long userId, ItemDto itemDto, Map<Long, ItemRequest> itemRequests) {
+        if (itemDto == null) {
+            return "Вещь не передана.";
+        }
+        if (itemDto.getName() == null || itemDto.getName().isBlank()) {
+            return "Имя не может быть пустым.";
+        }
+        if (itemDto.getDescription() == null || itemDto.getDescription().isBlank()) {
+            return "Описание не может быть пустым.";
+        }
+        if (itemDto.getAvailable() == null) {
+            return "Не указан статус доступа.";
+        }
+        if (itemDto.getName().length() > MAX_TEXT_LENGTH || itemDto.getDescription().length() > MAX_TEXT_LENGTH) {
+            return "Имя и описание не могут быть длиннее " + MAX_TEXT_LENGTH + " символов.";
+        }
+        if (itemDto.getRequestId() != null) {
+            ItemRequest itemRequest = itemRequests.get(itemDto.getRequestId());
+            if (itemRequest == null) {
+                return "Запрос с id = " + itemDto.getRequestId() + " не существует. Вещь не создана.";
+            }
+            if (itemRequest.getCreator().getId().equals(userId)) {
+                return "Вещь не может быть добавлена по собственному запросу.";
+            }
+        }
+        return null;
+    }
+
+    private void validateTextLength(String name, String description) {
+        if (name != null && name.length() > MAX_TEXT_LENGTH || description != null && description.length() > MAX_TEXT_LENGTH) {
+            throw new BadRequestException("Имя и описание не могут быть длиннее " + MAX_TEXT_LENGTH + " символов.");
+        }
+    }
+
+    // Последняя аренда вещи в archive ищется, только если в booking ее нет: архивные аренды старше всех остальных
+    private BookingForItem getLastBooking(Long userId, Long itemId) {
+        Booking last = bookingRepository.getLastBooking(userId, itemId);
+        if (last != null) {
+            return bookingDtoMapper.toBookingForItem(last);
+        }
+        return bookingArchiveRepository.getLastBookings(userId, List.of(itemId)).get(itemId);
     }
 
     private void validateCommentTimeAndBooking(Comment comment) {
         List<Booking> bookings = bookingRepository.isUserContainsCompletedBookingForItem(comment.getAuthor().getId(),
                 comment.getItem().getId(), comment.getCreated());
-        if (bookings.isEmpty()) {
+        if (bookings.isEmpty() && !bookingArchiveRepository.containsCompletedBooking(comment.getAuthor().getId(),
+                comment.getItem().getId(), comment.getCreated())) {
             throw new BadRequestException("Нельзя создать отзыв на предмет который не был арендован.");
         }
     }
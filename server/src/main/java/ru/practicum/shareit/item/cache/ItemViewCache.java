@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.BookingForItem;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Read-through кэш представления вещи для GET /items/{id}.
+ * Общая часть (поля вещи и отзывы) одинакова для всех пользователей. Часть владельца
+ * (последняя и следующая аренды) хранится отдельно и устаревает, когда наступает начало
+ * ближайшей аренды, так как последняя аренда определяется относительно текущего времени.
+ * Общая часть сбрасывается при изменении вещи и новом отзыве, часть владельца - при
+ * создании аренды и изменении ее статуса. Удаление пользователя каскадно удаляет его вещи,
+ * аренды и отзывы без событий о них, поэтому сбрасывает весь кэш, переименование - общие
+ * части с именами авторов отзывов. Изменения, сделанные на другом узле, этот узел не видит,
+ * поэтому запись живет не дольше shareit.item.cache.max-age.
+ */
+@Component
+public class ItemViewCache {
+
+    private final Lru<SharedView> sharedViews;
+    private final Lru<OwnerView> ownerViews;
+
+    public ItemViewCache(@Value("${shareit.item.cache.max-size:10000}") int maxSize,
+                         @Value("${shareit.item.cache.max-age:PT1M}") Duration maxAge,
+                         MeterRegistry meterRegistry) {
+        this.sharedViews = new Lru<>(maxSize, maxAge, meterRegistry, "shared", view -> false);
+        this.ownerViews = new Lru<>(maxSize, maxAge, meterRegistry, "owner", OwnerView::isExpired);
+    }
+
+    public SharedView getSharedView(Long itemId, Supplier<SharedView> loader) {
+        return sharedViews.get(itemId, loader);
+    }
+
+    public OwnerView getOwnerView(Long itemId, Supplier<OwnerView> loader) {
+        return ownerViews.get(itemId, loader);
+    }
+
+    public void evictSharedView(Long itemId) {
+        sharedViews.evict(itemId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        sharedViews.evict(event.current().getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        ownerViews.evict(event.current().getItem().getId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!Objects.equals(event.previous().getName(), event.current().getName())) {
+            sharedViews.clear();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        sharedViews.clear();
+        ownerViews.clear();
+    }
+
+    /**
+     * Общая часть представления. itemDto не изменяется, ответ собирается из копии.
+     */
+    public record SharedView(Long ownerId, ItemDto itemDto) {
+
+        public ItemDto toItemDto() {
+            return new ItemDto(itemDto.getId(), itemDto.getName(), itemDto.getDescription(), itemDto.getAvailable(),
+                    null, null, itemDto.getComments(), itemDto.getCommentsCount(), itemDto.getRequestId());
+        }
+    }
+
+    /**
+     * Аренды для владельца, действительны до validUntil (начала ближайшей аренды) или без ограничения.
+     */
+    public record OwnerView(BookingForItem lastBooking, BookingForItem nextBooking, LocalDateTime validUntil) {
+
+        private boolean isExpired() {
+            return validUntil != null && !LocalDateTime.now().isBefore(validUntil);
+        }
+    }
+
+    private static final class Lru<V> {
+
+        private final int maxSize;
+        private final long maxAgeNanos;
+        private final Map<Long, Entry<V>> entries;
+        private final Counter hits;
+        private final Counter misses;
+        private final Predicate<V> expired;
+        // Увеличивается при каждом сбросе, чтобы не положить в кэш значение, прочитанное до изменения
+        private long generation;
+
+        private Lru(int maxSize, Duration maxAge, MeterRegistry meterRegistry, String part, Predicate<V> expired) {
+            this.maxSize = maxSize;
+            this.maxAgeNanos = maxAge.toNanos();
+            this.expired = expired;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entry<V>> eldest) {
+                    return size() > Lru.this.maxSize;
+                }
+            };
+            this.hits = meterRegistry.counter("shareit.item.cache.requests", "part", part, "result", "hit");
+            this.misses = meterRegistry.counter("shareit.item.cache.requests", "part", part, "result", "miss");
+        }
+
+        private V get(Long itemId, Supplier<V> loader) {
+            if (maxSize <= 0) {
+                return loader.get();
+            }
+            long loadGeneration;
+            synchronized (this) {
+                Entry<V> cached = entries.get(itemId);
+                if (cached != null && System.nanoTime() - cached.loadedAt() < maxAgeNanos
+                        && !expired.test(cached.value())) {
+                    hits.increment();
+                    return cached.value();
+                }
+                loadGeneration = generation;
+            }
+            misses.increment();
+            long loadedAt = System.nanoTime();
+            V value = loader.get();
+            synchronized (this) {
+                if (loadGeneration == generation) {
+                    entries.put(itemId, new Entry<>(value, loadedAt));
+                }
+            }
+            return value;
+        }
+
+        private synchronized void evict(Long itemId) {
+            generation++;
+            entries.remove(itemId);
+        }
+
+        private synchronized void clear() {
+            generation++;
+            entries.clear();
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.comment;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dto.CommentPreviewView;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.mapper.MapperCommentDto;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Заполняет вещи последними комментариями и общим числом комментариев.
+ * Используется везде, где вещи отдаются списком, в том числе в ответах на запросы вещей.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentPreviews {
+
+    public static final int PREVIEW_SIZE = 10;
+
+    private final CommentRepository commentRepository;
+    private final MapperCommentDto mapperCommentDto;
+
+    public void fill(List<ItemDto> itemDtos) {
+        // Последние комментарии и их общее число для всего списка вещей получаются одним запросом
+        if (itemDtos.isEmpty()) return;
+        List<Long> itemIds = itemDtos.stream().map(ItemDto::getId).toList();
+        Map<Long, List<CommentPreviewView>> comments = commentRepository
+                .findNewestByItemIdIn(itemIds, PREVIEW_SIZE).stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId));
+        for (ItemDto itemDto : itemDtos) {
+            List<CommentPreviewView> itemComments = comments.getOrDefault(itemDto.getId(), List.of());
+            itemDto.setComments(itemComments.stream().map(mapperCommentDto::toCommentDto).toList());
+            itemDto.setCommentsCount(itemComments.isEmpty() ? 0L : itemComments.getFirst().getTotal());
+        }
+    }
+}
@@ -1,11 +1,47 @@
 package ru.practicum.shareit.item.dao;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentPreviewView;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemId(Long id);
+    @Query(value = """
+        select c.item_id as itemId, c.id as id, c.text as text, u.name as authorName, c.created as created,
+            c.total as total
+        from (
+            select cm.id, cm.item_id, cm.text, cm.author, cm.created,
+                row_number() over (partition by cm.item_id order by cm.created desc, cm.id desc) as rn,
+                count(*) over (partition by cm.item_id) as total
+            from comments as cm
+            where cm.item_id in (:itemIds)
+        ) as c
+        join users as u on u.id = c.author
+        where c.rn <= :limit
+        order by c.item_id, c.created desc, c.id desc
+    """, nativeQuery = true)
+    List<CommentPreviewView> findNewestByItemIdIn(Collection<Long> itemIds, int limit);
+
+    @Query("""
+        select c.item.id as itemId, c.id as id, c.text as text, c.author.name as authorName, c.created as created
+        from Comment as c
+        where c.item.id = ?1
+        order by c.created desc, c.id desc
+    """)
+    List<CommentView> findNewestByItemId(Long itemId, Limit limit);
+
+    @Query("""
+        select c.item.id as itemId, c.id as id, c.text as text, c.author.name as authorName, c.created as created
+        from Comment as c, Comment as prev
+        where prev.id = ?2 and c.item.id = ?1 and
+            (c.created < prev.created or c.created = prev.created and c.id < prev.id)
+        order by c.created desc, c.id desc
+    """)
+    List<CommentView> findNewestByItemIdBefore(Long itemId, Long commentId, Limit limit);
 }
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class ItemJdbcRepository {
+
+    private static final int FETCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Читает доступные вещи по подстроке серверным курсором (fetch size) и передает их порциями,
+     * не держа в памяти весь результат. Порция обрабатывается в той же транзакции.
+     */
+    @Transactional(readOnly = true)
+    public void forEachBySubstring(String text, int chunkSize, Consumer<List<ItemDto>> chunkConsumer) {
+        String pattern = "%" + text + "%";
+        List<ItemDto> chunk = new ArrayList<>(chunkSize);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("""
+                select i.id, i.name, i.description, i.available, i.request
+                from items as i
+                where i.available = true and (lower(i.name) like ? or lower(i.description) like ?)
+                order by i.id
+            """);
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setString(1, pattern);
+            statement.setString(2, pattern);
+            return statement;
+        }, (RowCallbackHandler) resultSet -> {
+            long requestId = resultSet.getLong("request");
+            chunk.add(ItemDto.builder()
+                    .id(resultSet.getLong("id"))
+                    .name(resultSet.getString("name"))
+                    .description(resultSet.getString("description"))
+                    .available(resultSet.getBoolean("available"))
+                    .comments(List.of())
+                    .requestId(resultSet.wasNull() ? null : requestId)
+                    .build());
+            if (chunk.size() == chunkSize) {
+                chunkConsumer.accept(List.copyOf(chunk));
+                chunk.clear();
+            }
+        });
+        if (!chunk.isEmpty()) {
+            chunkConsumer.accept(List.copyOf(chunk));
+        }
+    }
+}
@@ -1,15 +1,25 @@
 package ru.practicum.shareit.item.dao;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dto.ItemAvailableView;
+import ru.practicum.shareit.item.dto.ItemStateView;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    @EntityGraph(attributePaths = {"owner", "request", "request.creator"})
     List<Item> findItemsByOwnerId(Long userId);
 
+    @EntityGraph(attributePaths = {"owner", "request", "request.creator"})
     @Query(value = """
         select i
         from Item as i
@@ -17,8 +27,75 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             lower(i.name) like lower('%' || ?1 || '%') or
             lower(i.description) like lower('%' || ?1 || '%')
         )
+        order by case when lower(i.name) like lower('%' || ?1 || '%') then 0 else 1 end, i.id
     """)
-    List<Item> findItemsBySubstring(String text);
+    List<Item> findItemsBySubstring(String text, Limit limit);
 
-    List<Item> findAllByRequestId(Long id);
+    @EntityGraph(attributePaths = {"owner", "request", "request.creator"})
+    @Query(value = """
+        select i
+        from Item as i
+        where i.available = true and i.id > ?2 and (
+            lower(i.name) like lower('%' || ?1 || '%') or
+            lower(i.description) like lower('%' || ?1 || '%')
+        )
+        order by i.id
+    """)
+    List<Item> findItemsBySubstringAfter(String text, Long afterId, Limit limit);
+
+    @Query(value = """
+        select i.id
+        from items as i
+        where i.available = true and (
+            lower(i.name) like '%' || :text || '%' or
+            lower(i.description) like '%' || :text || '%'
+        )
+        order by word_similarity(:text, lower(i.name)) desc,
+            word_similarity(:text, lower(i.description)) desc, i.id
+        limit :limit
+    """, nativeQuery = true)
+    List<Long> findItemIdsByTrigram(String text, int limit);
+
+    @Query("select i.name from Item as i where i.available = true")
+    List<String> findAvailableItemNames();
+
+    @EntityGraph(attributePaths = {"owner", "request", "request.creator"})
+    List<Item> findAllByIdIn(Collection<Long> ids);
+
+    @Query("select i.id as id, i.available as available from Item as i where i.id in :ids")
+    List<ItemAvailableView> findAvailableViewsByIdIn(Collection<Long> ids);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+        update Item as i
+        set i.name = coalesce(:name, i.name),
+            i.description = coalesce(:description, i.description),
+            i.available = coalesce(:available, i.available),
+            i.version = i.version + 1
+        where i.owner.id = :ownerId and i.id in :ids
+    """)
+    int updateItems(Long ownerId, Collection<Long> ids, String name, String description, Boolean available);
+
+    // Строки блокируются до конца транзакции, поэтому версия после пакетного обновления на единицу больше прочитанной
+    @Query(value = """
+        select i.id as id, i.name as name, i.description as description, i.available as available,
+            i.request as requestId, i.version as version
+        from items as i
+        where i.owner = :ownerId and i.id in (:ids)
+        order by i.id
+        for update
+    """, nativeQuery = true)
+    List<ItemStateView> lockStatesByOwnerIdAndIdIn(Long ownerId, Collection<Long> ids);
+
+    @Query(value = """
+        select i.id as id, i.version as version
+        from Item as i
+        where i.available = true and i.id > ?1
+        order by i.id
+    """)
+    List<ItemVersionView> findAvailableVersionsAfter(Long afterId, Limit limit);
+
+    @EntityGraph(attributePaths = {"owner", "request", "request.creator"})
+    List<Item> findAllByRequestIdIn(Collection<Long> requestIds);
 }
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Проекция комментария из выборки последних комментариев с общим числом комментариев к вещи.
+ */
+public interface CommentPreviewView extends CommentView {
+
+    Long getTotal();
+
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Проверка, свободны ли вещи из itemIds на все время [start, end].
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityRequestDto {
+
+    private List<Long> itemIds;
+
+    private LocalDateTime start;
+
+    private LocalDateTime end;
+
+}
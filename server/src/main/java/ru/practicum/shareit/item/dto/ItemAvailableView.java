@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Проекция id и доступности вещи.
+ */
+public interface ItemAvailableView {
+
+    Long getId();
+
+    Boolean getAvailable();
+
+}
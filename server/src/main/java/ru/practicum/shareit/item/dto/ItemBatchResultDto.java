@@ -0,0 +1,24 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат обработки одной строки пакетного создания вещей.
+ * Заполняется либо item (вещь создана), либо error.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBatchResultDto {
+
+    private int index;
+
+    private ItemDto item;
+
+    private String error;
+
+}
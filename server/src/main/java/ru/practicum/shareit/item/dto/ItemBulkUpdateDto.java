@@ -0,0 +1,28 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Пакетное обновление вещей владельца: одни и те же изменения применяются ко всем вещам из ids.
+ * Незаполненные поля не изменяются.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemBulkUpdateDto {
+
+    private List<Long> ids;
+
+    private String name;
+
+    private String description;
+
+    private Boolean available;
+
+}
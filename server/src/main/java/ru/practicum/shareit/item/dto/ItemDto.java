@@ -30,6 +30,8 @@ public class ItemDto {
 
     private List<CommentDto> comments;
 
+    private Long commentsCount;
+
     private Long requestId;
 
     @Override
@@ -41,7 +43,8 @@ public class ItemDto {
         return Objects.equals(id, itemDto.id) && name.equals(itemDto.name) &&
                 description.equals(itemDto.description) && Objects.equals(available, itemDto.available) &&
                 Objects.equals(lastBooking, itemDto.lastBooking) && Objects.equals(nextBooking, itemDto.nextBooking) &&
-                Objects.equals(comments, itemDto.comments) && Objects.equals(requestId, itemDto.requestId);
+                Objects.equals(comments, itemDto.comments) && Objects.equals(commentsCount, itemDto.commentsCount) &&
+                Objects.equals(requestId, itemDto.requestId);
     }
 
     @Override
@@ -53,6 +56,7 @@ public class ItemDto {
         result = 31 * result + Objects.hashCode(lastBooking);
         result = 31 * result + Objects.hashCode(nextBooking);
         result = 31 * result + Objects.hashCode(comments);
+        result = 31 * result + Objects.hashCode(commentsCount);
         result = 31 * result + Objects.hashCode(requestId);
         return result;
     }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Проекция полей вещи, нужных для ItemChangedEvent, без загрузки владельца и запроса.
+ */
+public interface ItemStateView {
+
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    Long getVersion();
+
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.item.dto;
+
+/**
+ * Проекция id и версии вещи.
+ */
+public interface ItemVersionView {
+
+    Long getId();
+
+    Long getVersion();
+
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.dto.mapper;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 @Component
@@ -16,6 +17,15 @@ public class MapperCommentDto {
                 .build();
     }
 
+    public CommentDto toCommentDto(CommentView commentView) {
+        return CommentDto.builder()
+                .id(commentView.getId())
+                .text(commentView.getText())
+                .authorName(commentView.getAuthorName())
+                .created(commentView.getCreated())
+                .build();
+    }
+
     public Comment fromCommentDto(CommentDto commentDto) {
         return Comment.builder()
                 .id(commentDto.getId())
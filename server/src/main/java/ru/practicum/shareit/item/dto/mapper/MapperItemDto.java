@@ -16,6 +16,7 @@ public class MapperItemDto {
                 .description(item.getDescription())
                 .available(item.getAvailable())
                 .comments(List.of())
+                .commentsCount(0L)
                 .requestId(item.getRequest() != null ? item.getRequest().getId() : null)
                 .build();
     }
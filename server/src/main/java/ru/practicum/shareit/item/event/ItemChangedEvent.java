@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.event;
+
+import ru.practicum.shareit.item.model.Item;
+
+/**
+ * Публикуется ItemService после сохранения новой или измененной вещи.
+ * Слушатели получают событие после фиксации транзакции, а вне транзакции сразу.
+ *
+ * @param previous состояние вещи до изменения, null для новой вещи
+ * @param current  сохраненное состояние вещи
+ */
+public record ItemChangedEvent(Item previous, Item current) {
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании.
+ * Реализация выбирается свойством shareit.search.mode.
+ * Используется только для GET /items/search без limit и cursor: постраничный и потоковый поиск
+ * возвращают все совпадения по подстроке в порядке id запросом к БД при любом режиме.
+ */
+public interface ItemSearch {
+
+    /**
+     * @param text текст в нижнем регистре
+     * @return вещи, упорядоченные по релевантности, не более shareit.search.max-results
+     */
+    List<Item> search(String text);
+
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Ограниченный LRU-кэш результатов поиска вещей по тексту.
+ * Кэшируется только список найденных вещей: аренды и отзывы зависят от пользователя и
+ * дополняются при каждом запросе. Записи удаляются точечно, когда у вещи меняется название,
+ * описание или доступность и искомый текст встречается в старых или новых значениях,
+ * а также при удалении владельца вещи из результата. Изменения, сделанные на другом узле,
+ * этот узел не видит, поэтому запись живет не дольше shareit.search.cache.max-age.
+ */
+@Component
+public class ItemSearchCache {
+
+    private final int maxSize;
+    private final long maxAgeNanos;
+    private final Map<Key, Entry> entries;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+    // Увеличивается при каждой инвалидации, чтобы не положить в кэш результат, прочитанный до изменения
+    private long generation;
+
+    public ItemSearchCache(@Value("${shareit.search.cache.max-size:1000}") int maxSize,
+                           @Value("${shareit.search.cache.max-age:PT1M}") Duration maxAge,
+                           MeterRegistry meterRegistry) {
+        this.maxSize = maxSize;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > ItemSearchCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.hits = meterRegistry.counter("shareit.search.cache.requests", "result", "hit");
+        this.misses = meterRegistry.counter("shareit.search.cache.requests", "result", "miss");
+        this.evictions = meterRegistry.counter("shareit.search.cache.evictions");
+        Gauge.builder("shareit.search.cache.size", this, ItemSearchCache::size).register(meterRegistry);
+    }
+
+    public List<Item> get(String text, Integer limit, String cursor, Supplier<List<Item>> loader) {
+        if (maxSize <= 0) {
+            return loader.get();
+        }
+        Key key = new Key(text, limit, cursor);
+        long loadGeneration;
+        synchronized (this) {
+            Entry cached = entries.get(key);
+            if (cached != null && System.nanoTime() - cached.loadedAt() < maxAgeNanos) {
+                hits.increment();
+                return cached.items();
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        long loadedAt = System.nanoTime();
+        List<Item> items = List.copyOf(loader.get());
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, new Entry(items, loadedAt));
+            }
+        }
+        return items;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        Item previous = event.previous();
+        Item current = event.current();
+        if (previous != null && Objects.equals(previous.getName(), current.getName()) &&
+                Objects.equals(previous.getDescription(), current.getDescription()) &&
+                Objects.equals(previous.getAvailable(), current.getAvailable())) {
+            return;
+        }
+        synchronized (this) {
+            generation++;
+            entries.keySet().removeIf(key -> key.matches(previous) || key.matches(current));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        Set<Long> itemIds = event.items().stream().map(Item::getId).collect(Collectors.toSet());
+        synchronized (this) {
+            generation++;
+            entries.values().removeIf(entry -> entry.items().stream()
+                    .anyMatch(item -> itemIds.contains(item.getId())));
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private record Entry(List<Item> items, long loadedAt) {
+    }
+
+    private record Key(String text, Integer limit, String cursor) {
+
+        private boolean matches(Item item) {
+            if (item == null) {
+                return false;
+            }
+            String name = item.getName() != null ? item.getName().toLowerCase() : "";
+            String description = item.getDescription() != null ? item.getDescription().toLowerCase() : "";
+            // Совпадение хотя бы одного слова покрывает и поиск по подстроке, и поиск по словам индекса
+            return Arrays.stream(text.replace("\"", " ").trim().split("\\s+"))
+                    .anyMatch(word -> name.contains(word) || description.contains(word));
+        }
+    }
+}
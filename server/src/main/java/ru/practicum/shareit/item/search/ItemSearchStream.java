@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Результат поиска, отдаваемый порциями по мере чтения из курсора БД.
+ */
+@FunctionalInterface
+public interface ItemSearchStream {
+
+    void forEachChunk(Consumer<List<ItemDto>> chunkConsumer);
+
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск через like, работает на любой БД (используется с H2 в тестах).
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+    private final int maxResults;
+
+    public LikeItemSearch(ItemRepository itemRepository,
+                          @Value("${shareit.search.max-results:100}") int maxResults) {
+        this.itemRepository = itemRepository;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        return itemRepository.findItemsBySubstring(text, Limit.of(maxResults));
+    }
+}
@@ -0,0 +1,337 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.IndexableField;
+import org.apache.lucene.index.LeafReader;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchNoDocsQuery;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.Bits;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemVersionView;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Встроенный поисковый индекс Lucene по названию и описанию доступных вещей.
+ * Индекс хранится на диске (shareit.search.lucene.path) и переживает перезапуск,
+ * обновляется по ItemChangedEvent и UserDeletedEvent с near-real-time обновлением читателя.
+ * При запуске индекс сверяется с БД по версиям вещей.
+ * Поиск: слова ищутся по префиксу, текст в кавычках ищется как фраза.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "lucene")
+public class LuceneItemSearch implements ItemSearch, AutoCloseable {
+
+    private static final String ID = "id";
+    private static final String NAME = "name";
+    private static final String DESCRIPTION = "description";
+    private static final String REQUEST_ID = "requestId";
+    private static final String VERSION = "version";
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final int maxResults;
+    private final boolean rebuildOnStartup;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public LuceneItemSearch(ItemRepository itemRepository,
+                            @Value("${shareit.search.lucene.path:data/lucene/items}") String path,
+                            @Value("${shareit.search.max-results:100}") int maxResults,
+                            @Value("${shareit.search.lucene.rebuild-on-startup:false}") boolean rebuildOnStartup)
+            throws IOException {
+        this.itemRepository = itemRepository;
+        this.maxResults = maxResults;
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.directory = FSDirectory.open(Path.of(path));
+        this.writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        Query query = buildQuery(text);
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs topDocs = searcher.search(query, maxResults);
+                StoredFields storedFields = searcher.storedFields();
+                List<Item> items = new ArrayList<>(topDocs.scoreDocs.length);
+                for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                    items.add(toItem(storedFields.document(scoreDoc.doc)));
+                }
+                return items;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        index(event.current());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        try {
+            for (Item item : event.items()) {
+                writer.deleteDocuments(new Term(ID, item.getId().toString()));
+            }
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        if (rebuildOnStartup || writer.getDocStats().numDocs == 0) {
+            rebuild();
+        } else {
+            reconcile();
+        }
+    }
+
+    public void index(Item item) {
+        try {
+            write(item);
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Переиндексирует доступные вещи, версия которых в БД отличается от версии в индексе,
+     * и удаляет из индекса остальные документы. Так подхватываются изменения, не попавшие
+     * в последнюю фиксацию индекса, сделанные другим узлом или напрямую в БД.
+     */
+    public void reconcile() {
+        try {
+            Map<Long, Long> indexedVersions = readIndexedVersions();
+            List<Long> changedIds = new ArrayList<>();
+            List<ItemVersionView> page;
+            long lastId = 0;
+            do {
+                page = itemRepository.findAvailableVersionsAfter(lastId, Limit.of(REBUILD_PAGE_SIZE));
+                for (ItemVersionView view : page) {
+                    Long indexedVersion = indexedVersions.remove(view.getId());
+                    if (!view.getVersion().equals(indexedVersion)) {
+                        changedIds.add(view.getId());
+                    }
+                    lastId = view.getId();
+                }
+            } while (page.size() == REBUILD_PAGE_SIZE);
+            for (Long id : indexedVersions.keySet()) {
+                writer.deleteDocuments(new Term(ID, id.toString()));
+            }
+            for (int from = 0; from < changedIds.size(); from += REBUILD_PAGE_SIZE) {
+                List<Long> ids = changedIds.subList(from, Math.min(from + REBUILD_PAGE_SIZE, changedIds.size()));
+                for (Item item : itemRepository.findAllByIdIn(ids)) {
+                    write(item);
+                }
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            log.info("Поисковый индекс вещей сверен с БД, обновлено {} и удалено {} вещей.",
+                    changedIds.size(), indexedVersions.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void rebuild() {
+        log.info("Перестроение поискового индекса вещей.");
+        try {
+            writer.deleteAll();
+            Page<Item> page;
+            int pageNumber = 0;
+            long count = 0;
+            do {
+                page = itemRepository.findAll(PageRequest.of(pageNumber++, REBUILD_PAGE_SIZE, Sort.by(ID)));
+                for (Item item : page) {
+                    if (Boolean.TRUE.equals(item.getAvailable())) {
+                        writer.addDocument(toDocument(item));
+                        count++;
+                    }
+                }
+            } while (page.hasNext());
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            log.info("Поисковый индекс вещей перестроен, проиндексировано {} вещей.", count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.search.lucene.commit-interval:PT30S}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private void write(Item item) throws IOException {
+        Term id = new Term(ID, item.getId().toString());
+        if (Boolean.TRUE.equals(item.getAvailable())) {
+            writer.updateDocument(id, toDocument(item));
+        } else {
+            writer.deleteDocuments(id);
+        }
+    }
+
+    private Map<Long, Long> readIndexedVersions() throws IOException {
+        Map<Long, Long> versions = new HashMap<>();
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            for (LeafReaderContext context : searcher.getIndexReader().leaves()) {
+                LeafReader reader = context.reader();
+                Bits liveDocs = reader.getLiveDocs();
+                StoredFields storedFields = reader.storedFields();
+                for (int doc = 0; doc < reader.maxDoc(); doc++) {
+                    if (liveDocs != null && !liveDocs.get(doc)) {
+                        continue;
+                    }
+                    Document document = storedFields.document(doc, Set.of(ID, VERSION));
+                    // У документов, проиндексированных без версии, версия null, и они будут переиндексированы
+                    IndexableField version = document.getField(VERSION);
+                    versions.put(Long.valueOf(document.get(ID)),
+                            version != null ? version.numericValue().longValue() : null);
+                }
+            }
+        } finally {
+            searcherManager.release(searcher);
+        }
+        return versions;
+    }
+
+    private Query buildQuery(String text) {
+        String trimmed = text.trim();
+        boolean phrase = trimmed.length() > 1 && trimmed.startsWith("\"") && trimmed.endsWith("\"");
+        List<String> terms = analyze(phrase ? trimmed.substring(1, trimmed.length() - 1) : trimmed);
+        if (terms.isEmpty()) {
+            return new MatchNoDocsQuery();
+        }
+        if (phrase) {
+            String[] phraseTerms = terms.toArray(String[]::new);
+            return new BooleanQuery.Builder()
+                    .add(new BoostQuery(new PhraseQuery(NAME, phraseTerms), 2f), BooleanClause.Occur.SHOULD)
+                    .add(new PhraseQuery(DESCRIPTION, phraseTerms), BooleanClause.Occur.SHOULD)
+                    .build();
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            // Точное совпадение слова ранжируется выше совпадения по префиксу, название выше описания
+            query.add(new BooleanQuery.Builder()
+                    .add(new BoostQuery(new TermQuery(new Term(NAME, term)), 4f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new PrefixQuery(new Term(NAME, term)), 2f), BooleanClause.Occur.SHOULD)
+                    .add(new BoostQuery(new TermQuery(new Term(DESCRIPTION, term)), 1.5f), BooleanClause.Occur.SHOULD)
+                    .add(new PrefixQuery(new Term(DESCRIPTION, term)), BooleanClause.Occur.SHOULD)
+                    .build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        try (TokenStream tokenStream = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokenStream.addAttribute(CharTermAttribute.class);
+            tokenStream.reset();
+            while (tokenStream.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokenStream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return terms;
+    }
+
+    private Document toDocument(Item item) {
+        Document document = new Document();
+        document.add(new StringField(ID, item.getId().toString(), Field.Store.YES));
+        document.add(new TextField(NAME, item.getName(), Field.Store.YES));
+        document.add(new TextField(DESCRIPTION, item.getDescription(), Field.Store.YES));
+        document.add(new StoredField(VERSION, item.getVersion()));
+        if (item.getRequest() != null) {
+            document.add(new StoredField(REQUEST_ID, item.getRequest().getId()));
+        }
+        return document;
+    }
+
+    private Item toItem(Document document) {
+        // Вещь собирается из сохраненных полей индекса без обращения к БД
+        Number requestId = document.getField(REQUEST_ID) != null ?
+                document.getField(REQUEST_ID).numericValue() : null;
+        return Item.builder()
+                .id(Long.valueOf(document.get(ID)))
+                .name(document.get(NAME))
+                .description(document.get(DESCRIPTION))
+                .available(Boolean.TRUE)
+                .request(requestId != null ? ItemRequest.builder().id(requestId.longValue()).build() : null)
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Поиск через GIN-индексы pg_trgm (см. schema-postgresql.sql) с ранжированием по word_similarity.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "trigram")
+public class TrigramItemSearch implements ItemSearch {
+
+    private final ItemRepository itemRepository;
+    private final int maxResults;
+
+    public TrigramItemSearch(ItemRepository itemRepository,
+                             @Value("${shareit.search.max-results:100}") int maxResults) {
+        this.itemRepository = itemRepository;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public List<Item> search(String text) {
+        // Индекс отдает только id в порядке релевантности, вещи догружаются одним запросом
+        List<Long> ids = itemRepository.findItemIdsByTrigram(text, maxResults);
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return itemRepository.findAllByIdIn(ids).stream()
+                .sorted(Comparator.comparing(item -> rank.get(item.getId())))
+                .toList();
+    }
+}
@@ -0,0 +1,401 @@
+package ru.practicum.shareit.item.suggest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Префиксное дерево названий доступных вещей для подсказок при вводе.
+ * Название индексируется с начала каждого слова, поэтому "Cordless drill" находится и по "dri".
+ * Дерево строится при старте и обновляется по ItemChangedEvent и UserDeletedEvent (вещи удаляются
+ * вместе с владельцем), запросы к БД при подсказках не выполняются.
+ * Дерево сжатое: ребро хранит строку, узлы хранят id названий из словаря, опустевшие узлы удаляются.
+ * Каждый узел хранит не более maxResults лучших названий своего поддерева, при изменении названия
+ * они пересчитываются только по пути его ключей снизу вверх.
+ */
+@Slf4j
+@Component
+public class ItemNameTrie {
+
+    private final ItemRepository itemRepository;
+    private final int maxResults;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Trie trie;
+
+    public ItemNameTrie(ItemRepository itemRepository,
+                        @Value("${shareit.suggest.max-results:10}") int maxResults) {
+        this.itemRepository = itemRepository;
+        this.maxResults = maxResults;
+        this.trie = new Trie();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<String> names = itemRepository.findAvailableItemNames();
+        Trie rebuilt = new Trie();
+        names.forEach(name -> rebuilt.change(name, 1));
+        lock.writeLock().lock();
+        try {
+            trie = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Дерево подсказок построено по {} названиям вещей.", names.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        Item previous = event.previous();
+        Item current = event.current();
+        lock.writeLock().lock();
+        try {
+            if (previous != null && Boolean.TRUE.equals(previous.getAvailable())) {
+                trie.change(previous.getName(), -1);
+            }
+            if (Boolean.TRUE.equals(current.getAvailable())) {
+                trie.change(current.getName(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Item item : event.items()) {
+                if (Boolean.TRUE.equals(item.getAvailable())) {
+                    trie.change(item.getName(), -1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix) {
+        String key = normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.suggest(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return trie.root.count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    private static int commonPrefix(String label, String key, int from) {
+        int length = 0;
+        while (length < label.length() && from + length < key.length()
+                && label.charAt(length) == key.charAt(from + length)) {
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Дерево вместе со словарем названий. Название получает id при первом появлении,
+     * id освобождается и переиспользуется, когда название больше не встречается.
+     */
+    private final class Trie {
+
+        private final Node root = new Node("");
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final Deque<Integer> freeIds = new ArrayDeque<>();
+        private String[] names = new String[16];
+        private int[] counts = new int[16];
+        private int nextId;
+
+        private void change(String name, int delta) {
+            if (name == null || name.isBlank()) {
+                return;
+            }
+            String trimmed = name.trim();
+            Integer id = ids.get(trimmed);
+            if (id == null) {
+                if (delta < 0) {
+                    return;
+                }
+                id = allocate(trimmed);
+            }
+            int count = counts[id] + delta;
+            counts[id] = count;
+            String key = normalize(name);
+            for (int start = 0; start < key.length(); start++) {
+                if (start == 0 || key.charAt(start - 1) == ' ' && key.charAt(start) != ' ') {
+                    if (count == delta) {
+                        insert(root, key, start, id);
+                    } else if (count == 0) {
+                        remove(root, key, start, id);
+                    } else {
+                        // Изменилось только число вещей с этим названием, а значит и его место в лучших
+                        touch(root, key, start);
+                    }
+                }
+            }
+            if (count == 0) {
+                ids.remove(trimmed);
+                names[id] = null;
+                freeIds.push(id);
+            }
+        }
+
+        private int allocate(String name) {
+            int id = freeIds.isEmpty() ? nextId++ : freeIds.pop();
+            if (id == names.length) {
+                names = Arrays.copyOf(names, id * 2);
+                counts = Arrays.copyOf(counts, id * 2);
+            }
+            names[id] = name;
+            counts[id] = 0;
+            ids.put(name, id);
+            return id;
+        }
+
+        private void insert(Node node, String key, int from, int id) {
+            if (from == key.length()) {
+                node.terminals = add(node.terminals, id);
+            } else {
+                int index = node.childIndex(key.charAt(from));
+                if (index < 0) {
+                    Node leaf = new Node(key.substring(from));
+                    leaf.terminals = new int[]{id};
+                    leaf.top = leaf.terminals;
+                    node.addChild(-index - 1, leaf);
+                } else {
+                    Node child = node.children[index];
+                    int common = commonPrefix(child.label, key, from);
+                    if (common < child.label.length()) {
+                        // Ключ расходится с меткой ребра посередине: ребро делится промежуточным узлом
+                        Node split = new Node(child.label.substring(0, common));
+                        child.label = child.label.substring(common);
+                        split.children = new Node[]{child};
+                        split.top = child.top;
+                        node.children[index] = split;
+                        child = split;
+                    }
+                    insert(child, key, from + common, id);
+                }
+            }
+            updateTop(node);
+        }
+
+        /**
+         * @return false, если узел опустел и должен быть удален из родителя
+         */
+        private boolean remove(Node node, String key, int from, int id) {
+            if (from == key.length()) {
+                node.terminals = remove(node.terminals, id);
+            } else {
+                int index = node.childIndex(key.charAt(from));
+                if (index >= 0 && key.startsWith(node.children[index].label, from)) {
+                    Node child = node.children[index];
+                    if (!remove(child, key, from + child.label.length(), id)) {
+                        node.removeChild(index);
+                    } else if (child.terminals.length == 0 && child.children.length == 1) {
+                        // Узел без названий с единственным ребенком сливается с ним в одно ребро
+                        Node grandchild = child.children[0];
+                        grandchild.label = child.label + grandchild.label;
+                        node.children[index] = grandchild;
+                    }
+                }
+            }
+            if (node != root && node.terminals.length == 0 && node.children.length == 0) {
+                return false;
+            }
+            updateTop(node);
+            return true;
+        }
+
+        private void touch(Node node, String key, int from) {
+            if (from < key.length()) {
+                int index = node.childIndex(key.charAt(from));
+                if (index >= 0 && key.startsWith(node.children[index].label, from)) {
+                    Node child = node.children[index];
+                    touch(child, key, from + child.label.length());
+                }
+            }
+            updateTop(node);
+        }
+
+        private List<String> suggest(String key) {
+            Node node = root;
+            int from = 0;
+            while (from < key.length()) {
+                int index = node.childIndex(key.charAt(from));
+                if (index < 0) {
+                    return List.of();
+                }
+                node = node.children[index];
+                int common = commonPrefix(node.label, key, from);
+                if (from + common < key.length() && common < node.label.length()) {
+                    return List.of();
+                }
+                from += common;
+            }
+            List<String> found = new ArrayList<>(node.top.length);
+            for (int id : node.top) {
+                found.add(names[id]);
+            }
+            return found;
+        }
+
+        /**
+         * Лучшие названия узла выбираются из его собственных названий и лучших названий детей:
+         * лучшие названия поддерева всегда входят в их объединение.
+         */
+        private void updateTop(Node node) {
+            if (node == root) {
+                return;
+            }
+            int[] top = new int[maxResults];
+            int size = 0;
+            for (int id : node.terminals) {
+                size = offer(top, size, id);
+            }
+            for (Node child : node.children) {
+                for (int id : child.top) {
+                    size = offer(top, size, id);
+                }
+            }
+            node.top = size == top.length ? top : Arrays.copyOf(top, size);
+        }
+
+        private int offer(int[] top, int size, int id) {
+            for (int i = 0; i < size; i++) {
+                if (top[i] == id) {
+                    return size;
+                }
+            }
+            int position = size;
+            while (position > 0 && compare(id, top[position - 1]) < 0) {
+                position--;
+            }
+            if (position == top.length) {
+                return size;
+            }
+            int newSize = Math.min(size + 1, top.length);
+            System.arraycopy(top, position, top, position + 1, newSize - position - 1);
+            top[position] = id;
+            return newSize;
+        }
+
+        // Чаще встречающееся название выше, затем более короткое, затем по алфавиту
+        private int compare(int first, int second) {
+            int result = Integer.compare(counts[second], counts[first]);
+            if (result == 0) {
+                result = Integer.compare(names[first].length(), names[second].length());
+            }
+            return result != 0 ? result : names[first].compareTo(names[second]);
+        }
+
+        private static int[] add(int[] ids, int id) {
+            int[] result = Arrays.copyOf(ids, ids.length + 1);
+            result[ids.length] = id;
+            return result;
+        }
+
+        private static int[] remove(int[] ids, int id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    int[] result = new int[ids.length - 1];
+                    System.arraycopy(ids, 0, result, 0, i);
+                    System.arraycopy(ids, i + 1, result, i, ids.length - i - 1);
+                    return result;
+                }
+            }
+            return ids;
+        }
+    }
+
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+        private static final int[] NO_IDS = new int[0];
+
+        private String label;
+        // Отсортированы по первому символу метки, у разных детей он всегда разный
+        private Node[] children = NO_CHILDREN;
+        private int[] terminals = NO_IDS;
+        private int[] top = NO_IDS;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private int childIndex(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                char middleChar = children[middle].label.charAt(0);
+                if (middleChar < c) {
+                    low = middle + 1;
+                } else if (middleChar > c) {
+                    high = middle - 1;
+                } else {
+                    return middle;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private void addChild(int index, Node child) {
+            Node[] result = new Node[children.length + 1];
+            System.arraycopy(children, 0, result, 0, index);
+            result[index] = child;
+            System.arraycopy(children, index, result, index + 1, children.length - index);
+            children = result;
+        }
+
+        private void removeChild(int index) {
+            Node[] result = new Node[children.length - 1];
+            System.arraycopy(children, 0, result, 0, index);
+            System.arraycopy(children, index + 1, result, index, children.length - index - 1);
+            children = result;
+        }
+
+        private int count() {
+            int count = 1;
+            for (Node child : children) {
+                count += child.count();
+            }
+            return count;
+        }
+    }
+}
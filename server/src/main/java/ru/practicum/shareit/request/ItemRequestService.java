@@ -4,14 +4,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.NotFoundException;
-import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.comment.CommentPreviews;
 import ru.practicum.shareit.item.dao.ItemRepository;
-import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.dto.mapper.MapperCommentDto;
 import ru.practicum.shareit.item.dto.mapper.MapperItemDto;
-import ru.practicum.shareit.item.model.Comment;
-import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.mapper.MapperItemRequestDto;
@@ -21,6 +17,8 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -32,8 +30,7 @@ public class ItemRequestService {
     private final ItemRepository itemRepository;
     private final MapperItemRequestDto mapperItemRequestDto;
     private final MapperItemDto mapperItemDto;
-    private final CommentRepository commentRepository;
-    private final MapperCommentDto mapperCommentDto;
+    private final CommentPreviews commentPreviews;
 
 
     public ItemRequestDto createItemRequest(Long userRenterId, ItemRequestDto itemRequestDto) {
@@ -57,8 +54,8 @@ public class ItemRequestService {
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByCreatorId(userRenterId);
         List<ItemRequestDto> itemRequestsDto = itemRequests.stream()
                 .map(mapperItemRequestDto::toItemRequestDto)
-                .peek(this::fillItemsAndCommentsInItemRequestDto)
                 .toList();
+        fillItemsAndCommentsInItemRequestDto(itemRequestsDto);
         log.info("Найдено {} запросов.", itemRequests.size());
         return itemRequestsDto;
     }
@@ -74,8 +71,8 @@ public class ItemRequestService {
         List<ItemRequest> itemRequests = itemRequestRepository.findAllByNotCreatorId(userRenterId, from, size);
         List<ItemRequestDto> itemRequestsDto = itemRequests.stream()
                 .map(mapperItemRequestDto::toItemRequestDto)
-                .peek(this::fillItemsAndCommentsInItemRequestDto)
                 .toList();
+        fillItemsAndCommentsInItemRequestDto(itemRequestsDto);
         log.info("Найдено {} запросов.", itemRequests.size());
         return itemRequestsDto;
     }
@@ -85,23 +82,22 @@ public class ItemRequestService {
         ItemRequest itemRequest = itemRequestRepository.findById(requestId).orElseThrow(() ->
                 new NotFoundException("Запрос с id = " + requestId + " не существует."));
         ItemRequestDto itemRequestDto = mapperItemRequestDto.toItemRequestDto(itemRequest);
-        fillItemsAndCommentsInItemRequestDto(itemRequestDto);
+        fillItemsAndCommentsInItemRequestDto(List.of(itemRequestDto));
         log.info("Получен запрос {}.", itemRequestDto);
         return itemRequestDto;
     }
 
-    private void fillItemsAndCommentsInItemRequestDto(ItemRequestDto itemRequestDto) {
-        List<Item> items = itemRepository.findAllByRequestId(itemRequestDto.getId());
-        List<ItemDto> itemDtos = items.stream()
+    private void fillItemsAndCommentsInItemRequestDto(List<ItemRequestDto> itemRequestDtos) {
+        // Вещи и комментарии для всего списка запросов получаются двумя запросами
+        if (itemRequestDtos.isEmpty()) return;
+        List<Long> requestIds = itemRequestDtos.stream().map(ItemRequestDto::getId).toList();
+        List<ItemDto> itemDtos = itemRepository.findAllByRequestIdIn(requestIds).stream()
                 .map(mapperItemDto::toItemDto)
-                .peek(itemDto -> {
-                    List<Comment> comments = commentRepository.findAllByItemId(itemDto.getId());
-                    List<CommentDto> commentDtos = comments.stream()
-                            .map(mapperCommentDto::toCommentDto)
-                            .toList();
-                    itemDto.setComments(commentDtos);
-                })
                 .toList();
-        itemRequestDto.setItems(itemDtos);
+        commentPreviews.fill(itemDtos);
+        Map<Long, List<ItemDto>> items = itemDtos.stream()
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+        itemRequestDtos.forEach(itemRequestDto ->
+                itemRequestDto.setItems(items.getOrDefault(itemRequestDto.getId(), List.of())));
     }
 }
@@ -1,15 +1,19 @@
 package ru.practicum.shareit.request.dao;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @EntityGraph(attributePaths = {"creator"})
     List<ItemRequest> findAllByCreatorId(Long userRenterId);
 
+    @EntityGraph(attributePaths = {"creator"})
     @Query("""
         select ir
         from ItemRequest as ir
@@ -19,4 +23,7 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
         offset :from
     """)
     List<ItemRequest> findAllByNotCreatorId(Long userRenterId, Long from, Long size);
+
+    @EntityGraph(attributePaths = {"creator"})
+    List<ItemRequest> findAllByIdIn(Collection<Long> ids);
 }
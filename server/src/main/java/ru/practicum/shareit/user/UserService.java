@@ -2,10 +2,15 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.model.User;
 import java.util.List;
 import java.util.regex.Pattern;
@@ -16,6 +21,8 @@ import java.util.regex.Pattern;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public User getUser(Long id) {
         log.info("Запрос на получение пользователя с id = {}.", id);
@@ -65,6 +72,7 @@ public class UserService {
             }
         }
         User updated = userRepository.save(newUser);
+        eventPublisher.publishEvent(new UserChangedEvent(oldUser, updated));
         log.info("Пользователь обновлен {}.", updated);
         return updated;
     }
@@ -82,7 +90,10 @@ public class UserService {
         log.info("Запрос на удаление пользователя с id = {}.", id);
         User user = userRepository.findById(id).orElseThrow(() ->
                 new NotFoundException("Пользователь с id = " + id + " не существует."));
+        // Вещи читаются до удаления: каскад удаляет их без ItemChangedEvent
+        List<Item> items = itemRepository.findItemsByOwnerId(id);
         userRepository.deleteById(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(user, items));
         log.info("Удален пользователь {}.", user);
         return user;
     }
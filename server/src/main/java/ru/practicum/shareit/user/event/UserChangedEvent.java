@@ -0,0 +1,13 @@
+package ru.practicum.shareit.user.event;
+
+import ru.practicum.shareit.user.model.User;
+
+/**
+ * Публикуется UserService после сохранения измененного пользователя.
+ * Слушатели получают событие после фиксации транзакции, а вне транзакции сразу.
+ *
+ * @param previous состояние пользователя до изменения
+ * @param current  сохраненное состояние пользователя
+ */
+public record UserChangedEvent(User previous, User current) {
+}
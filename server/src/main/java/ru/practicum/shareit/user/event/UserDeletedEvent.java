@@ -0,0 +1,17 @@
+package ru.practicum.shareit.user.event;
+
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+/**
+ * Публикуется UserService после удаления пользователя. Вещи, аренды и отзывы пользователя
+ * удаляются в БД каскадно, без ItemChangedEvent и BookingChangedEvent, поэтому локальные
+ * индексы и кэши сбрасывают по этому событию все, что могло их касаться.
+ *
+ * @param user  удаленный пользователь
+ * @param items вещи пользователя, прочитанные до удаления
+ */
+public record UserDeletedEvent(User user, List<Item> items) {
+}
@@ -0,0 +1,68 @@
+-- Выполняется только на PostgreSQL после schema.sql (см. spring.sql.init.schema-locations)
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING gin (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING gin (lower(description) gin_trgm_ops);
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- На PostgreSQL таблица аренд секционирована по месяцам start_time. Секции месяцев создает
+-- BookingPartitionManager, аренды вне созданных секций попадают в booking_default.
+-- Первичный ключ секционированной таблицы должен включать ключ секционирования,
+-- id выдается той же последовательностью booking_seq, что и в schema.sql
+DROP TABLE IF EXISTS booking CASCADE;
+DROP TABLE IF EXISTS booking_archive CASCADE;
+
+CREATE TABLE booking (
+    id BIGINT DEFAULT nextval('booking_seq') NOT NULL,
+    renter_user BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    start_time TIMESTAMP NOT NULL,
+    end_time TIMESTAMP NOT NULL CHECK (start_time < end_time),
+    rented_item BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
+    status BIGINT NOT NULL REFERENCES booking_status (id) ON DELETE CASCADE,
+    PRIMARY KEY (id, start_time)
+) PARTITION BY RANGE (start_time);
+
+CREATE TABLE booking_default PARTITION OF booking DEFAULT;
+
+-- Секции месяцев, закончившихся раньше shareit.booking.partitioning.archive-after-months, переносятся
+-- сюда без копирования строк (DETACH PARTITION и ATTACH PARTITION) и не читаются запросами к booking
+CREATE TABLE booking_archive (LIKE booking INCLUDING ALL) PARTITION BY RANGE (start_time);
+
+-- Индексы те же, что в schema.sql, создаются в каждой секции
+CREATE INDEX booking_renter_id_idx ON booking (renter_user, id);
+CREATE INDEX booking_renter_status_id_idx ON booking (renter_user, status, id);
+CREATE INDEX booking_item_id_idx ON booking (rented_item, id);
+CREATE INDEX booking_item_start_idx ON booking (rented_item, start_time);
+
+-- Ожидающие (1) и подтвержденные (2) аренды одной вещи не могут пересекаться по времени.
+-- Интервал замкнутый, как в BookingRepository.availableAtTime. Ограничение-исключение на
+-- секционированной таблице должно сравнивать ключ секционирования на равенство и не видит
+-- пересечений аренд из разных месяцев, поэтому интервалы этих аренд триггер копирует
+-- в несекционированную таблицу booking_period, где и действует ограничение
+DROP TABLE IF EXISTS booking_period;
+
+CREATE TABLE booking_period (
+    booking_id BIGINT PRIMARY KEY,
+    rented_item BIGINT NOT NULL,
+    period tsrange NOT NULL,
+    CONSTRAINT booking_no_overlap EXCLUDE USING gist (rented_item WITH =, period WITH &&)
+);
+
+-- Тело функции в обычных кавычках: скрипт делится на команды по точкам с запятой вне кавычек
+CREATE OR REPLACE FUNCTION booking_period_sync() RETURNS trigger LANGUAGE plpgsql AS '
+BEGIN
+    IF TG_OP IN (''UPDATE'', ''DELETE'') THEN
+        DELETE FROM booking_period WHERE booking_id = OLD.id;
+    END IF;
+    IF TG_OP IN (''INSERT'', ''UPDATE'') AND NEW.status IN (1, 2) THEN
+        INSERT INTO booking_period (booking_id, rented_item, period)
+        VALUES (NEW.id, NEW.rented_item, tsrange(NEW.start_time, NEW.end_time, ''[]''));
+    END IF;
+    RETURN NULL;
+END';
+
+-- Триггер секционированной таблицы действует во всех ее секциях, в том числе созданных позже
+CREATE TRIGGER booking_period_sync AFTER INSERT OR UPDATE OR DELETE ON booking
+    FOR EACH ROW EXECUTE FUNCTION booking_period_sync();
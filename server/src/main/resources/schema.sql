@@ -1,9 +1,15 @@
 DROP TABLE IF EXISTS users CASCADE;
 DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS booking CASCADE;
+-- Архив аренд есть только на PostgreSQL (schema-postgresql.sql), его колонка id тоже зависит от booking_seq
+DROP TABLE IF EXISTS booking_archive CASCADE;
 DROP TABLE IF EXISTS booking_status CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS requests CASCADE;
+DROP TABLE IF EXISTS booking_outbox CASCADE;
+DROP TABLE IF EXISTS booking_transition CASCADE;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS booking_seq;
 
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY NOT NULL,
@@ -18,13 +24,17 @@ CREATE TABLE IF NOT EXISTS requests (
     creator BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE
 );
 
+-- Шаг последовательности совпадает с allocationSize в Item: id выделяются приложением блоками
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY NOT NULL,
+    id BIGINT DEFAULT nextval('items_seq') PRIMARY KEY NOT NULL,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(255) NOT NULL,
     available BOOLEAN NOT NULL,
     owner BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
-    request BIGINT REFERENCES requests (id)
+    request BIGINT REFERENCES requests (id),
+    version BIGINT DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS booking_status (
@@ -32,8 +42,11 @@ CREATE TABLE IF NOT EXISTS booking_status (
     status VARCHAR(255) NOT NULL
 );
 
+-- Шаг последовательности совпадает с allocationSize в Booking
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS booking (
-    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY NOT NULL,
+    id BIGINT DEFAULT nextval('booking_seq') PRIMARY KEY NOT NULL,
     renter_user BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
     start_time TIMESTAMP NOT NULL,
     end_time TIMESTAMP NOT NULL CHECK (start_time < end_time),
@@ -41,10 +54,40 @@ CREATE TABLE IF NOT EXISTS booking (
     status BIGINT NOT NULL REFERENCES booking_status (id) ON DELETE CASCADE
 );
 
+-- События аренд, записанные в транзакции изменения аренды и еще не доставленные (BookingOutboxPoller).
+-- Внешнего ключа на booking нет: событие доставляется и после удаления аренды
+CREATE TABLE IF NOT EXISTS booking_outbox (
+    id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY NOT NULL,
+    booking_id BIGINT NOT NULL,
+    item_id BIGINT NOT NULL,
+    previous_status BIGINT,
+    status BIGINT NOT NULL,
+    created TIMESTAMP NOT NULL
+);
+
+-- Отметки опубликованных начал и концов аренд (BookingTransitionScheduler): событие публикует узел,
+-- первым вставивший строку. Старые отметки удаляются по shareit.booking.timer.claim-retention
+CREATE TABLE IF NOT EXISTS booking_transition (
+    booking_id BIGINT NOT NULL,
+    type VARCHAR(16) NOT NULL,
+    created TIMESTAMP NOT NULL,
+    PRIMARY KEY (booking_id, type)
+);
+
 CREATE TABLE IF NOT EXISTS comments (
     id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY NOT NULL,
     text TEXT NOT NULL,
     item_id BIGINT NOT NULL REFERENCES items (id) ON DELETE CASCADE,
     author BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
     created TIMESTAMP NOT NULL
-);
\ No newline at end of file
+);
+
+-- Индексы keyset-пагинации списков аренд (GET /bookings, GET /bookings/owner)
+CREATE INDEX IF NOT EXISTS booking_renter_id_idx ON booking (renter_user, id);
+CREATE INDEX IF NOT EXISTS booking_renter_status_id_idx ON booking (renter_user, status, id);
+CREATE INDEX IF NOT EXISTS booking_item_id_idx ON booking (rented_item, id);
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner, id);
+-- Аренды вещи на периоде (GET /items/{id}/availability)
+CREATE INDEX IF NOT EXISTS booking_item_start_idx ON booking (rented_item, start_time);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created, id);
@@ -0,0 +1,36 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Подсчет SQL-запросов, отправленных Hibernate. Подключается в тестах через
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.clear();
+    }
+
+    public static long count() {
+        return STATEMENTS.size();
+    }
+
+    public static long count(String table) {
+        String pattern = " " + table.toLowerCase() + " ";
+        return STATEMENTS.stream()
+                .filter(sql -> (" " + sql.toLowerCase() + " ").replaceAll("\\s+", " ").contains(pattern))
+                .count();
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Отдельная БД H2: триггер не должен попасть в общую БД закэшированных контекстов других тестов
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:booking-overlap")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingOverlapTest {
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Индекс пропускает обе аренды, как при двух параллельных запросах
+    @MockBean
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Test
+    void overlapRejectedByDatabaseIsBadRequest() {
+        jdbcTemplate.execute("create trigger booking_no_overlap before insert on booking for each row call \""
+                + BookingOverlapTrigger.class.getName() + "\"");
+        when(availabilityIndex.isAvailable(any(), any(), any())).thenReturn(true);
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(Item.builder()
+                .name("name")
+                .description("description")
+                .available(Boolean.TRUE)
+                .owner(owner)
+                .build());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        bookingService.createBooking(new BookingDtoShort(item.getId(), start, start.plusDays(2)), renter.getId());
+        BadRequestException exception = assertThrows(BadRequestException.class, () -> bookingService.createBooking(
+                new BookingDtoShort(item.getId(), start.plusDays(1), start.plusDays(3)), renter.getId()));
+        assertEquals("Вещь с id = " + item.getId() + " не доступна для аренды в это время.", exception.getMessage());
+
+        // Событие отклоненной аренды не записывается
+        assertEquals(1, bookingRepository.findAll().size());
+        assertEquals(1, jdbcTemplate.queryForObject("select count(*) from booking_outbox", Integer.class));
+    }
+
+    private User getUser(Long userId) {
+        return User.builder()
+                .name("name" + userId)
+                .email("email" + userId + "@email.com")
+                .build();
+    }
+}
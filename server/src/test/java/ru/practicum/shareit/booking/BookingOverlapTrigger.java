@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking;
+
+import org.h2.api.Trigger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Триггер H2, который, как ограничение booking_no_overlap в PostgreSQL, отклоняет вставку ожидающей
+ * или подтвержденной аренды, пересекающейся с другой такой же арендой вещи, ошибкой с SQLSTATE 23P01.
+ */
+public class BookingOverlapTrigger implements Trigger {
+
+    // Колонки booking: id, renter_user, start_time, end_time, rented_item, status
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) throws SQLException {
+        long status = ((Number) newRow[5]).longValue();
+        if (status != 1 && status != 2) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("""
+                select count(*) from booking
+                where rented_item = ? and status in (1, 2) and start_time <= ? and end_time >= ?
+                """)) {
+            statement.setLong(1, ((Number) newRow[4]).longValue());
+            statement.setTimestamp(2, toTimestamp(newRow[3]));
+            statement.setTimestamp(3, toTimestamp(newRow[2]));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                if (resultSet.getLong(1) > 0) {
+                    throw new SQLException("conflicting key value violates exclusion constraint", "23P01");
+                }
+            }
+        }
+    }
+
+    private static Timestamp toTimestamp(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp
+                : Timestamp.valueOf((LocalDateTime) value);
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.QueryCounter;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCartDto;
+import ru.practicum.shareit.booking.dto.BookingCartMode;
+import ru.practicum.shareit.booking.dto.BookingCartResultDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Отдельная БД H2: иначе пересоздание схемы этим контекстом сдвигает последовательности id
+// в общей БД закэшированных контекстов других тестов
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=ru.practicum.shareit.QueryCounter",
+        "spring.datasource.url=jdbc:h2:mem:booking-query-count"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingQueryCountTest {
+
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+
+    @Test
+    void createBookingsUsesOneItemQueryOneOverlapQueryAndBatchInsert() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        List<Long> itemIds = new ArrayList<>();
+        for (int i = 0; i < BookingService.MAX_CART_SIZE; i++) {
+            itemIds.add(itemRepository.save(getItem(owner, i)).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+
+        QueryCounter.reset();
+        List<BookingCartResultDto> results = bookingService.createBookings(renter.getId(),
+                new BookingCartDto(itemIds, start, end, null));
+
+        assertTrue(results.stream().allMatch(result -> result.getBooking() != null && result.getError() == null));
+        assertEquals(1, QueryCounter.count("items"));
+        assertEquals(1, QueryCounter.count("from booking"));
+        // Все аренды корзины вставляются одним пакетом
+        assertEquals(1, QueryCounter.count("into booking"));
+        assertEquals(BookingService.MAX_CART_SIZE, bookingRepository.findAll().size());
+    }
+
+    @Test
+    void createBookingsAllOrNothingAndBestEffort() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item free = itemRepository.save(getItem(owner, 1));
+        Item busy = itemRepository.save(getItem(owner, 2));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        bookingRepository.save(Booking.builder()
+                .renter(owner)
+                .startTime(start.plusHours(1))
+                .endTime(start.plusHours(2))
+                .item(busy)
+                .status(BookingStatus.APPROVED)
+                .build());
+        List<Long> itemIds = List.of(free.getId(), busy.getId());
+
+        assertThrows(BadRequestException.class, () -> bookingService.createBookings(renter.getId(),
+                new BookingCartDto(itemIds, start, end, BookingCartMode.ALL_OR_NOTHING)));
+        assertEquals(1, bookingRepository.findAll().size());
+
+        List<BookingCartResultDto> results = bookingService.createBookings(renter.getId(),
+                new BookingCartDto(itemIds, start, end, BookingCartMode.BEST_EFFORT));
+        assertNotNull(results.getFirst().getBooking());
+        assertEquals("Вещь с id = " + busy.getId() + " не доступна для аренды в это время.", results.getLast().getError());
+        assertEquals(2, bookingRepository.findAll().size());
+    }
+
+    private Item getItem(User owner, int number) {
+        return Item.builder()
+                .name("name" + number)
+                .description("description" + number)
+                .available(Boolean.TRUE)
+                .owner(owner)
+                .build();
+    }
+
+    private User getUser(Long userId) {
+        return User.builder()
+                .name("name" + userId)
+                .email("email" + userId + "@email.com")
+                .build();
+    }
+}
@@ -5,13 +5,26 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.dao.BookingCreateRepository;
+import ru.practicum.shareit.booking.dao.BookingCreateResult;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingCartDto;
+import ru.practicum.shareit.booking.dto.BookingCartMode;
+import ru.practicum.shareit.booking.dto.BookingCartResultDto;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
 import ru.practicum.shareit.booking.dto.mapper.BookingDtoMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.outbox.BookingOutboxRepository;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
@@ -19,11 +32,15 @@ import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.mapper.MapperItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -39,6 +56,7 @@ class BookingServiceTest {
     private ItemRepository itemRepository;
     private UserRepository userRepository;
     private BookingDtoMapper bookingDtoMapper;
+    private BookingOutboxRepository bookingOutboxRepository;
     private BookingService bookingService;
 
     private Long reservedId = 40L;
@@ -57,7 +75,10 @@ class BookingServiceTest {
         itemRepository = mock(ItemRepository.class);
         userRepository = mock(UserRepository.class);
         bookingDtoMapper = new BookingDtoMapper(new MapperItemDto());
-        bookingService = new BookingService(bookingRepository, itemRepository, userRepository, bookingDtoMapper);
+        bookingOutboxRepository = mock(BookingOutboxRepository.class);
+        bookingService = new BookingService(bookingRepository, itemRepository, userRepository, bookingDtoMapper,
+                mock(ApplicationEventPublisher.class), new BookingAvailabilityIndex(bookingRepository, false, 0, Duration.ZERO),
+                bookingOutboxRepository, Optional.empty());
 
         usedIds = new ArrayList<>();
         isAvailable = true;
@@ -83,12 +104,12 @@ class BookingServiceTest {
             return id > 0 && id <= maxId;
         });
 
-        when(bookingRepository.availableAtTime(any(Item.class), any(BookingStatus.class),
+        when(bookingRepository.availableAtTime(any(Item.class), anyCollection(),
                 any(LocalDateTime.class), any(LocalDateTime.class))).thenAnswer(arguments -> {
                     return isAvailableAtTime;
         });
 
-        when(bookingRepository.save(any(Booking.class))).thenAnswer(arguments -> {
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(arguments -> {
             Booking booking = arguments.getArgument(0);
             booking.setId(1L);
             return booking;
@@ -159,6 +180,138 @@ class BookingServiceTest {
         assertEquals(BookingStatus.WAITING, bookingDto.getStatus());
         assertEquals(realUserId, bookingDto.getBooker().getId());
 
+        // Событие записывается в booking_outbox только для созданной аренды
+        verify(bookingOutboxRepository, times(1)).add(any(Booking.class), isNull());
+
+    }
+
+    @Test
+    void createBookingOverlapRejectedByDatabase() {
+        Long realUserId = getRandomKey();
+        Long realItemId = getRandomKey();
+        BookingDtoShort bookingDto = getBookingDtoShort(realItemId, 5, 3);
+
+        // Параллельно созданная аренда отклоняется ограничением booking_no_overlap
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+        BadRequestException exceptionOverlap = assertThrows(BadRequestException.class, () ->
+                bookingService.createBooking(bookingDto, realUserId));
+        assertEquals("Вещь с id = " + realItemId + " не доступна для аренды в это время.",
+                exceptionOverlap.getMessage());
+
+        // Остальные нарушения целостности не подменяются
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException("fk",
+                new SQLException("violates foreign key constraint", "23503")));
+        assertThrows(DataIntegrityViolationException.class, () ->
+                bookingService.createBooking(bookingDto, realUserId));
+    }
+
+    @Test
+    void createBookingInOneStatement() {
+        BookingCreateRepository createRepository = mock(BookingCreateRepository.class);
+        BookingService singleStatementService = new BookingService(bookingRepository, itemRepository, userRepository,
+                bookingDtoMapper, mock(ApplicationEventPublisher.class),
+                new BookingAvailabilityIndex(bookingRepository, false, 0, Duration.ZERO), bookingOutboxRepository,
+                Optional.of(createRepository));
+        Long userId = getRandomKey();
+        Long itemId = getRandomKey();
+        BookingDtoShort bookingDto = getBookingDtoShort(itemId, 5, 3);
+
+        // Время проверяется без обращения к БД
+        ValidationException exceptionTime = assertThrows(ValidationException.class, () ->
+                singleStatementService.createBooking(getBookingDtoShort(itemId, 2, 3), userId));
+        assertEquals("Время неверно относительно друг друга.", exceptionTime.getMessage());
+
+        // Каждому коду результата соответствует прежнее сообщение об ошибке
+        Map<BookingCreateResult.Code, String> messages = Map.of(
+                BookingCreateResult.Code.RENTER_NOT_FOUND, "Пользователь с id = " + userId + " не существует.",
+                BookingCreateResult.Code.ITEM_NOT_FOUND, "Вещь с id = " + itemId + " не существует.",
+                BookingCreateResult.Code.ITEM_NOT_AVAILABLE, "Вещь с id = " + itemId + " не доступна для аренды.",
+                BookingCreateResult.Code.OWNER_BOOKING, "Владелец не может арендовать свою вещь.",
+                BookingCreateResult.Code.TIME_NOT_AVAILABLE,
+                "Вещь с id = " + itemId + " не доступна для аренды в это время.");
+        for (Map.Entry<BookingCreateResult.Code, String> entry : messages.entrySet()) {
+            when(createRepository.createBooking(anyLong(), anyLong(), any(LocalDateTime.class),
+                    any(LocalDateTime.class))).thenReturn(new BookingCreateResult(entry.getKey(), null));
+            RuntimeException exception = assertThrows(RuntimeException.class, () ->
+                    singleStatementService.createBooking(bookingDto, userId));
+            assertEquals(entry.getValue(), exception.getMessage());
+        }
+
+        Booking created = Booking.builder()
+                .id(7L)
+                .renter(getUser(userId))
+                .startTime(bookingDto.getStart())
+                .endTime(bookingDto.getEnd())
+                .item(getItem(itemId, itemId))
+                .status(BookingStatus.WAITING)
+                .build();
+        when(createRepository.createBooking(anyLong(), anyLong(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(new BookingCreateResult(BookingCreateResult.Code.CREATED, created));
+        BookingDto result = singleStatementService.createBooking(bookingDto, userId);
+        assertEquals(7L, result.getId());
+        assertEquals(itemId, result.getItem().getId());
+        assertEquals(BookingStatus.WAITING, result.getStatus());
+
+        // Проверки выполняются в одном запросе, без обращений к репозиториям JPA
+        verify(userRepository, never()).findById(anyLong());
+        verify(itemRepository, never()).findById(anyLong());
+        verify(bookingRepository, never()).saveAndFlush(any(Booking.class));
+        verify(bookingOutboxRepository, never()).add(any(Booking.class), any());
+    }
+
+    @Test
+    void createBookings() {
+        Long renterId = getRandomKey();
+        Item free = getItem(1L, itemOwnerId);
+        Item busy = getItem(2L, itemOwnerId);
+        Item unavailable = getItem(3L, itemOwnerId);
+        unavailable.setAvailable(false);
+        Item own = getItem(4L, renterId);
+        when(itemRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(free, busy, unavailable, own));
+        when(bookingRepository.getBusyItemIds(anyCollection(), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of(2L));
+        when(bookingRepository.saveAllAndFlush(anyList())).thenAnswer(arguments -> {
+            List<Booking> bookings = arguments.getArgument(0);
+            bookings.forEach(booking -> booking.setId(booking.getItem().getId() + 10));
+            return bookings;
+        });
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        List<Long> itemIds = List.of(1L, 2L, 3L, 4L, 5L);
+
+        // Без mode корзина создается целиком: при любой ошибке аренды не сохраняются
+        BadRequestException exceptionCart = assertThrows(BadRequestException.class, () ->
+                bookingService.createBookings(renterId, new BookingCartDto(itemIds, start, end, null)));
+        assertEquals("Вещь с id = 2 не доступна для аренды в это время. Вещь с id = 3 не доступна для аренды. " +
+                "Владелец не может арендовать свою вещь. Вещь с id = 5 не существует.", exceptionCart.getMessage());
+        verify(bookingRepository, never()).saveAllAndFlush(anyList());
+
+        // Проверка пересечений одним запросом только для вещей, прошедших остальные проверки
+        List<BookingCartResultDto> results = bookingService.createBookings(renterId,
+                new BookingCartDto(itemIds, start, end, BookingCartMode.BEST_EFFORT));
+        verify(bookingRepository, times(2)).getBusyItemIds(List.of(1L, 2L),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), start, end);
+        assertEquals(itemIds, results.stream().map(BookingCartResultDto::getItemId).toList());
+        assertEquals(11L, results.getFirst().getBooking().getId());
+        assertEquals(BookingStatus.WAITING, results.getFirst().getBooking().getStatus());
+        assertNull(results.getFirst().getError());
+        assertEquals("Вещь с id = 2 не доступна для аренды в это время.", results.get(1).getError());
+        assertNull(results.get(1).getBooking());
+        assertEquals("Вещь с id = 5 не существует.", results.get(4).getError());
+        verify(bookingOutboxRepository, times(1)).addAll(anyList(), isNull());
+
+        // Проверка корзины
+        NotFoundException exceptionUser = assertThrows(NotFoundException.class, () ->
+                bookingService.createBookings(getFakeKey(), new BookingCartDto(List.of(1L), start, end, null)));
+        assertTrue(exceptionUser.getMessage().startsWith("Пользователь с id = "));
+        assertThrows(BadRequestException.class, () ->
+                bookingService.createBookings(renterId, new BookingCartDto(List.of(), start, end, null)));
+        BadRequestException exceptionDuplicate = assertThrows(BadRequestException.class, () ->
+                bookingService.createBookings(renterId, new BookingCartDto(List.of(1L, 1L), start, end, null)));
+        assertEquals("Вещь с id = 1 указана несколько раз.", exceptionDuplicate.getMessage());
+        assertThrows(ValidationException.class, () ->
+                bookingService.createBookings(renterId, new BookingCartDto(List.of(1L), end, start, null)));
     }
 
     @Test
@@ -171,6 +324,29 @@ class BookingServiceTest {
         Boolean approved = Boolean.TRUE;
         Boolean rejected = Boolean.FALSE;
 
+        // Условное обновление меняет только ожидающую аренду доступной вещи владельца
+        AtomicReference<BookingStatus> updatedStatus = new AtomicReference<>();
+        when(bookingRepository.updateStatusIfCurrent(any(BookingStatus.class), anyCollection(),
+                eq(BookingStatus.WAITING), anyLong())).thenAnswer(arguments -> {
+                    Collection<Long> ids = arguments.getArgument(1);
+                    Long bookingId = ids.iterator().next();
+                    Long userId = arguments.getArgument(3);
+                    if (bookingId > maxId || bookingStatus != BookingStatus.WAITING || !userId.equals(itemOwnerId) ||
+                            !isAvailable) {
+                        return 0;
+                    }
+                    updatedStatus.set(arguments.getArgument(0));
+                    return 1;
+                });
+        when(bookingRepository.findAllByIdIn(anyCollection())).thenAnswer(arguments -> {
+            Collection<Long> ids = arguments.getArgument(0);
+            return ids.stream().map(id -> {
+                Booking booking = getBooking(id);
+                booking.setStatus(updatedStatus.get());
+                return booking;
+            }).toList();
+        });
+
         // Проверка получения аренды
         NotFoundException exceptionBooking = assertThrows(NotFoundException.class, () -> {
             bookingService.approveBooking(fakeBookingId, realUserId, approved);
@@ -210,14 +386,80 @@ class BookingServiceTest {
         BookingDto bookingDtoApproved = bookingService.approveBooking(realBookingId, realUserId, approved);
         assertEquals(itemId, bookingDtoApproved.getItem().getId());
         assertEquals(BookingStatus.APPROVED, bookingDtoApproved.getStatus());
-        assertEquals(1L, bookingDtoApproved.getId());
+        assertEquals(realBookingId, bookingDtoApproved.getId());
 
         // Проверка отмены
         BookingDto bookingDtoRejected = bookingService.approveBooking(realBookingId, realUserId, rejected);
         assertEquals(itemId, bookingDtoRejected.getItem().getId());
         assertEquals(BookingStatus.REJECTED, bookingDtoRejected.getStatus());
-        assertEquals(1L, bookingDtoRejected.getId());
+        assertEquals(realBookingId, bookingDtoRejected.getId());
+
+        // Успешное подтверждение не читает аренду до обновления и не сохраняет ее целиком
+        verify(bookingRepository, never()).save(any(Booking.class));
+        verify(bookingOutboxRepository, times(2)).add(any(Booking.class), eq(BookingStatus.WAITING));
+
+    }
+
+    @Test
+    void approveBookings() {
+        Booking waiting1 = getBooking(1L);
+        Booking waiting2 = getBooking(2L);
+        Booking approved = getBooking(3L);
+        approved.setStatus(BookingStatus.APPROVED);
+        Booking foreign = getBooking(4L);
+        foreign.getItem().setOwner(getUser(getRandomKey()));
+        Booking foreignApproved = getBooking(6L);
+        foreignApproved.getItem().setOwner(getUser(getRandomKey()));
+        foreignApproved.setStatus(BookingStatus.APPROVED);
+        when(bookingRepository.findAllByIdIn(anyCollection()))
+                .thenReturn(List.of(waiting1, waiting2, approved, foreign, foreignApproved));
+        when(bookingRepository.updateStatusIfCurrent(any(BookingStatus.class), anyCollection(),
+                eq(BookingStatus.WAITING), eq(itemOwnerId))).thenReturn(1);
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(itemOwnerId, List.of(
+                new BookingDecisionDto(1L, true), new BookingDecisionDto(2L, false), new BookingDecisionDto(3L, true),
+                new BookingDecisionDto(4L, true), new BookingDecisionDto(5L, true),
+                new BookingDecisionDto(6L, true)));
+
+        // Ожидающие аренды меняются двумя условными обновлениями, остальные получают ошибку
+        verify(bookingRepository, times(1)).updateStatusIfCurrent(BookingStatus.APPROVED, List.of(1L),
+                BookingStatus.WAITING, itemOwnerId);
+        verify(bookingRepository, times(1)).updateStatusIfCurrent(BookingStatus.REJECTED, List.of(2L),
+                BookingStatus.WAITING, itemOwnerId);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), results.stream().map(BookingDecisionResultDto::getBookingId).toList());
+        assertEquals(BookingStatus.APPROVED, results.get(0).getStatus());
+        assertEquals(BookingStatus.REJECTED, results.get(1).getStatus());
+        assertEquals("Запрос на аренду с id = 3 уже обработан.", results.get(2).getError());
+        assertEquals("Пользователь с id = " + itemOwnerId + " не имеет доступа.", results.get(3).getError());
+        assertEquals("Запроса на аренду с id = 5 не существует.", results.get(4).getError());
+        // Статус проверяется раньше владельца, как при подтверждении одной аренды
+        assertEquals("Запрос на аренду с id = 6 уже обработан.", results.get(5).getError());
+        assertNull(results.get(0).getError());
+        verify(bookingOutboxRepository, times(1)).addAll(List.of(waiting1, waiting2), BookingStatus.WAITING);
+
+        // Проверка решений
+        assertThrows(BadRequestException.class, () -> bookingService.approveBookings(itemOwnerId, List.of()));
+        BadRequestException exceptionDuplicate = assertThrows(BadRequestException.class, () ->
+                bookingService.approveBookings(itemOwnerId, List.of(new BookingDecisionDto(1L, true),
+                        new BookingDecisionDto(1L, false))));
+        assertEquals("Аренда с id = 1 указана несколько раз.", exceptionDuplicate.getMessage());
+    }
 
+    @Test
+    void approveBookingsProcessedConcurrently() {
+        Booking waiting = getBooking(1L);
+        Booking processed = getBooking(1L);
+        processed.setStatus(BookingStatus.REJECTED);
+        // Между чтением и обновлением аренду отклонил другой запрос
+        when(bookingRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(waiting), List.of(processed));
+        when(bookingRepository.updateStatusIfCurrent(any(BookingStatus.class), anyCollection(),
+                any(BookingStatus.class), anyLong())).thenReturn(0);
+
+        List<BookingDecisionResultDto> results = bookingService.approveBookings(itemOwnerId,
+                List.of(new BookingDecisionDto(1L, true)));
+
+        assertNull(results.getFirst().getStatus());
+        assertEquals("Запрос на аренду с id = 1 уже обработан.", results.getFirst().getError());
     }
 
     @Test
@@ -272,31 +514,32 @@ class BookingServiceTest {
 
         // Проверка ALL
         List<BookingDto> bookingDtosALL = bookingService.getBookings(realUserId, BookingState.ALL);
-        verify(bookingRepository, times(1)).findAllByRenterIdOrderByIdDesc(realUserId);
+        verify(bookingRepository, times(1)).findAllByRenterIdOrderByIdDesc(realUserId,
+                Long.MAX_VALUE, Limit.unlimited());
 
         // Проверка CURRENT
         List<BookingDto> bookingDtosCURRENT = bookingService.getBookings(realUserId, BookingState.CURRENT);
-        verify(bookingRepository, times(1)).getBookingsCurrentForRenter(realUserId);
+        verify(bookingRepository, times(1)).getBookingsCurrentForRenter(realUserId, 0L, Limit.unlimited());
 
         // Проверка PAST
         List<BookingDto> bookingDtosPAST = bookingService.getBookings(realUserId, BookingState.PAST);
         verify(bookingRepository, times(1)).getBookingsPastForRenter(realUserId,
-                BookingStatus.APPROVED);
+                BookingStatus.APPROVED, Long.MAX_VALUE, Limit.unlimited());
 
         // Проверка FUTURE
         List<BookingDto> bookingDtosFUTURE = bookingService.getBookings(realUserId, BookingState.FUTURE);
         verify(bookingRepository, times(1)).getBookingsFutureForRenter(realUserId,
-                BookingStatus.WAITING, BookingStatus.APPROVED);
+                BookingStatus.WAITING, BookingStatus.APPROVED, Long.MAX_VALUE, Limit.unlimited());
 
         // Проверка WAITING
         List<BookingDto> bookingDtosWAITING = bookingService.getBookings(realUserId, BookingState.WAITING);
         verify(bookingRepository, times(1)).getBookingsWaitingForRenter(realUserId,
-                BookingStatus.WAITING);
+                BookingStatus.WAITING, Long.MAX_VALUE, Limit.unlimited());
 
         // Проверка REJECTED
         List<BookingDto> bookingDtosREJECTED = bookingService.getBookings(realUserId, BookingState.REJECTED);
         verify(bookingRepository, times(1)).getBookingsRejectedForRenter(realUserId,
-                BookingStatus.REJECTED);
+                BookingStatus.REJECTED, Long.MAX_VALUE, Limit.unlimited());
     }
 
     @Test
@@ -312,32 +555,82 @@ class BookingServiceTest {
 
         // Проверка ALL
         List<BookingDto> bookingDtosALL = bookingService.getBookingsOwner(realUserId, BookingState.ALL);
-        verify(bookingRepository, times(1)).findAllByOwnerIdOrderByIdDesc(realUserId);
+        verify(bookingRepository, times(1)).findAllByOwnerIdOrderByIdDesc(realUserId,
+                Long.MAX_VALUE, Limit.unlimited());
 
         // Проверка CURRENT
         List<BookingDto> bookingDtosCURRENT = bookingService.getBookingsOwner(realUserId, BookingState.CURRENT);
-        verify(bookingRepository, times(1)).getBookingsCurrentForOwner(realUserId);
+        verify(bookingRepository, times(1)).getBookingsCurrentForOwner(realUserId, 0L, Limit.unlimited());
 
         // Проверка PAST
         List<BookingDto> bookingDtosPAST = bookingService.getBookingsOwner(realUserId, BookingState.PAST);
         verify(bookingRepository, times(1)).getBookingsPastForOwner(realUserId,
-                BookingStatus.APPROVED);
+                BookingStatus.APPROVED, Long.MAX_VALUE, Limit.unlimited());
 
         // Проверка FUTURE
         List<BookingDto> bookingDtosFUTURE = bookingService.getBookingsOwner(realUserId, BookingState.FUTURE);
         verify(bookingRepository, times(1)).getBookingsFutureForOwner(realUserId,
-                BookingStatus.WAITING, BookingStatus.APPROVED);
+                BookingStatus.WAITING, BookingStatus.APPROVED, Long.MAX_VALUE, Limit.unlimited());
 
         // Проверка WAITING
         List<BookingDto> bookingDtosWAITING = bookingService.getBookingsOwner(realUserId, BookingState.WAITING);
         verify(bookingRepository, times(1)).getBookingsWaitingForOwner(realUserId,
-                BookingStatus.WAITING);
+                BookingStatus.WAITING, Long.MAX_VALUE, Limit.unlimited());
 
         // Проверка REJECTED
         List<BookingDto> bookingDtosREJECTED = bookingService.getBookingsOwner(realUserId, BookingState.REJECTED);
         verify(bookingRepository, times(1)).getBookingsRejectedForOwner(realUserId,
-                BookingStatus.REJECTED);
+                BookingStatus.REJECTED, Long.MAX_VALUE, Limit.unlimited());
+
+    }
+
+    @Test
+    void getBookingsPage() {
+        Long realUserId = getRandomKey();
+        List<Booking> bookings = getBookingsWithState(3L, BookingState.ALL);
+        when(bookingRepository.findAllByRenterIdOrderByIdDesc(eq(realUserId), anyLong(), any(Limit.class)))
+                .thenReturn(bookings);
+
+        // Первая страница: запрашивается на одну аренду больше размера страницы
+        KeysetPage<BookingDto> page = bookingService.getBookings(realUserId, BookingState.ALL, 2, null);
+        verify(bookingRepository, times(1)).findAllByRenterIdOrderByIdDesc(realUserId, Long.MAX_VALUE, Limit.of(3));
+        assertEquals(2, page.items().size());
+        assertEquals(KeysetPage.encodeCursor(bookings.get(1).getId()), page.nextCursor());
+
+        // Следующая страница продолжается после id из курсора
+        bookingService.getBookings(realUserId, BookingState.ALL, 2, page.nextCursor());
+        verify(bookingRepository, times(1)).findAllByRenterIdOrderByIdDesc(realUserId, bookings.get(1).getId(),
+                Limit.of(3));
+
+        // CURRENT упорядочен по возрастанию id, первая страница начинается с 0
+        bookingService.getBookingsOwner(realUserId, BookingState.CURRENT, 2, null);
+        verify(bookingRepository, times(1)).getBookingsCurrentForOwner(realUserId, 0L, Limit.of(3));
+
+        // Проверка размера страницы
+        BadRequestException exceptionLimit = assertThrows(BadRequestException.class, () ->
+                bookingService.getBookings(realUserId, BookingState.ALL, 0, null));
+        assertEquals("Размер страницы должен быть от 1 до 100.", exceptionLimit.getMessage());
+    }
+
+    @Test
+    void getBookingCounts() {
+        Long realUserId = getRandomKey();
+        Long fakeUserId = getFakeKey();
+        BookingCountsDto counts = new BookingCountsDto(5L, 1L, 1L, 2L, 1L, 1L);
+        when(bookingRepository.getBookingCountsForRenter(realUserId, BookingStatus.APPROVED, BookingStatus.WAITING,
+                BookingStatus.REJECTED)).thenReturn(counts);
+        when(bookingRepository.getBookingCountsForOwner(realUserId, BookingStatus.APPROVED, BookingStatus.WAITING,
+                BookingStatus.REJECTED)).thenReturn(counts);
+
+        // Проверка пользователя
+        NotFoundException exceptionUser = assertThrows(NotFoundException.class, () ->
+                bookingService.getBookingCounts(fakeUserId));
+        assertEquals("Пользователь с id = " + fakeUserId + " не существует.", exceptionUser.getMessage());
 
+        assertEquals(counts, bookingService.getBookingCounts(realUserId));
+        assertEquals(counts, bookingService.getBookingCountsOwner(realUserId));
+        verify(bookingRepository, times(1)).getBookingCountsForRenter(anyLong(), any(), any(), any());
+        verify(bookingRepository, times(1)).getBookingCountsForOwner(anyLong(), any(), any(), any());
     }
 
     private Long getRandomKey() {
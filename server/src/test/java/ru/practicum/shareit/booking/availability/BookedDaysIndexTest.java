@@ -0,0 +1,128 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingItemIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookedDaysIndexTest {
+
+    private BookingRepository bookingRepository;
+    private BookedDaysIndex index;
+    private LocalDate day;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookedDaysIndex(bookingRepository);
+        day = LocalDate.now().plusDays(10);
+    }
+
+    @Test
+    void loadAndCheck() {
+        when(bookingRepository.getBookingItemIntervals(anyCollection(), any(LocalDateTime.class))).thenReturn(List.of(
+                getIntervalView(1L, 1L, day.atTime(12, 0), day.plusDays(2).atTime(9, 0)),
+                getIntervalView(2L, 2L, day.plusDays(5).atTime(12, 0), day.plusDays(5).atTime(13, 0))));
+
+        index.load();
+
+        // Аренда занимает все дни, которые пересекает, в том числе неполные
+        assertFalse(index.isFree(1L, day.minusDays(3), day));
+        assertFalse(index.isFree(1L, day.plusDays(2), day.plusDays(4)));
+        assertTrue(index.isFree(1L, day.plusDays(3), day.plusDays(30)));
+        assertTrue(index.isFree(2L, day, day.plusDays(4)));
+        assertFalse(index.isFree(2L, day.plusDays(5), day.plusDays(5)));
+        assertTrue(index.isFree(3L, day, day.plusDays(30)));
+    }
+
+    @Test
+    void bookingChanges() {
+        Booking first = getBooking(1L, day, day.plusDays(1));
+        Booking second = getBooking(2L, day.plusDays(1), day.plusDays(3));
+        index.onBookingChanged(new BookingChangedEvent(null, first));
+        index.onBookingChanged(new BookingChangedEvent(null, second));
+        assertFalse(index.isFree(1L, day.plusDays(1), day.plusDays(1)));
+
+        // День, общий с другой арендой, остается занятым после отклонения одной из них
+        first.setStatus(BookingStatus.REJECTED);
+        index.onBookingChanged(new BookingChangedEvent(BookingStatus.WAITING, first));
+        assertTrue(index.isFree(1L, day, day));
+        assertFalse(index.isFree(1L, day.plusDays(1), day.plusDays(1)));
+
+        // Закончившаяся аренда удаляется
+        index.onBookingTransition(new BookingTransitionEvent(BookingTransitionEvent.Type.ENDED, second));
+        assertTrue(index.isFree(1L, day, day.plusDays(3)));
+    }
+
+    @Test
+    void reloadDropsBookingsChangedElsewhere() {
+        index.onBookingChanged(new BookingChangedEvent(null, getBooking(1L, day, day.plusDays(1))));
+        // Аренда отклонена на другом узле: в БД ее уже нет среди ожидающих и подтвержденных
+        when(bookingRepository.getBookingItemIntervals(anyCollection(), any(LocalDateTime.class))).thenReturn(List.of(
+                getIntervalView(2L, 2L, day.atTime(12, 0), day.atTime(13, 0))));
+
+        index.load();
+
+        assertTrue(index.isFree(1L, day, day.plusDays(1)));
+        assertFalse(index.isFree(2L, day, day));
+    }
+
+    @Test
+    void itemsOfDeletedUserAreRemoved() {
+        index.onBookingChanged(new BookingChangedEvent(null, getBooking(1L, day, day.plusDays(1))));
+
+        index.onUserDeleted(new UserDeletedEvent(User.builder().id(1L).build(),
+                List.of(Item.builder().id(1L).build())));
+
+        assertTrue(index.isFree(1L, day, day.plusDays(1)));
+    }
+
+    private Booking getBooking(Long id, LocalDate start, LocalDate end) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(1L).build())
+                .startTime(start.atTime(10, 0))
+                .endTime(end.atTime(10, 0))
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private BookingItemIntervalView getIntervalView(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+        return new BookingItemIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return end;
+            }
+        };
+    }
+}
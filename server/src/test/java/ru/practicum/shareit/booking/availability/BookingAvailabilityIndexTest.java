@@ -0,0 +1,147 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingAvailabilityIndexTest {
+
+    private BookingRepository bookingRepository;
+    private BookingAvailabilityIndex index;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        index = new BookingAvailabilityIndex(bookingRepository, true, 10, Duration.ofMinutes(1));
+        item = Item.builder().id(1L).build();
+        now = LocalDateTime.now();
+        when(bookingRepository.getBookingIntervals(anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of(getIntervalView(1L, now.plusDays(1), now.plusDays(5))));
+    }
+
+    @Test
+    void isAvailableLoadsItemOnce() {
+        when(bookingRepository.availableAtTime(any(Item.class), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(true);
+
+        assertFalse(index.isAvailable(item, now.plusDays(2), now.plusDays(3)));
+        assertTrue(index.isAvailable(item, now.plusDays(6), now.plusDays(7)));
+        assertFalse(index.isAvailable(item, now.plusHours(12), now.plusDays(6)));
+
+        verify(bookingRepository, times(1)).getBookingIntervals(eq(1L), anyCollection(), any(LocalDateTime.class));
+        // Занятое время отклоняется индексом, в БД проверяется только свободное
+        verify(bookingRepository, times(1)).availableAtTime(any(Item.class), anyCollection(),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void freeTimeIsConfirmedInDatabase() {
+        // Аренда, созданная другим узлом, не попала в индекс этого узла
+        when(bookingRepository.availableAtTime(any(Item.class), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(false);
+
+        assertFalse(index.isAvailable(item, now.plusDays(6), now.plusDays(7)));
+    }
+
+    @Test
+    void isAvailableFollowsBookingChanges() {
+        when(bookingRepository.availableAtTime(any(Item.class), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(true);
+        assertTrue(index.isAvailable(item, now.plusDays(6), now.plusDays(7)));
+
+        Booking booking = Booking.builder()
+                .id(2L)
+                .item(item)
+                .startTime(now.plusDays(6))
+                .endTime(now.plusDays(8))
+                .status(BookingStatus.WAITING)
+                .build();
+        index.onBookingChanged(new BookingChangedEvent(null, booking));
+        assertFalse(index.isAvailable(item, now.plusDays(7), now.plusDays(7).plusHours(1)));
+
+        booking.setStatus(BookingStatus.REJECTED);
+        index.onBookingChanged(new BookingChangedEvent(BookingStatus.WAITING, booking));
+        assertTrue(index.isAvailable(item, now.plusDays(7), now.plusDays(7).plusHours(1)));
+    }
+
+    @Test
+    void isAvailableChecksPastInDatabase() {
+        when(bookingRepository.availableAtTime(any(Item.class), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(false);
+
+        // Закончившиеся аренды не загружаются в индекс, поэтому прошлое проверяется в БД
+        assertFalse(index.isAvailable(item, now.minusDays(3), now.minusDays(2)));
+        verify(bookingRepository, times(1)).availableAtTime(any(Item.class), anyCollection(),
+                any(LocalDateTime.class), any(LocalDateTime.class));
+    }
+
+    @Test
+    void staleIntervalsLiveNoLongerThanMaxAge() {
+        // Аренда отклонена на другом узле: после max-age дерево перечитывается и время снова свободно
+        index = new BookingAvailabilityIndex(bookingRepository, true, 10, Duration.ZERO);
+        when(bookingRepository.availableAtTime(any(Item.class), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(true);
+        assertFalse(index.isAvailable(item, now.plusDays(2), now.plusDays(3)));
+        when(bookingRepository.getBookingIntervals(anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        assertTrue(index.isAvailable(item, now.plusDays(2), now.plusDays(3)));
+    }
+
+    @Test
+    void userDeletionDropsLoadedIntervals() {
+        when(bookingRepository.availableAtTime(any(Item.class), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(true);
+        assertFalse(index.isAvailable(item, now.plusDays(2), now.plusDays(3)));
+        // Аренды арендатора удалены каскадом вместе с ним
+        when(bookingRepository.getBookingIntervals(anyLong(), anyCollection(), any(LocalDateTime.class)))
+                .thenReturn(List.of());
+        index.onUserDeleted(new UserDeletedEvent(User.builder().id(2L).build(), List.of()));
+        assertTrue(index.isAvailable(item, now.plusDays(2), now.plusDays(3)));
+    }
+
+    @Test
+    void disabledIndexUsesDatabase() {
+        index = new BookingAvailabilityIndex(bookingRepository, false, 10, Duration.ofMinutes(1));
+        when(bookingRepository.availableAtTime(any(Item.class), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(true);
+
+        assertTrue(index.isAvailable(item, now.plusDays(2), now.plusDays(3)));
+        verify(bookingRepository, never()).getBookingIntervals(anyLong(), anyCollection(), any());
+    }
+
+    private BookingIntervalView getIntervalView(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return bookingId;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingIntervalTreeTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void overlaps() {
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.add(1L, hour(10), hour(20));
+        tree.add(2L, hour(30), hour(40));
+
+        assertFalse(tree.overlaps(hour(0), hour(9)));
+        assertFalse(tree.overlaps(hour(21), hour(29)));
+        assertFalse(tree.overlaps(hour(41), hour(50)));
+        // Границы интервалов включаются
+        assertTrue(tree.overlaps(hour(0), hour(10)));
+        assertTrue(tree.overlaps(hour(40), hour(50)));
+        // Новый интервал внутри существующего и существующий внутри нового
+        assertTrue(tree.overlaps(hour(12), hour(14)));
+        assertTrue(tree.overlaps(hour(25), hour(45)));
+
+        tree.remove(1L);
+        assertFalse(tree.overlaps(hour(12), hour(14)));
+        assertEquals(1, tree.size());
+
+        // Повторное добавление аренды заменяет ее интервал
+        tree.add(2L, hour(50), hour(60));
+        assertFalse(tree.overlaps(hour(30), hour(40)));
+        assertEquals(1, tree.size());
+    }
+
+    @Test
+    void overlapsMatchesFullScan() {
+        Random random = new Random(42);
+        BookingIntervalTree tree = new BookingIntervalTree();
+        Map<Long, long[]> intervals = new HashMap<>();
+
+        for (int step = 0; step < 5000; step++) {
+            long bookingId = random.nextInt(300);
+            if (random.nextInt(4) == 0) {
+                tree.remove(bookingId);
+                intervals.remove(bookingId);
+            } else {
+                long start = random.nextInt(10_000);
+                long end = start + random.nextInt(200);
+                tree.add(bookingId, hour(start), hour(end));
+                intervals.put(bookingId, new long[]{start, end});
+            }
+
+            long from = random.nextInt(10_000);
+            long to = from + random.nextInt(100);
+            boolean expected = intervals.values().stream().anyMatch(i -> i[0] <= to && i[1] >= from);
+            assertEquals(expected, tree.overlaps(hour(from), hour(to)));
+            assertEquals(intervals.size(), tree.size());
+        }
+    }
+
+    private LocalDateTime hour(long hours) {
+        return base.plusHours(hours);
+    }
+}
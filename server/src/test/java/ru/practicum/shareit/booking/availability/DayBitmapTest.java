@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DayBitmapTest {
+
+    @Test
+    void intersects() {
+        DayBitmap bitmap = new DayBitmap();
+        assertFalse(bitmap.intersects(0, 1000));
+
+        bitmap.set(100, 102);
+        assertTrue(bitmap.intersects(102, 110));
+        assertTrue(bitmap.intersects(90, 100));
+        assertFalse(bitmap.intersects(103, 200));
+        assertFalse(bitmap.intersects(0, 99));
+
+        // Диапазон через границы слов и расширение карты в обе стороны
+        bitmap.set(60, 70);
+        bitmap.set(500, 700);
+        assertTrue(bitmap.intersects(63, 64));
+        assertFalse(bitmap.intersects(71, 99));
+        assertFalse(bitmap.intersects(103, 499));
+        assertTrue(bitmap.intersects(650, 10000));
+        assertFalse(bitmap.intersects(701, 10000));
+    }
+
+    @Test
+    void negativeDaysAndClear() {
+        DayBitmap bitmap = new DayBitmap();
+        bitmap.set(-3, -1);
+        assertTrue(bitmap.intersects(-1, 5));
+        assertFalse(bitmap.intersects(0, 5));
+
+        bitmap.clear();
+        assertFalse(bitmap.intersects(-100, 100));
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.availability;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FreeIntervalsTest {
+
+    private final LocalDateTime base = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void between() {
+        // Аренды пересекаются, одна вложена в другую, последняя выходит за период
+        List<BookingIntervalView> bookings = List.of(
+                getIntervalView(1L, hour(10), hour(20)),
+                getIntervalView(2L, hour(15), hour(30)),
+                getIntervalView(3L, hour(16), hour(18)),
+                getIntervalView(4L, hour(40), hour(50)),
+                getIntervalView(5L, hour(90), hour(120)));
+
+        List<TimeIntervalDto> free = FreeIntervals.between(hour(0), hour(100), bookings);
+
+        assertEquals(List.of(
+                new TimeIntervalDto(hour(0), hour(10)),
+                new TimeIntervalDto(hour(30), hour(40)),
+                new TimeIntervalDto(hour(50), hour(90))), free);
+    }
+
+    @Test
+    void betweenBookingsCoveringEdges() {
+        // Аренды начинаются до периода и заканчиваются после него
+        List<BookingIntervalView> bookings = List.of(
+                getIntervalView(1L, hour(-10), hour(5)),
+                getIntervalView(2L, hour(5), hour(8)),
+                getIntervalView(3L, hour(95), hour(110)));
+
+        assertEquals(List.of(new TimeIntervalDto(hour(8), hour(95))),
+                FreeIntervals.between(hour(0), hour(100), bookings));
+        assertEquals(List.of(), FreeIntervals.between(hour(0), hour(100),
+                List.of(getIntervalView(1L, hour(-1), hour(101)))));
+        assertEquals(List.of(new TimeIntervalDto(hour(0), hour(100))),
+                FreeIntervals.between(hour(0), hour(100), List.of()));
+    }
+
+    private LocalDateTime hour(int hours) {
+        return base.plusHours(hours);
+    }
+
+    private BookingIntervalView getIntervalView(Long bookingId, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return bookingId;
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return end;
+            }
+        };
+    }
+}
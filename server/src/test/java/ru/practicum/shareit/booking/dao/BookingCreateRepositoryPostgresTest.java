@@ -0,0 +1,109 @@
+package ru.practicum.shareit.booking.dao;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Нужна запущенная PostgreSQL из профиля postgres: mvn test -Dshareit.test.postgres=true
+@SpringBootTest(properties = {
+        "shareit.booking.timer.enabled=false",
+        "shareit.booking.outbox.enabled=false",
+        "shareit.booking.create-mode=single-statement"
+})
+@ActiveProfiles("postgres")
+@EnabledIfSystemProperty(named = "shareit.test.postgres", matches = "true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingCreateRepositoryPostgresTest {
+
+    private final BookingCreateRepository createRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createBookingInsertsBookingAndOutboxEvent() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(getItem(owner, true));
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+        BookingCreateResult result = createRepository.createBooking(renter.getId(), item.getId(), start,
+                start.plusDays(2));
+        assertEquals(BookingCreateResult.Code.CREATED, result.code());
+        Booking booking = result.booking();
+        assertEquals(renter.getName(), booking.getRenter().getName());
+        assertEquals(renter.getEmail(), booking.getRenter().getEmail());
+        assertEquals(item.getName(), booking.getItem().getName());
+        assertEquals(owner.getId(), booking.getItem().getOwner().getId());
+        assertNull(booking.getItem().getRequest());
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+
+        assertEquals(start, jdbcTemplate.queryForObject("select start_time from booking where id = ?",
+                LocalDateTime.class, booking.getId()));
+        assertEquals(BookingStatus.WAITING.getId(), jdbcTemplate.queryForObject(
+                "select status from booking_outbox where booking_id = ? and previous_status is null",
+                Long.class, booking.getId()));
+    }
+
+    @Test
+    void createBookingReportsFailedCheckWithoutInsert() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(getItem(owner, true));
+        Item unavailable = itemRepository.save(getItem(owner, false));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+        assertEquals(BookingCreateResult.Code.CREATED,
+                createRepository.createBooking(renter.getId(), item.getId(), start, end).code());
+
+        assertEquals(BookingCreateResult.Code.RENTER_NOT_FOUND,
+                createRepository.createBooking(renter.getId() + 100, item.getId(), start, end).code());
+        assertEquals(BookingCreateResult.Code.ITEM_NOT_FOUND,
+                createRepository.createBooking(renter.getId(), item.getId() + 100, start, end).code());
+        assertEquals(BookingCreateResult.Code.ITEM_NOT_AVAILABLE,
+                createRepository.createBooking(renter.getId(), unavailable.getId(), start, end).code());
+        assertEquals(BookingCreateResult.Code.OWNER_BOOKING,
+                createRepository.createBooking(owner.getId(), item.getId(), start, end).code());
+        // Интервалы замкнутые: аренда, начинающаяся в момент конца другой, пересекается с ней
+        assertEquals(BookingCreateResult.Code.TIME_NOT_AVAILABLE,
+                createRepository.createBooking(renter.getId(), item.getId(), end, end.plusDays(1)).code());
+        BookingCreateResult result = createRepository.createBooking(renter.getId(), item.getId(),
+                end.plusSeconds(1), end.plusDays(1));
+        assertEquals(BookingCreateResult.Code.CREATED, result.code());
+
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from booking", Integer.class));
+        assertEquals(2, jdbcTemplate.queryForObject("select count(*) from booking_outbox", Integer.class));
+    }
+
+    private Item getItem(User owner, boolean available) {
+        return Item.builder()
+                .name("name")
+                .description("description")
+                .available(available)
+                .owner(owner)
+                .build();
+    }
+
+    private User getUser(Long userId) {
+        return User.builder()
+                .name("name" + userId)
+                .email("email" + userId + "@email.com")
+                .build();
+    }
+}
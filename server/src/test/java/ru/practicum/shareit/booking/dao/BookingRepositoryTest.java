@@ -4,7 +4,12 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCountsDto;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingItemIntervalView;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dao.ItemRepository;
@@ -12,8 +17,13 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -49,7 +59,8 @@ class BookingRepositoryTest {
         bookingRepository.save(booking3);
         bookingRepository.save(booking4);
 
-        List<Booking> bookings = bookingRepository.findAllByRenterIdOrderByIdDesc(user3.getId());
+        List<Booking> bookings = bookingRepository.findAllByRenterIdOrderByIdDesc(user3.getId(),
+                Long.MAX_VALUE, Limit.unlimited());
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getRenter().getId().equals(user3.getId())));
         assertTrue(bookings.get(0).getId() > bookings.get(1).getId());
@@ -66,7 +77,8 @@ class BookingRepositoryTest {
         Booking booking1 = bookingRepository.save(getBooking(1L, renter, item1, BookingStatus.APPROVED));
         Booking booking2 = bookingRepository.save(getBooking(2L, renter, item2, BookingStatus.APPROVED));
 
-        List<Booking> bookings = bookingRepository.findAllByOwnerIdOrderByIdDesc(owner.getId());
+        List<Booking> bookings = bookingRepository.findAllByOwnerIdOrderByIdDesc(owner.getId(),
+                Long.MAX_VALUE, Limit.unlimited());
         assertEquals(2, bookings.size());
         assertEquals(booking2.getId(), bookings.get(0).getId());
         assertEquals(booking1.getId(), bookings.get(1).getId());
@@ -96,7 +108,7 @@ class BookingRepositoryTest {
         bookingRepository.save(booking2);
         bookingRepository.save(booking3);
 
-        List<Booking> bookings = bookingRepository.getBookingsCurrentForRenter(renter.getId());
+        List<Booking> bookings = bookingRepository.getBookingsCurrentForRenter(renter.getId(), 0L, Limit.unlimited());
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getRenter().getId().equals(renter.getId())));
@@ -130,7 +142,8 @@ class BookingRepositoryTest {
         bookingRepository.save(booking3);
         bookingRepository.save(booking4);
 
-        List<Booking> bookings = bookingRepository.getBookingsPastForRenter(renter.getId(), BookingStatus.APPROVED);
+        List<Booking> bookings = bookingRepository.getBookingsPastForRenter(renter.getId(), BookingStatus.APPROVED,
+                Long.MAX_VALUE, Limit.unlimited());
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getRenter().getId().equals(renter.getId())));
@@ -166,7 +179,7 @@ class BookingRepositoryTest {
         bookingRepository.save(booking4);
 
         List<Booking> bookings = bookingRepository.getBookingsFutureForRenter(renter.getId(), BookingStatus.WAITING,
-                BookingStatus.APPROVED);
+                BookingStatus.APPROVED, Long.MAX_VALUE, Limit.unlimited());
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getRenter().getId().equals(renter.getId())));
@@ -201,7 +214,8 @@ class BookingRepositoryTest {
         bookingRepository.save(booking3);
         bookingRepository.save(booking4);
 
-        List<Booking> bookings = bookingRepository.getBookingsWaitingForRenter(renter.getId(), BookingStatus.WAITING);
+        List<Booking> bookings = bookingRepository.getBookingsWaitingForRenter(renter.getId(), BookingStatus.WAITING,
+                Long.MAX_VALUE, Limit.unlimited());
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getRenter().getId().equals(renter.getId())));
@@ -235,7 +249,8 @@ class BookingRepositoryTest {
         bookingRepository.save(booking3);
         bookingRepository.save(booking4);
 
-        List<Booking> bookings = bookingRepository.getBookingsRejectedForRenter(renter.getId(), BookingStatus.REJECTED);
+        List<Booking> bookings = bookingRepository.getBookingsRejectedForRenter(renter.getId(), BookingStatus.REJECTED,
+                Long.MAX_VALUE, Limit.unlimited());
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getRenter().getId().equals(renter.getId())));
@@ -265,7 +280,7 @@ class BookingRepositoryTest {
         bookingRepository.save(booking2);
         bookingRepository.save(booking3);
 
-        List<Booking> bookings = bookingRepository.getBookingsCurrentForOwner(owner.getId());
+        List<Booking> bookings = bookingRepository.getBookingsCurrentForOwner(owner.getId(), 0L, Limit.unlimited());
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getItem().getOwner().getId().equals(owner.getId())));
@@ -299,7 +314,8 @@ class BookingRepositoryTest {
         bookingRepository.save(booking3);
         bookingRepository.save(booking4);
 
-        List<Booking> bookings = bookingRepository.getBookingsPastForOwner(owner.getId(), BookingStatus.APPROVED);
+        List<Booking> bookings = bookingRepository.getBookingsPastForOwner(owner.getId(), BookingStatus.APPROVED,
+                Long.MAX_VALUE, Limit.unlimited());
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getItem().getOwner().getId().equals(owner.getId())));
@@ -335,7 +351,7 @@ class BookingRepositoryTest {
         bookingRepository.save(booking4);
 
         List<Booking> bookings = bookingRepository.getBookingsFutureForOwner(owner.getId(), BookingStatus.WAITING,
-                BookingStatus.APPROVED);
+                BookingStatus.APPROVED, Long.MAX_VALUE, Limit.unlimited());
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getItem().getOwner().getId().equals(owner.getId())));
@@ -370,7 +386,8 @@ class BookingRepositoryTest {
         bookingRepository.save(booking3);
         bookingRepository.save(booking4);
 
-        List<Booking> bookings = bookingRepository.getBookingsWaitingForOwner(owner.getId(), BookingStatus.WAITING);
+        List<Booking> bookings = bookingRepository.getBookingsWaitingForOwner(owner.getId(), BookingStatus.WAITING,
+                Long.MAX_VALUE, Limit.unlimited());
 
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getItem().getOwner().getId().equals(owner.getId())));
@@ -404,13 +421,167 @@ class BookingRepositoryTest {
         bookingRepository.save(booking3);
         bookingRepository.save(booking4);
 
-        List<Booking> bookings = bookingRepository.getBookingsRejectedForOwner(owner.getId(), BookingStatus.REJECTED);
+        List<Booking> bookings = bookingRepository.getBookingsRejectedForOwner(owner.getId(), BookingStatus.REJECTED,
+                Long.MAX_VALUE, Limit.unlimited());
         assertEquals(2, bookings.size());
         assertTrue(bookings.stream().allMatch(booking -> booking.getItem().getOwner().getId().equals(owner.getId())));
         assertTrue(bookings.get(0).getId() > bookings.get(1).getId());
         assertTrue(bookings.stream().allMatch(b -> b.getStatus().equals(BookingStatus.REJECTED)));
     }
 
+    @Test
+    void findAllByRenterIdOrderByIdDescKeyset() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(getItem(1L, owner));
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED)).getId());
+        }
+
+        List<Booking> firstPage = bookingRepository.findAllByRenterIdOrderByIdDesc(renter.getId(), Long.MAX_VALUE,
+                Limit.of(2));
+        assertEquals(List.of(ids.get(4), ids.get(3)), firstPage.stream().map(Booking::getId).toList());
+
+        List<Booking> lastPage = bookingRepository.findAllByRenterIdOrderByIdDesc(renter.getId(), ids.get(1),
+                Limit.of(2));
+        assertEquals(List.of(ids.get(0)), lastPage.stream().map(Booking::getId).toList());
+    }
+
+    @Test
+    void getBookingsCurrentForOwnerKeyset() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>();
+        for (long i = 1; i <= 3; i++) {
+            Item item = itemRepository.save(getItem(i, owner));
+            ids.add(bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED,
+                    now.minusHours(i), now.plusHours(i))).getId());
+        }
+
+        List<Booking> firstPage = bookingRepository.getBookingsCurrentForOwner(owner.getId(), 0L, Limit.of(2));
+        assertEquals(List.of(ids.get(0), ids.get(1)), firstPage.stream().map(Booking::getId).toList());
+
+        List<Booking> lastPage = bookingRepository.getBookingsCurrentForOwner(owner.getId(), ids.get(1), Limit.of(2));
+        assertEquals(List.of(ids.get(2)), lastPage.stream().map(Booking::getId).toList());
+    }
+
+    @Test
+    void getBookingCounts() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        User otherRenter = userRepository.save(getUser(3L));
+        Item item = itemRepository.save(getItem(1L, owner));
+
+        LocalDateTime now = LocalDateTime.now();
+        // Текущая, завершенная, две будущие (ожидающая и подтвержденная) и отклоненная будущая
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED, now.minusHours(1), now.plusHours(1)));
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED, now.minusDays(3), now.minusDays(2)));
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.WAITING, now.plusDays(1), now.plusDays(2)));
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED, now.plusDays(3), now.plusDays(4)));
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.REJECTED, now.plusDays(5), now.plusDays(6)));
+        bookingRepository.save(getBooking(null, otherRenter, item, BookingStatus.WAITING, now.plusDays(7),
+                now.plusDays(8)));
+
+        BookingCountsDto renterCounts = bookingRepository.getBookingCountsForRenter(renter.getId(),
+                BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED);
+        assertEquals(new BookingCountsDto(5L, 1L, 1L, 2L, 1L, 1L), renterCounts);
+
+        BookingCountsDto ownerCounts = bookingRepository.getBookingCountsForOwner(owner.getId(),
+                BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED);
+        assertEquals(new BookingCountsDto(6L, 1L, 1L, 3L, 2L, 1L), ownerCounts);
+
+        BookingCountsDto emptyCounts = bookingRepository.getBookingCountsForRenter(owner.getId(),
+                BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED);
+        assertEquals(new BookingCountsDto(0L, 0L, 0L, 0L, 0L, 0L), emptyCounts);
+    }
+
+    @Test
+    void updateStatusIfCurrent() {
+        User owner = userRepository.save(getUser(1L));
+        User otherOwner = userRepository.save(getUser(2L));
+        User renter = userRepository.save(getUser(3L));
+        Item item = itemRepository.save(getItem(1L, owner));
+        Item otherItem = itemRepository.save(getItem(2L, otherOwner));
+
+        Booking waiting = bookingRepository.save(getBooking(null, renter, item, BookingStatus.WAITING));
+        Booking rejected = bookingRepository.save(getBooking(null, renter, item, BookingStatus.REJECTED));
+        Booking foreign = bookingRepository.save(getBooking(null, renter, otherItem, BookingStatus.WAITING));
+        Item unavailableItem = getItem(3L, owner);
+        unavailableItem.setAvailable(false);
+        itemRepository.save(unavailableItem);
+        Booking unavailable = bookingRepository.save(getBooking(null, renter, unavailableItem, BookingStatus.WAITING));
+        List<Long> ids = List.of(waiting.getId(), rejected.getId(), foreign.getId(), unavailable.getId());
+
+        // Меняется только ожидающая аренда доступной вещи владельца
+        int updated = bookingRepository.updateStatusIfCurrent(BookingStatus.APPROVED, ids, BookingStatus.WAITING,
+                owner.getId());
+        assertEquals(1, updated);
+
+        Map<Long, BookingStatus> statuses = bookingRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Booking::getStatus));
+        assertEquals(BookingStatus.APPROVED, statuses.get(waiting.getId()));
+        assertEquals(BookingStatus.REJECTED, statuses.get(rejected.getId()));
+        assertEquals(BookingStatus.WAITING, statuses.get(foreign.getId()));
+        assertEquals(BookingStatus.WAITING, statuses.get(unavailable.getId()));
+    }
+
+    @Test
+    void updateStatusIfStarted() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(getItem(1L, owner));
+        LocalDateTime now = LocalDateTime.now();
+
+        Booking started = bookingRepository.save(getBooking(null, renter, item, BookingStatus.WAITING,
+                now.minusHours(2), now.minusHours(1)));
+        Booking future = bookingRepository.save(getBooking(null, renter, item, BookingStatus.WAITING,
+                now.plusHours(1), now.plusHours(2)));
+        Booking approved = bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED,
+                now.minusDays(2), now.plusDays(1)));
+        Booking finished = bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED,
+                now.minusDays(3), now.minusDays(2)));
+        List<Long> ids = List.of(started.getId(), future.getId(), approved.getId(), finished.getId());
+
+        // Для таймеров загружаются ожидающие аренды и незакончившиеся подтвержденные
+        List<Long> timerIds = bookingRepository.getBookingTimers(BookingStatus.WAITING, BookingStatus.APPROVED, now)
+                .stream().map(BookingIntervalView::getId).sorted().toList();
+        assertEquals(List.of(started.getId(), future.getId(), approved.getId()), timerIds);
+
+        // Отклоняется только ожидающая аренда, время начала которой прошло
+        int updated = bookingRepository.updateStatusIfStarted(BookingStatus.REJECTED, ids, BookingStatus.WAITING, now);
+        assertEquals(1, updated);
+
+        Map<Long, BookingStatus> statuses = bookingRepository.findAllByIdIn(ids).stream()
+                .collect(Collectors.toMap(Booking::getId, Booking::getStatus));
+        assertEquals(BookingStatus.REJECTED, statuses.get(started.getId()));
+        assertEquals(BookingStatus.WAITING, statuses.get(future.getId()));
+        assertEquals(BookingStatus.APPROVED, statuses.get(approved.getId()));
+    }
+
+    @Test
+    void getBookingItemIntervals() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(getItem(1L, owner));
+        LocalDateTime now = LocalDateTime.now();
+
+        Booking active = bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED,
+                now.plusDays(1), now.plusDays(2)));
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.REJECTED, now.plusDays(3), now.plusDays(4)));
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED, now.minusDays(3),
+                now.minusDays(2)));
+
+        List<BookingItemIntervalView> intervals = bookingRepository.getBookingItemIntervals(
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now);
+        assertEquals(1, intervals.size());
+        assertEquals(active.getId(), intervals.getFirst().getId());
+        assertEquals(item.getId(), intervals.getFirst().getItemId());
+    }
+
     @Test
     void availableAtTime() {
         User owner = getUser(1L);
@@ -425,10 +596,86 @@ class BookingRepositoryTest {
         Booking booking = getBooking(null, renter, item, BookingStatus.APPROVED, now.plusDays(1), now.plusDays(2));
         bookingRepository.save(booking);
 
-        boolean isAvailable1 = bookingRepository.availableAtTime(item, BookingStatus.APPROVED, now.plusDays(3), now.plusDays(4));
+        List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        boolean isAvailable1 = bookingRepository.availableAtTime(item, statuses, now.plusDays(3), now.plusDays(4));
         assertTrue(isAvailable1);
-        boolean isAvailable2 = bookingRepository.availableAtTime(item, BookingStatus.APPROVED, now.plusDays(1), now.plusDays(2));
+        boolean isAvailable2 = bookingRepository.availableAtTime(item, statuses, now.plusDays(1), now.plusDays(2));
         assertFalse(isAvailable2);
+        // Интервал целиком внутри существующей аренды
+        boolean isAvailable3 = bookingRepository.availableAtTime(item, statuses, now.plusHours(30), now.plusHours(40));
+        assertFalse(isAvailable3);
+        // Интервал целиком содержит существующую аренду
+        boolean isAvailable4 = bookingRepository.availableAtTime(item, statuses, now, now.plusDays(3));
+        assertFalse(isAvailable4);
+        // Отклоненные аренды не учитываются
+        boolean isAvailable5 = bookingRepository.availableAtTime(item, List.of(BookingStatus.REJECTED), now,
+                now.plusDays(3));
+        assertTrue(isAvailable5);
+    }
+
+    @Test
+    void getBookingIntervalsInPeriod() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(getItem(null, owner));
+
+        LocalDateTime from = LocalDateTime.now().plusDays(10);
+        LocalDateTime to = from.plusDays(10);
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED, from.minusDays(5), from.minusDays(1)));
+        Booking last = bookingRepository.save(getBooking(null, renter, item, BookingStatus.WAITING,
+                to.minusDays(1), to.plusDays(1)));
+        Booking first = bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED,
+                from.minusDays(1), from.plusDays(1)));
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.REJECTED, from.plusDays(2), from.plusDays(3)));
+
+        List<BookingIntervalView> intervals = bookingRepository.getBookingIntervals(item.getId(),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), from, to);
+        assertEquals(List.of(first.getId(), last.getId()), intervals.stream().map(BookingIntervalView::getId).toList());
+    }
+
+    @Test
+    void getBusyItemIds() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item free = itemRepository.save(getItem(null, owner));
+        Item busy = itemRepository.save(getItem(null, owner));
+        Item containing = itemRepository.save(getItem(null, owner));
+        Item rejected = itemRepository.save(getItem(null, owner));
+
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        LocalDateTime end = start.plusDays(2);
+        bookingRepository.save(getBooking(null, renter, free, BookingStatus.APPROVED, end.plusDays(1), end.plusDays(2)));
+        bookingRepository.save(getBooking(null, renter, busy, BookingStatus.WAITING, start.minusDays(1), start.plusDays(1)));
+        bookingRepository.save(getBooking(null, renter, busy, BookingStatus.APPROVED, end.minusDays(1), end.plusDays(1)));
+        bookingRepository.save(getBooking(null, renter, containing, BookingStatus.APPROVED, start.minusDays(1),
+                end.plusDays(1)));
+        bookingRepository.save(getBooking(null, renter, rejected, BookingStatus.REJECTED, start, end));
+
+        List<Long> busyIds = bookingRepository.getBusyItemIds(
+                List.of(free.getId(), busy.getId(), containing.getId(), rejected.getId()),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), start, end);
+        assertEquals(List.of(busy.getId(), containing.getId()), busyIds.stream().sorted().toList());
+    }
+
+    @Test
+    void getBookingIntervals() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(getItem(null, owner));
+
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED, now.minusDays(3), now.minusDays(2)));
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.REJECTED, now.plusDays(1), now.plusDays(2)));
+        Booking current = bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED,
+                now.minusDays(1), now.plusDays(1)));
+        Booking future = bookingRepository.save(getBooking(null, renter, item, BookingStatus.WAITING,
+                now.plusDays(3), now.plusDays(4)));
+
+        List<BookingIntervalView> intervals = bookingRepository.getBookingIntervals(item.getId(),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), now);
+        assertEquals(List.of(current.getId(), future.getId()),
+                intervals.stream().map(BookingIntervalView::getId).sorted().toList());
+        assertTrue(intervals.stream().allMatch(interval -> interval.getEndTime().isAfter(now)));
     }
 
     @Test
@@ -482,6 +729,85 @@ class BookingRepositoryTest {
         assertTrue(nextBooking.getStartTime().isAfter(now));
     }
 
+    @Test
+    void getLastBookings() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        User stranger = userRepository.save(getUser(3L));
+
+        Item item1 = itemRepository.save(getItem(null, owner));
+        Item item2 = itemRepository.save(getItem(null, owner));
+        Item item3 = itemRepository.save(getItem(null, owner));
+        Item strangerItem = itemRepository.save(getItem(null, stranger));
+
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(getBooking(null, renter, item1, BookingStatus.APPROVED, now.minusDays(5), now.minusDays(4)));
+        Booking last1 = bookingRepository.save(getBooking(null, renter, item1, BookingStatus.APPROVED,
+                now.minusDays(3), now.minusDays(2)));
+        bookingRepository.save(getBooking(null, renter, item1, BookingStatus.APPROVED, now.plusDays(1), now.plusDays(2)));
+        Booking last2 = bookingRepository.save(getBooking(null, renter, item2, BookingStatus.WAITING,
+                now.minusDays(1), now.plusDays(1)));
+        bookingRepository.save(getBooking(null, renter, item3, BookingStatus.APPROVED, now.plusDays(1), now.plusDays(2)));
+        bookingRepository.save(getBooking(null, renter, strangerItem, BookingStatus.APPROVED,
+                now.minusDays(3), now.minusDays(2)));
+
+        Map<Long, BookingForItemView> lastBookings = bookingRepository.getLastBookings(owner.getId(),
+                        List.of(item1.getId(), item2.getId(), item3.getId(), strangerItem.getId())).stream()
+                .collect(Collectors.toMap(BookingForItemView::getItemId, Function.identity()));
+        assertEquals(2, lastBookings.size());
+        assertEquals(last1.getId(), lastBookings.get(item1.getId()).getId());
+        assertEquals(renter.getId(), lastBookings.get(item1.getId()).getBookerId());
+        assertEquals(last2.getId(), lastBookings.get(item2.getId()).getId());
+        assertFalse(lastBookings.containsKey(item3.getId()));
+        assertFalse(lastBookings.containsKey(strangerItem.getId()));
+    }
+
+    @Test
+    void getNextBookings() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+
+        Item item1 = itemRepository.save(getItem(null, owner));
+        Item item2 = itemRepository.save(getItem(null, owner));
+        Item item3 = itemRepository.save(getItem(null, owner));
+
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(getBooking(null, renter, item1, BookingStatus.APPROVED, now.minusDays(5), now.minusDays(4)));
+        Booking next1 = bookingRepository.save(getBooking(null, renter, item1, BookingStatus.APPROVED,
+                now.plusDays(1), now.plusDays(2)));
+        bookingRepository.save(getBooking(null, renter, item1, BookingStatus.APPROVED, now.plusDays(3), now.plusDays(4)));
+        bookingRepository.save(getBooking(null, renter, item2, BookingStatus.REJECTED, now.plusDays(1), now.plusDays(2)));
+        Booking next2 = bookingRepository.save(getBooking(null, renter, item2, BookingStatus.APPROVED,
+                now.plusDays(3), now.plusDays(4)));
+        bookingRepository.save(getBooking(null, renter, item3, BookingStatus.WAITING, now.plusDays(1), now.plusDays(2)));
+
+        Map<Long, BookingForItemView> nextBookings = bookingRepository.getNextBookings(owner.getId(),
+                        List.of(item1.getId(), item2.getId(), item3.getId()), BookingStatus.APPROVED.getId()).stream()
+                .collect(Collectors.toMap(BookingForItemView::getItemId, Function.identity()));
+        assertEquals(2, nextBookings.size());
+        assertEquals(next1.getId(), nextBookings.get(item1.getId()).getId());
+        assertEquals(next2.getId(), nextBookings.get(item2.getId()).getId());
+        assertFalse(nextBookings.containsKey(item3.getId()));
+    }
+
+    @Test
+    void getNearestBookingStart() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(getItem(null, owner));
+        assertNull(bookingRepository.getNearestBookingStart(item.getId()));
+
+        LocalDateTime now = LocalDateTime.now();
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED, now.minusDays(5), now.minusDays(4)));
+        bookingRepository.save(getBooking(null, renter, item, BookingStatus.APPROVED, now.plusDays(3), now.plusDays(4)));
+        Booking nearest = bookingRepository.save(getBooking(null, renter, item, BookingStatus.WAITING,
+                now.plusDays(1), now.plusDays(2)));
+
+        LocalDateTime nearestStart = bookingRepository.getNearestBookingStart(item.getId());
+        assertNotNull(nearestStart);
+        assertTrue(Duration.between(nearest.getStartTime(), nearestStart).abs().toMillis() < 1);
+    }
+
     @Test
     void isUserContainsCompletedBookingForItem() {
         User owner = getUser(1L);
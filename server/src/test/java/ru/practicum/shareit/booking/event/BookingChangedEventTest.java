@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingChangedEventTest {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingAvailabilityIndex availabilityIndex;
+
+    @Test
+    void listenersIgnoreEventsOfRolledBackTransaction() {
+        Item item = Item.builder().id(1L).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        Booking booking = Booking.builder()
+                .id(1L)
+                .item(item)
+                .startTime(start)
+                .endTime(end)
+                .status(BookingStatus.WAITING)
+                .build();
+        // Дерево вещи загружается в индекс до события
+        assertTrue(availabilityIndex.isAvailable(item, start, end));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new BookingChangedEvent(null, booking));
+            status.setRollbackOnly();
+        });
+        assertTrue(availabilityIndex.isAvailable(item, start, end));
+
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(new BookingChangedEvent(null, booking)));
+        // Аренды в БД нет, отказ означает, что индекс получил событие после фиксации
+        assertFalse(availabilityIndex.isAvailable(item, start, end));
+    }
+}
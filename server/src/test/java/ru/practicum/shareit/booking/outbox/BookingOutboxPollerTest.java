@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(properties = "shareit.booking.outbox.batch-size=2")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingOutboxPollerTest {
+
+    private final BookingOutboxRepository outboxRepository;
+    private final BookingOutboxPoller poller;
+    private final JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private BookingOutboxListener listener;
+
+    @Test
+    void deliverAll() {
+        outboxRepository.add(getBooking(1L, BookingStatus.WAITING), null);
+        outboxRepository.addAll(List.of(getBooking(1L, BookingStatus.APPROVED),
+                getBooking(2L, BookingStatus.REJECTED)), BookingStatus.WAITING);
+
+        // Три события доставляются двумя пачками в порядке записи и удаляются
+        assertEquals(3, poller.deliverAll());
+        ArgumentCaptor<BookingOutboxEvent> events = ArgumentCaptor.forClass(BookingOutboxEvent.class);
+        verify(listener, times(3)).onBookingEvent(events.capture());
+        assertEquals(List.of(1L, 1L, 2L), events.getAllValues().stream().map(BookingOutboxEvent::bookingId).toList());
+        assertNull(events.getAllValues().get(0).previousStatus());
+        assertEquals(BookingStatus.WAITING, events.getAllValues().get(1).previousStatus());
+        assertEquals(BookingStatus.APPROVED, events.getAllValues().get(1).status());
+        assertEquals(20L, events.getAllValues().get(2).itemId());
+        assertEquals(0, countEvents());
+
+        assertEquals(0, poller.deliverAll());
+    }
+
+    @Test
+    void deliverAllRetriesFailedBatch() {
+        outboxRepository.add(getBooking(1L, BookingStatus.WAITING), null);
+        doThrow(new IllegalStateException("недоступен")).doNothing().when(listener).onBookingEvent(any());
+
+        // После ошибки получателя событие остается в таблице и доставляется повторно
+        assertThrows(IllegalStateException.class, poller::deliverAll);
+        assertEquals(1, countEvents());
+        assertEquals(1, poller.deliverAll());
+        verify(listener, times(2)).onBookingEvent(any());
+        assertEquals(0, countEvents());
+    }
+
+    private long countEvents() {
+        return jdbcTemplate.queryForObject("select count(*) from booking_outbox", Long.class);
+    }
+
+    private Booking getBooking(Long id, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(id * 10).build())
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.partition;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingPartitionManagerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private BookingPartitionManager manager;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        manager = new BookingPartitionManager(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2, 12);
+        now = LocalDateTime.of(2026, 10, 18, 12, 0);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("booking"))).thenReturn(List.of(
+                "booking_default", "booking_p2025_08", "booking_p2025_09", "booking_p2025_10", "booking_p2026_10"));
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), eq("booking_archive")))
+                .thenReturn(List.of("booking_p2025_07"));
+    }
+
+    @Test
+    void maintain() {
+        when(jdbcTemplate.queryForObject(contains("booking_p2025_08"), eq(Boolean.class), any(LocalDateTime.class)))
+                .thenReturn(false);
+        when(jdbcTemplate.queryForObject(contains("booking_p2025_09"), eq(Boolean.class), any(LocalDateTime.class)))
+                .thenReturn(true);
+
+        manager.maintain(now);
+
+        // Создаются секции следующих месяцев, существующая секция текущего месяца не пересоздается
+        verify(jdbcTemplate, times(1)).execute(
+                "create table booking_p2026_11 partition of booking for values from ('2026-11-01 00:00:00') " +
+                        "to ('2026-12-01 00:00:00')");
+        verify(jdbcTemplate, times(1)).execute(
+                "create table booking_p2026_12 partition of booking for values from ('2026-12-01 00:00:00') " +
+                        "to ('2027-01-01 00:00:00')");
+        verify(jdbcTemplate, never()).execute(startsWith("create table booking_p2026_10"));
+        verify(jdbcTemplate, never()).execute(contains("no_overlap"));
+
+        // В архив переносится только старая секция без незакончившихся аренд, их интервалы удаляются
+        verify(jdbcTemplate, times(1)).execute(
+                "delete from booking_period where booking_id in (select id from booking_p2025_08)");
+        verify(jdbcTemplate, times(1)).execute("alter table booking detach partition booking_p2025_08");
+        verify(jdbcTemplate, times(1)).execute("alter table booking_archive attach partition booking_p2025_08 " +
+                "for values from ('2025-08-01 00:00:00') to ('2025-09-01 00:00:00')");
+        verify(jdbcTemplate, never()).execute("alter table booking detach partition booking_p2025_09");
+        verify(jdbcTemplate, never()).execute("alter table booking detach partition booking_p2025_10");
+    }
+
+    @Test
+    void partitionName() {
+        assertEquals("booking_p2026_01", BookingPartitionManager.partitionName(YearMonth.of(2026, 1)));
+        assertEquals(YearMonth.of(2026, 1), BookingPartitionManager.partitionMonth("booking_p2026_01"));
+        assertNull(BookingPartitionManager.partitionMonth("booking_default"));
+    }
+}
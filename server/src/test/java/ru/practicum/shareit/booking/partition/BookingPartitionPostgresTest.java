@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking.partition;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+// Нужна запущенная PostgreSQL из профиля postgres: mvn test -Dshareit.test.postgres=true
+@SpringBootTest(properties = {
+        "shareit.booking.timer.enabled=false",
+        "shareit.booking.outbox.enabled=false",
+        "shareit.booking.create-mode=jpa"
+})
+@ActiveProfiles("postgres")
+@EnabledIfSystemProperty(named = "shareit.test.postgres", matches = "true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingPartitionPostgresTest {
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BookingService bookingService;
+    private final BookingPartitionManager partitionManager;
+    private final ItemService itemService;
+    private final DataSource dataSource;
+
+    // Индекс пропускает пересекающуюся аренду, как при параллельных запросах
+    @MockBean
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Test
+    void overlappingBookingsFromDifferentMonthsAreRejected() {
+        User renter = userRepository.save(getUser(2L));
+        Item item = saveItem(userRepository.save(getUser(1L)));
+        // Аренда с конца следующего месяца по начало месяца после него
+        LocalDateTime monthEnd = YearMonth.now().plusMonths(1).atEndOfMonth().atTime(12, 0);
+        Booking first = bookingRepository.saveAndFlush(getBooking(item, renter,
+                monthEnd.minusDays(2), monthEnd.plusDays(2)));
+        Booking second = getBooking(item, renter, monthEnd.plusDays(1), monthEnd.plusDays(3));
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class,
+                () -> bookingRepository.saveAndFlush(second));
+        assertInstanceOf(SQLException.class, exception.getMostSpecificCause());
+        assertEquals("23P01", ((SQLException) exception.getMostSpecificCause()).getSQLState());
+        assertNotEquals("booking_default", jdbcTemplate.queryForObject(
+                "select tableoid::regclass::text from booking where id = ?", String.class, first.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from booking where rented_item = ?", Integer.class, item.getId()));
+    }
+
+    @Test
+    void createBookingRejectsOverlapFromAnotherMonth() {
+        when(availabilityIndex.isAvailable(any(), any(), any())).thenReturn(true);
+        User renter = userRepository.save(getUser(2L));
+        Item item = saveItem(userRepository.save(getUser(1L)));
+        LocalDateTime monthEnd = YearMonth.now().plusMonths(1).atEndOfMonth().atTime(12, 0);
+        bookingService.createBooking(new BookingDtoShort(item.getId(), monthEnd.minusDays(2), monthEnd.plusDays(2)),
+                renter.getId());
+
+        // Нарушение ограничения при вставке через JPA становится ответом 400, а не ошибкой фиксации
+        assertThrows(BadRequestException.class, () -> bookingService.createBooking(
+                new BookingDtoShort(item.getId(), monthEnd.plusDays(1), monthEnd.plusDays(3)), renter.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from booking where rented_item = ?", Integer.class, item.getId()));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from booking_outbox where item_id = ?", Integer.class, item.getId()));
+    }
+
+    @Test
+    void archivedBookingAllowsCommentAndStaysLastBooking() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+        Item item = saveItem(owner);
+        LocalDateTime start = LocalDateTime.now().minusMonths(14).withDayOfMonth(10);
+        Booking booking = bookingRepository.saveAndFlush(getBooking(item, renter, start, start.plusDays(2)));
+        // Секция месяца аренды создается, как если бы обслуживание шло в том месяце, затем уходит в архив
+        partitionManager.maintain(start);
+        partitionManager.maintain(LocalDateTime.now());
+        assertEquals("booking_archive", jdbcTemplate.queryForObject(
+                "select inhparent::regclass::text from pg_inherits where inhrelid = ?::regclass",
+                String.class, BookingPartitionManager.partitionName(YearMonth.from(start))));
+        assertEquals(0, jdbcTemplate.queryForObject("select count(*) from booking", Integer.class));
+
+        assertEquals(booking.getId(), itemService.getItem(item.getId(), owner.getId()).getLastBooking().getId());
+        CommentDto comment = CommentDto.builder().text("text").build();
+        assertNotNull(itemService.addComment(item.getId(), comment, renter.getId()).getId());
+    }
+
+    @Test
+    void maintainSkippedWhileAnotherNodeHoldsLock() throws SQLException {
+        String partition = BookingPartitionManager.partitionName(YearMonth.now().plusMonths(1));
+        try (Connection connection = dataSource.getConnection()) {
+            JdbcTemplate otherNode = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            assertEquals(Boolean.TRUE, otherNode.queryForObject("select pg_try_advisory_lock(?)", Boolean.class,
+                    BookingPartitionManager.MAINTENANCE_LOCK));
+            jdbcTemplate.execute("drop table " + partition);
+
+            partitionManager.maintain();
+            assertFalse(partitionExists(partition));
+
+            otherNode.queryForObject("select pg_advisory_unlock(?)", Boolean.class,
+                    BookingPartitionManager.MAINTENANCE_LOCK);
+        }
+        partitionManager.maintain();
+        assertTrue(partitionExists(partition));
+    }
+
+    private boolean partitionExists(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass(?) is not null",
+                Boolean.class, partition));
+    }
+
+    private Item saveItem(User owner) {
+        return itemRepository.save(Item.builder()
+                .name("name")
+                .description("description")
+                .available(Boolean.TRUE)
+                .owner(owner)
+                .build());
+    }
+
+    private Booking getBooking(Item item, User renter, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .item(item)
+                .renter(renter)
+                .startTime(start)
+                .endTime(end)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    private User getUser(Long userId) {
+        return User.builder()
+                .name("name" + userId)
+                .email("email" + userId + "@email.com")
+                .build();
+    }
+}
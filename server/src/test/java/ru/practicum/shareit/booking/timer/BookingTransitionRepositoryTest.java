@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.timer;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class BookingTransitionRepositoryTest {
+
+    private final BookingTransitionRepository transitionRepository;
+
+    @Test
+    void claimOnce() {
+        assertTrue(transitionRepository.claim(1L, BookingTransitionEvent.Type.STARTED));
+        // Второй узел с тем же таймером отметку не получает
+        assertFalse(transitionRepository.claim(1L, BookingTransitionEvent.Type.STARTED));
+        assertTrue(transitionRepository.claim(1L, BookingTransitionEvent.Type.ENDED));
+
+        assertEquals(2, transitionRepository.deleteCreatedBefore(LocalDateTime.now().plusMinutes(1)));
+        assertTrue(transitionRepository.claim(1L, BookingTransitionEvent.Type.STARTED));
+    }
+}
@@ -0,0 +1,179 @@
+package ru.practicum.shareit.booking.timer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.event.BookingTransitionEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.outbox.BookingOutboxRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingTransitionSchedulerTest {
+
+    private BookingRepository bookingRepository;
+    private BookingOutboxRepository outboxRepository;
+    private BookingTransitionRepository transitionRepository;
+    private ApplicationEventPublisher eventPublisher;
+    private BookingTransitionScheduler scheduler;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        bookingRepository = mock(BookingRepository.class);
+        outboxRepository = mock(BookingOutboxRepository.class);
+        transitionRepository = mock(BookingTransitionRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        scheduler = new BookingTransitionScheduler(bookingRepository, outboxRepository, transitionRepository,
+                eventPublisher, new TransactionTemplate(mock(PlatformTransactionManager.class)), true,
+                Duration.ofSeconds(1), 64, Duration.ofDays(1));
+        when(transitionRepository.claim(anyLong(), any(BookingTransitionEvent.Type.class))).thenReturn(true);
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void loadAndExpireWaiting() {
+        Booking stale = getBooking(1L, BookingStatus.WAITING, now.minusHours(1), now.plusHours(1));
+        Booking future = getBooking(2L, BookingStatus.WAITING, now.plusHours(1), now.plusHours(2));
+        when(bookingRepository.getBookingTimers(eq(BookingStatus.WAITING), eq(BookingStatus.APPROVED),
+                any(LocalDateTime.class))).thenReturn(List.of(getIntervalView(stale), getIntervalView(future)));
+        when(bookingRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(stale));
+        when(bookingRepository.updateStatusIfStarted(any(BookingStatus.class), anyCollection(),
+                any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(1);
+
+        scheduler.load();
+        assertEquals(4, scheduler.size());
+
+        // Таймер начала прошедшей аренды срабатывает на ближайшем тике, аренда отклоняется
+        scheduler.advance(now.plusSeconds(2));
+        verify(bookingRepository, times(1)).updateStatusIfStarted(eq(BookingStatus.REJECTED), eq(List.of(1L)),
+                eq(BookingStatus.WAITING), any(LocalDateTime.class));
+        verify(outboxRepository, times(1)).addAll(List.of(stale), BookingStatus.WAITING);
+        verify(eventPublisher, times(1)).publishEvent(new BookingChangedEvent(BookingStatus.WAITING, stale));
+        assertEquals(BookingStatus.REJECTED, stale.getStatus());
+
+        // Без сработавших таймеров тик не обращается к БД
+        scheduler.advance(now.plusSeconds(3));
+        verify(bookingRepository, times(1)).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void approvedBookingTransitions() {
+        Booking approved = getBooking(1L, BookingStatus.APPROVED, now.plusSeconds(10), now.plusSeconds(20));
+        when(bookingRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(approved));
+
+        scheduler.onBookingChanged(new BookingChangedEvent(BookingStatus.WAITING, approved));
+
+        scheduler.advance(now.plusSeconds(11));
+        verify(eventPublisher, times(1))
+                .publishEvent(new BookingTransitionEvent(BookingTransitionEvent.Type.STARTED, approved));
+        scheduler.advance(now.plusSeconds(21));
+        verify(eventPublisher, times(1))
+                .publishEvent(new BookingTransitionEvent(BookingTransitionEvent.Type.ENDED, approved));
+        verify(bookingRepository, never()).updateStatusIfStarted(any(), anyCollection(), any(), any());
+        verify(transitionRepository, times(1)).claim(1L, BookingTransitionEvent.Type.STARTED);
+        verify(transitionRepository, times(1)).claim(1L, BookingTransitionEvent.Type.ENDED);
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    void approvalAfterStartSchedulesOnlyEnd() {
+        Booking approved = getBooking(1L, BookingStatus.APPROVED, now.minusSeconds(10), now.plusSeconds(20));
+        when(bookingRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(approved));
+
+        scheduler.onBookingChanged(new BookingChangedEvent(BookingStatus.WAITING, approved));
+        assertEquals(1, scheduler.size());
+
+        scheduler.advance(now.plusSeconds(21));
+        verify(eventPublisher, never())
+                .publishEvent(new BookingTransitionEvent(BookingTransitionEvent.Type.STARTED, approved));
+        verify(eventPublisher, times(1))
+                .publishEvent(new BookingTransitionEvent(BookingTransitionEvent.Type.ENDED, approved));
+    }
+
+    @Test
+    void transitionClaimedByAnotherNodeIsNotPublished() {
+        Booking approved = getBooking(1L, BookingStatus.APPROVED, now.plusSeconds(10), now.plusSeconds(20));
+        when(bookingRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(approved));
+        when(transitionRepository.claim(1L, BookingTransitionEvent.Type.STARTED)).thenReturn(false);
+
+        scheduler.onBookingChanged(new BookingChangedEvent(BookingStatus.WAITING, approved));
+        scheduler.advance(now.plusSeconds(21));
+
+        verify(eventPublisher, never())
+                .publishEvent(new BookingTransitionEvent(BookingTransitionEvent.Type.STARTED, approved));
+        verify(eventPublisher, times(1))
+                .publishEvent(new BookingTransitionEvent(BookingTransitionEvent.Type.ENDED, approved));
+    }
+
+    @Test
+    void rejectedBookingCancelsTimers() {
+        Booking booking = getBooking(1L, BookingStatus.WAITING, now.plusSeconds(10), now.plusSeconds(20));
+        scheduler.onBookingChanged(new BookingChangedEvent(null, booking));
+        assertEquals(2, scheduler.size());
+
+        booking.setStatus(BookingStatus.REJECTED);
+        scheduler.onBookingChanged(new BookingChangedEvent(BookingStatus.WAITING, booking));
+        assertEquals(0, scheduler.size());
+
+        scheduler.advance(now.plusSeconds(30));
+        verify(bookingRepository, never()).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void expireSkipsBookingsProcessedConcurrently() {
+        Booking waiting = getBooking(1L, BookingStatus.WAITING, now.minusHours(1), now.plusHours(1));
+        Booking approved = getBooking(1L, BookingStatus.APPROVED, now.minusHours(1), now.plusHours(1));
+        scheduler.onBookingChanged(new BookingChangedEvent(null, waiting));
+        // Между чтением и обновлением владелец подтвердил аренду
+        when(bookingRepository.findAllByIdIn(anyCollection())).thenReturn(List.of(waiting), List.of(approved));
+        when(bookingRepository.updateStatusIfStarted(any(BookingStatus.class), anyCollection(),
+                any(BookingStatus.class), any(LocalDateTime.class))).thenReturn(0);
+
+        scheduler.advance(now.plusSeconds(2));
+        verify(outboxRepository, times(1)).addAll(List.of(), BookingStatus.WAITING);
+        verify(eventPublisher, never()).publishEvent(any(BookingChangedEvent.class));
+    }
+
+    private Booking getBooking(Long id, BookingStatus status, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(id).build())
+                .startTime(start)
+                .endTime(end)
+                .status(status)
+                .build();
+    }
+
+    private BookingIntervalView getIntervalView(Booking booking) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return booking.getId();
+            }
+
+            @Override
+            public LocalDateTime getStartTime() {
+                return booking.getStartTime();
+            }
+
+            @Override
+            public LocalDateTime getEndTime() {
+                return booking.getEndTime();
+            }
+        };
+    }
+}
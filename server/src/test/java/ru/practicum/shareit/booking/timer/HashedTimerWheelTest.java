@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.timer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimerWheelTest {
+
+    @Test
+    void advanceFiresDueTimers() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 300);
+        // Больше одного оборота колеса: таймер остается в ячейке до своего тика
+        wheel.schedule("c", 1050);
+
+        assertEquals(List.of(), wheel.advance(200));
+        assertEquals(List.of("a", "b"), wheel.advance(300));
+        assertEquals(List.of(), wheel.advance(1000));
+        assertEquals(List.of("c"), wheel.advance(1100));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void scheduleReplacesAndCancels() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.schedule("a", 200);
+        wheel.schedule("a", 500);
+        wheel.schedule("b", 300);
+        wheel.cancel("b");
+
+        assertEquals(List.of(), wheel.advance(400));
+        assertEquals(List.of("a"), wheel.advance(500));
+    }
+
+    @Test
+    void overdueTimerFiresOnNextTick() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 1000);
+        wheel.schedule("a", 0);
+
+        assertEquals(List.of(), wheel.advance(1050));
+        assertEquals(List.of("a"), wheel.advance(1100));
+    }
+
+    @Test
+    void advanceAfterLongPause() {
+        HashedTimerWheel<String> wheel = new HashedTimerWheel<>(100, 8, 0);
+        wheel.schedule("a", 150);
+        wheel.schedule("b", 2000);
+        wheel.schedule("c", 9000);
+
+        // Пауза длиннее нескольких оборотов: каждая ячейка просматривается один раз
+        assertEquals(List.of("a", "b"), wheel.advance(5000));
+        assertEquals(List.of("c"), wheel.advance(9000));
+    }
+}
@@ -7,7 +7,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.MethodParameter;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import ru.practicum.shareit.item.model.Item;
 
 import java.lang.reflect.Method;
 
@@ -39,6 +41,17 @@ class ErrorHandlerTest {
         assertEquals(duplicatedDataException.getMessage(), errorResponse.getDescription());
     }
 
+    @Test
+    void handleOptimisticLocking() {
+        ObjectOptimisticLockingFailureException exception =
+                new ObjectOptimisticLockingFailureException(Item.class, 1L);
+
+        ErrorResponse errorResponse = errorHandler.handleOptimisticLocking(exception);
+        assertNotNull(errorResponse);
+        assertEquals("Конфликт изменений.", errorResponse.getError());
+        assertEquals("Объект был изменен другим запросом, повторите запрос.", errorResponse.getDescription());
+    }
+
     @Test
     void handleValidationValidationException() {
         ValidationException validationException = new ValidationException("validation exception");
@@ -10,7 +10,11 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequestDto;
+import ru.practicum.shareit.item.dto.ItemBulkUpdateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -78,6 +82,23 @@ class ItemControllerTest {
 
     }
 
+    @Test
+    void getItemOfDeletedOwner() {
+        try {
+            mockMvc.perform(get("/items/{itemId}", 2L)
+                            .header("X-Sharer-User-Id", 2L))
+                    .andExpect(status().isOk());
+            // Вещь удаляется вместе с владельцем, закэшированное представление не отдается
+            mockMvc.perform(delete("/users/{userId}", 1L))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/items/{itemId}", 2L)
+                            .header("X-Sharer-User-Id", 2L))
+                    .andExpect(status().isNotFound());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
     @Test
     void getItems() {
         try {
@@ -105,6 +126,27 @@ class ItemControllerTest {
         }
     }
 
+    @Test
+    void createItems() {
+        ItemDto withoutDescription = getItemDto(null);
+        withoutDescription.setDescription(null);
+        List<ItemDto> itemDtos = List.of(getItemDto(null), withoutDescription, getItemDto(null));
+        try {
+            mockMvc.perform(post("/items/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(itemDtos))
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(3))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].item.id").value(11L))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[1].index").value(1))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[1].error").value("Описание не может быть пустым."))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[2].item.id").value(12L));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
     @Test
     void updateItem() {
         ItemDto itemDto = getItemDto(null);
@@ -123,6 +165,30 @@ class ItemControllerTest {
         }
     }
 
+    @Test
+    void updateItems() {
+        ItemBulkUpdateDto updateDto = ItemBulkUpdateDto.builder()
+                .ids(List.of(2L, 3L, 99L))
+                .available(Boolean.FALSE)
+                .build();
+        try {
+            mockMvc.perform(patch("/items/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(updateDto))
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(2))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(2L))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].version").value(1L));
+            mockMvc.perform(get("/items/{itemId}", 3L)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.available").value(false));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
     @Test
     void searchItems() {
         UserDto userDto = getUserDto(null);
@@ -168,6 +234,142 @@ class ItemControllerTest {
         }
     }
 
+    @Test
+    void searchItemsPaged() {
+        try {
+            MvcResult first = mockMvc.perform(get("/items/search")
+                            .param("text", "name")
+                            .param("limit", "4")
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(4))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(1L))
+                    .andReturn();
+            String cursor = first.getResponse().getHeader(KeysetPage.NEXT_CURSOR_HEADER);
+            assertNotNull(cursor);
+            mockMvc.perform(get("/items/search")
+                            .param("text", "name")
+                            .param("limit", "8")
+                            .param("cursor", cursor)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(6))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].id").value(5L))
+                    .andExpect(MockMvcResultMatchers.header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void suggestItemNames() {
+        ItemDto itemDto = getItemDto(null);
+        itemDto.setName("Cordless drill");
+        try {
+            mockMvc.perform(post("/items")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(itemDto))
+                    .header("X-Sharer-User-Id", 1L));
+            mockMvc.perform(get("/items/suggest")
+                            .param("prefix", "dri"))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(1))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0]").value("Cordless drill"));
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void getComments() {
+        try {
+            mockMvc.perform(get("/items/{itemId}/comments", 1L)
+                            .param("limit", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(0))
+                    .andExpect(MockMvcResultMatchers.header().doesNotExist(KeysetPage.NEXT_CURSOR_HEADER));
+            mockMvc.perform(get("/items/{itemId}", 1L)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.commentsCount").value(0));
+            mockMvc.perform(get("/items/{itemId}/comments", 100L))
+                    .andExpect(status().isNotFound());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void getFreeIntervals() {
+        try {
+            mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                            .param("from", "2030-01-01T00:00:00")
+                            .param("to", "2030-01-10T00:00:00"))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.size()").value(1))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].start").value("2030-01-01T00:00:00"))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$[0].end").value("2030-01-10T00:00:00"));
+            mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                            .param("from", "2030-01-10T00:00:00")
+                            .param("to", "2030-01-01T00:00:00"))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(get("/items/{itemId}/availability", 100L)
+                            .param("from", "2030-01-01T00:00:00")
+                            .param("to", "2030-01-10T00:00:00"))
+                    .andExpect(status().isNotFound());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void checkAvailability() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        try {
+            mockMvc.perform(post("/items/availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new ItemAvailabilityRequestDto(List.of(2L, 1L), start, start.plusDays(1)))))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.freeItemIds.size()").value(2))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.freeItemIds[0]").value(2L))
+                    .andExpect(MockMvcResultMatchers.jsonPath("$.busyItemIds.size()").value(0));
+            mockMvc.perform(post("/items/availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new ItemAvailabilityRequestDto(List.of(1L), start.plusDays(1), start))))
+                    .andExpect(status().isBadRequest());
+            mockMvc.perform(post("/items/availability")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(
+                                    new ItemAvailabilityRequestDto(List.of(1L, 100L), start, start.plusDays(1)))))
+                    .andExpect(status().isNotFound());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
+    @Test
+    void streamItems() {
+        try {
+            MvcResult result = mockMvc.perform(get("/items/search")
+                            .param("text", "name")
+                            .accept(MediaType.APPLICATION_NDJSON)
+                            .header("X-Sharer-User-Id", 1L))
+                    .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                    .andReturn();
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+            List<String> lines = body.lines().toList();
+            assertEquals(10, lines.size());
+            assertEquals(1L, objectMapper.readValue(lines.getFirst(), ItemDto.class).getId());
+        } catch (Exception e) {
+            fail(e.getMessage());
+        }
+    }
+
     private UserDto getUserDto(Long userId) {
         return UserDto.builder()
                 .id(userId)
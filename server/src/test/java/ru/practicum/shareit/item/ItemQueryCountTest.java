@@ -0,0 +1,245 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.QueryCounter;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBulkUpdateDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.ItemRequestService;
+import ru.practicum.shareit.request.dao.ItemRequestRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "ru.practicum.shareit.QueryCounter")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class ItemQueryCountTest {
+
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemRequestService itemRequestService;
+
+    @Test
+    void createItemsUsesBatchInsertAndOneRequestQuery() {
+        User owner = userRepository.save(getUser(1L));
+        User requester = userRepository.save(getUser(2L));
+        ItemRequest itemRequest1 = itemRequestRepository.save(getItemRequest(requester, 1));
+        ItemRequest itemRequest2 = itemRequestRepository.save(getItemRequest(requester, 2));
+
+        List<ItemDto> itemDtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            Long requestId = i % 3 == 0 ? itemRequest1.getId() : i % 3 == 1 ? itemRequest2.getId() : null;
+            itemDtos.add(ItemDto.builder()
+                    .name("name" + i)
+                    .description("description" + i)
+                    .available(Boolean.TRUE)
+                    .requestId(requestId)
+                    .build());
+        }
+        QueryCounter.reset();
+        List<ItemBatchResultDto> results = itemService.createItems(owner.getId(), itemDtos);
+
+        long requestQueries = QueryCounter.count("requests");
+        long insertQueries = QueryCounter.count("into items");
+        long totalQueries = QueryCounter.count();
+
+        assertTrue(results.stream().allMatch(result -> result.getItem() != null && result.getError() == null));
+        assertEquals(120, itemRepository.findItemsByOwnerId(owner.getId()).size());
+        assertEquals(1, requestQueries);
+        // 120 строк при размере пакета 50 и выделении id блоками по 50
+        assertTrue(insertQueries <= 3, "insert queries: " + insertQueries);
+        assertTrue(totalQueries < 15, "total queries: " + totalQueries);
+    }
+
+    @Test
+    void updateItemsQueriesDoNotGrowWithItemCount() {
+        User owner = userRepository.save(getUser(1L));
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            ids.add(itemRepository.save(getItem(owner, i)).getId());
+        }
+
+        QueryCounter.reset();
+        List<ItemVersionDto> small = itemService.updateItems(owner.getId(), ItemBulkUpdateDto.builder()
+                .ids(ids.subList(0, 5))
+                .available(Boolean.FALSE)
+                .build());
+        long smallQueries = QueryCounter.count();
+
+        QueryCounter.reset();
+        List<ItemVersionDto> large = itemService.updateItems(owner.getId(), ItemBulkUpdateDto.builder()
+                .ids(ids)
+                .available(Boolean.FALSE)
+                .build());
+        long largeQueries = QueryCounter.count();
+
+        assertEquals(5, small.size());
+        assertEquals(60, large.size());
+        assertEquals(2L, large.getFirst().getVersion());
+        assertEquals(1L, large.getLast().getVersion());
+        assertEquals(1, QueryCounter.count("update items"));
+        assertEquals(smallQueries, largeQueries);
+    }
+
+    @Test
+    void getItemsOwnedBookingQueriesDoNotGrowWithItemCount() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+
+        addItemsWithBookings(owner, renter, 3);
+        QueryCounter.reset();
+        List<ItemDto> smallList = itemService.getItemsOwned(owner.getId());
+        long smallCount = QueryCounter.count("booking");
+
+        addItemsWithBookings(owner, renter, 30);
+        QueryCounter.reset();
+        List<ItemDto> bigList = itemService.getItemsOwned(owner.getId());
+        long bigCount = QueryCounter.count("booking");
+
+        assertEquals(3, smallList.size());
+        assertEquals(33, bigList.size());
+        assertTrue(bigList.stream().allMatch(i -> i.getLastBooking() != null && i.getNextBooking() != null));
+        assertEquals(2, smallCount);
+        assertEquals(smallCount, bigCount);
+    }
+
+    @Test
+    void getItemsOwnedQueriesDoNotGrowWithItemCount() {
+        User owner = userRepository.save(getUser(1L));
+        User renter = userRepository.save(getUser(2L));
+
+        addItemsWithBookings(owner, renter, 3);
+        QueryCounter.reset();
+        itemService.getItemsOwned(owner.getId());
+        long smallCount = QueryCounter.count();
+
+        addItemsWithBookings(owner, renter, 30);
+        QueryCounter.reset();
+        List<ItemDto> bigList = itemService.getItemsOwned(owner.getId());
+        long bigCount = QueryCounter.count();
+
+        assertTrue(bigList.stream().allMatch(i -> i.getComments().size() == 1));
+        assertEquals(smallCount, bigCount);
+    }
+
+    @Test
+    void getAllItemRequestsQueriesDoNotGrowWithPageSize() {
+        User requester = userRepository.save(getUser(1L));
+        User owner = userRepository.save(getUser(2L));
+        User reader = userRepository.save(getUser(3L));
+        for (int i = 0; i < 20; i++) {
+            User creator = userRepository.save(getUser(10L + i));
+            ItemRequest itemRequest = itemRequestRepository.save(ItemRequest.builder()
+                    .description("description" + i)
+                    .created(LocalDateTime.now())
+                    .creator(i % 2 == 0 ? creator : requester)
+                    .build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("name")
+                    .description("description")
+                    .available(Boolean.TRUE)
+                    .owner(owner)
+                    .request(itemRequest)
+                    .build());
+            commentRepository.save(Comment.builder()
+                    .text("text")
+                    .item(item)
+                    .author(requester)
+                    .created(LocalDateTime.now())
+                    .build());
+        }
+
+        QueryCounter.reset();
+        List<ItemRequestDto> smallPage = itemRequestService.getAllItemRequestsFromOtherUsers(reader.getId(), 0L, 2L);
+        long smallCount = QueryCounter.count();
+
+        QueryCounter.reset();
+        List<ItemRequestDto> bigPage = itemRequestService.getAllItemRequestsFromOtherUsers(reader.getId(), 0L, 20L);
+        long bigCount = QueryCounter.count();
+
+        assertEquals(2, smallPage.size());
+        assertEquals(20, bigPage.size());
+        assertTrue(bigPage.stream().allMatch(r -> r.getItems().size() == 1
+                && r.getItems().getFirst().getComments().size() == 1));
+        assertEquals(smallCount, bigCount);
+    }
+
+    private void addItemsWithBookings(User owner, User renter, int count) {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < count; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("name")
+                    .description("description")
+                    .available(Boolean.TRUE)
+                    .owner(owner)
+                    .build());
+            bookingRepository.save(getBooking(renter, item, now.minusDays(2), now.minusDays(1)));
+            bookingRepository.save(getBooking(renter, item, now.plusDays(1), now.plusDays(2)));
+            commentRepository.save(Comment.builder()
+                    .text("text")
+                    .item(item)
+                    .author(renter)
+                    .created(now)
+                    .build());
+        }
+    }
+
+    private Booking getBooking(User renter, Item item, LocalDateTime start, LocalDateTime end) {
+        return Booking.builder()
+                .renter(renter)
+                .startTime(start)
+                .endTime(end)
+                .item(item)
+                .status(BookingStatus.APPROVED)
+                .build();
+    }
+
+    private Item getItem(User owner, int number) {
+        return Item.builder()
+                .name("name" + number)
+                .description("description" + number)
+                .available(Boolean.TRUE)
+                .owner(owner)
+                .build();
+    }
+
+    private ItemRequest getItemRequest(User creator, int number) {
+        return ItemRequest.builder()
+                .description("description" + number)
+                .creator(creator)
+                .created(LocalDateTime.now())
+                .build();
+    }
+
+    private User getUser(Long userId) {
+        return User.builder()
+                .name("name" + userId)
+                .email("email" + userId + "@email.com")
+                .build();
+    }
+}
@@ -1,43 +1,78 @@
 package ru.practicum.shareit.item;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import ru.practicum.shareit.booking.availability.BookedDaysIndex;
+import ru.practicum.shareit.booking.availability.BookingAvailabilityIndex;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dto.BookingForItemView;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
 import ru.practicum.shareit.booking.dto.mapper.BookingDtoMapper;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.partition.BookingArchiveRepository;
 import ru.practicum.shareit.exception.BadRequestException;
 import ru.practicum.shareit.exception.ForbiddenException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.exception.ValidationException;
+import ru.practicum.shareit.item.cache.ItemViewCache;
+import ru.practicum.shareit.item.comment.CommentPreviews;
 import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.ItemJdbcRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentPreviewView;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityRequestDto;
+import ru.practicum.shareit.item.dto.ItemAvailableView;
+import ru.practicum.shareit.item.dto.ItemBatchResultDto;
+import ru.practicum.shareit.item.dto.ItemBulkUpdateDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemStateView;
+import ru.practicum.shareit.item.dto.ItemVersionDto;
+import ru.practicum.shareit.item.dto.TimeIntervalDto;
 import ru.practicum.shareit.item.dto.mapper.MapperCommentDto;
 import ru.practicum.shareit.item.dto.mapper.MapperItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.LikeItemSearch;
+import ru.practicum.shareit.item.suggest.ItemNameTrie;
+import ru.practicum.shareit.pagination.KeysetPage;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
+import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.*;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 class ItemServiceTest {
 
+    private BookedDaysIndex bookedDaysIndex;
     private ItemService itemService;
     private ItemRepository itemRepository;
     private UserRepository userRepository;
@@ -47,6 +82,7 @@ class ItemServiceTest {
     private CommentRepository commentRepository;
     private MapperCommentDto mapperCommentDto;
     private ItemRequestRepository itemRequestRepository;
+    private BookingArchiveRepository bookingArchiveRepository;
 
     private Long reservedId = 40L;
     private Long maxId = 100L;
@@ -70,8 +106,14 @@ class ItemServiceTest {
         commentRepository = mock(CommentRepository.class);
         mapperCommentDto = new MapperCommentDto();
         itemRequestRepository = mock(ItemRequestRepository.class);
+        bookedDaysIndex = new BookedDaysIndex(bookingRepository);
+        bookingArchiveRepository = mock(BookingArchiveRepository.class);
         itemService = new ItemService(itemRepository, userRepository, mapperItemDto, bookingRepository,
-                bookingDtoMapper, commentRepository, mapperCommentDto, itemRequestRepository);
+                bookingDtoMapper, commentRepository, mapperCommentDto, itemRequestRepository,
+                new LikeItemSearch(itemRepository, 100), mock(ApplicationEventPublisher.class),
+                mock(ItemJdbcRepository.class), mock(ItemNameTrie.class),
+                new ItemSearchCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()), new ItemViewCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()),
+                bookedDaysIndex, new CommentPreviews(commentRepository, mapperCommentDto), bookingArchiveRepository);
 
         usedIds = new ArrayList<>();
         itemMap = new HashMap<>();
@@ -118,18 +160,23 @@ class ItemServiceTest {
                         .status(null)
                         .build());
 
-        when(commentRepository.findAllByItemId(anyLong())).thenAnswer(arguments -> {
-            Long id = arguments.getArgument(0);
-            List<Comment> comments = new ArrayList<>();
-            for (long i = 1; i <= 5; i++) {
-                Long commentId = (id - 1) * 5 + i;
-                comments.add(Comment.builder()
-                        .id(commentId)
-                        .text("text" + commentId)
-                        .item(null)
-                        .author(new User(i, "name" + i, "email" + i + "@email.com"))
-                        .created(LocalDateTime.now())
-                        .build());
+        when(bookingRepository.getLastBookings(anyLong(), anyCollection())).thenAnswer(arguments -> {
+            Collection<Long> itemIds = arguments.getArgument(1);
+            return itemIds.stream().map(itemId -> getBookingForItemView(1L, itemId, 1L)).toList();
+        });
+
+        when(bookingRepository.getNextBookings(anyLong(), anyCollection(), anyLong())).thenAnswer(arguments -> {
+            Collection<Long> itemIds = arguments.getArgument(1);
+            return itemIds.stream().map(itemId -> getBookingForItemView(2L, itemId, 2L)).toList();
+        });
+
+        when(commentRepository.findNewestByItemIdIn(anyCollection(), anyInt())).thenAnswer(arguments -> {
+            Collection<Long> itemIds = arguments.getArgument(0);
+            List<CommentPreviewView> comments = new ArrayList<>();
+            for (Long itemId : itemIds) {
+                for (long i = 1; i <= 5; i++) {
+                    comments.add(getCommentView((itemId - 1) * 5 + i, itemId, "name" + i));
+                }
             }
             return comments;
         });
@@ -162,7 +209,7 @@ class ItemServiceTest {
             return item;
         });
 
-        when(itemRepository.findItemsBySubstring(anyString())).thenAnswer(arguments -> {
+        when(itemRepository.findItemsBySubstring(anyString(), any(Limit.class))).thenAnswer(arguments -> {
             String substring = arguments.getArgument(0);
             List<Item> items = new ArrayList<>();
             for (long i = 1L; i <= count; i++) {
@@ -174,6 +221,17 @@ class ItemServiceTest {
             return items;
         });
 
+        when(itemRepository.findItemsBySubstringAfter(anyString(), anyLong(), any(Limit.class))).thenAnswer(
+                arguments -> {
+                    Long afterId = arguments.getArgument(1);
+                    Limit limit = arguments.getArgument(2);
+                    List<Item> items = new ArrayList<>();
+                    for (long i = afterId + 1; i <= count && items.size() < limit.max(); i++) {
+                        items.add(getItem(i, i, i, getRandomKey()));
+                    }
+                    return items;
+                });
+
         when(bookingRepository.isUserContainsCompletedBookingForItem(anyLong(), anyLong(),
                 any(LocalDateTime.class))).thenAnswer(arguments -> {
                     Long authorId = arguments.getArgument(0);
@@ -223,6 +281,27 @@ class ItemServiceTest {
         assertEquals(itemDtoForOwner.getComments().size(), itemDtoForNotOwner.getComments().size());
     }
 
+    @Test
+    void getItemCached() {
+        Long realId = getRandomKey();
+        isBooked = true;
+
+        ItemDto first = itemService.getItem(realId, realId);
+        ItemDto second = itemService.getItem(realId, realId);
+        ItemDto forNotOwner = itemService.getItem(realId, realId + 3);
+        assertEquals(first, second);
+        assertNull(forNotOwner.getNextBooking());
+        verify(itemRepository, times(1)).findById(realId);
+        verify(commentRepository, times(1)).findNewestByItemIdIn(List.of(realId), CommentPreviews.PREVIEW_SIZE);
+        verify(bookingRepository, times(1)).getLastBooking(realId, realId);
+
+        // Новый отзыв сбрасывает общую часть, но не аренды владельца
+        itemService.addComment(realId, getCommentDto(1L), getRandomKey());
+        itemService.getItem(realId, realId);
+        verify(commentRepository, times(2)).findNewestByItemIdIn(List.of(realId), CommentPreviews.PREVIEW_SIZE);
+        verify(bookingRepository, times(1)).getLastBooking(realId, realId);
+    }
+
     @Test
     void getItemsOwned() {
         Long realUserId = getRandomKey();
@@ -288,6 +367,70 @@ class ItemServiceTest {
 
     }
 
+    @Test
+    void createItems() {
+        Long realUserId = getRandomKey();
+        Long fakeUserId = getFakeKey();
+        Long realItemRequestId = getRandomKey();
+        Long fakeItemRequestId = getFakeKey();
+
+        when(itemRequestRepository.findAllByIdIn(anyCollection())).thenAnswer(arguments -> {
+            Collection<Long> ids = arguments.getArgument(0);
+            return ids.stream().filter(id -> id > 0 && id <= maxId).map(this::getItemRequest).toList();
+        });
+        when(itemRepository.saveAll(anyList())).thenAnswer(arguments -> {
+            List<Item> items = arguments.getArgument(0);
+            long id = 1;
+            for (Item item : items) {
+                item.setId(id++);
+            }
+            return items;
+        });
+
+        ItemDto withoutName = getItemDtoForCreate(null);
+        withoutName.setName(" ");
+        ItemDto withoutAvailable = getItemDtoForCreate(null);
+        withoutAvailable.setAvailable(null);
+        List<ItemDto> itemDtos = List.of(
+                getItemDtoForCreate(null),  // нормальная вещь без запроса
+                withoutName,
+                getItemDtoForCreate(fakeItemRequestId),  // вещь с несуществующим запросом
+                getItemDtoForCreate(realUserId),  // вещь по собственному запросу
+                withoutAvailable,
+                getItemDtoForCreate(realItemRequestId));  // вещь с нормальным запросом
+
+        // Запрос на создание с неправильным пользователем
+        NotFoundException exceptionUser = assertThrows(NotFoundException.class, () -> {
+            itemService.createItems(fakeUserId, itemDtos);
+        });
+        assertEquals("Пользователь с id = " + fakeUserId + " не существует.", exceptionUser.getMessage());
+
+        // Слишком большой пакет
+        List<ItemDto> tooMany = Collections.nCopies(ItemService.MAX_BATCH_SIZE + 1, getItemDtoForCreate(null));
+        assertThrows(BadRequestException.class, () -> itemService.createItems(realUserId, tooMany));
+
+        // Ошибки отдельных строк не прерывают пакет
+        List<ItemBatchResultDto> results = itemService.createItems(realUserId, itemDtos);
+        assertEquals(itemDtos.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertNull(results.get(0).getError());
+        assertEquals(1L, results.get(0).getItem().getId());
+        assertEquals("Имя не может быть пустым.", results.get(1).getError());
+        assertNull(results.get(1).getItem());
+        assertEquals("Запрос с id = " + fakeItemRequestId + " не существует. Вещь не создана.",
+                results.get(2).getError());
+        assertEquals("Вещь не может быть добавлена по собственному запросу.", results.get(3).getError());
+        assertEquals("Не указан статус доступа.", results.get(4).getError());
+        assertNull(results.get(5).getError());
+        assertEquals(2L, results.get(5).getItem().getId());
+        assertEquals(realItemRequestId, results.get(5).getItem().getRequestId());
+
+        // Запросы всех строк получаются одним обращением к репозиторию
+        verify(itemRequestRepository, times(1)).findAllByIdIn(anyCollection());
+    }
+
     @Test
     void updateItem() {
 
@@ -319,6 +462,14 @@ class ItemServiceTest {
         assertEquals("Пользователь с id = " + realNotOwnerUserId + " не владеет этой вещью с id = "
                 + realItemId + ".", exceptionOwner.getMessage());
 
+        // Проверка длины описания
+        ItemDto longDescriptionItemDto = getItemDtoForCreate(null);
+        longDescriptionItemDto.setDescription("a".repeat(256));
+        BadRequestException exceptionLength = assertThrows(BadRequestException.class, () -> {
+            itemService.updateItem(realUserId, realItemId, longDescriptionItemDto);
+        });
+        assertEquals("Имя и описание не могут быть длиннее 255 символов.", exceptionLength.getMessage());
+
         // Проверка валидации: name
         ItemDto validNameItemDto = getItemDtoForCreate(null);
         validNameItemDto.setName("");
@@ -375,6 +526,56 @@ class ItemServiceTest {
 
     }
 
+    @Test
+    void updateItems() {
+        Long realUserId = getRandomKey();
+        Long fakeUserId = getFakeKey();
+        List<Long> ids = List.of(realUserId, realUserId + 1, realUserId + 2);
+
+        when(itemRepository.lockStatesByOwnerIdAndIdIn(anyLong(), anyCollection())).thenAnswer(arguments -> {
+            Long ownerId = arguments.getArgument(0);
+            Collection<Long> itemIds = arguments.getArgument(1);
+            // вещь с наибольшим id принадлежит другому пользователю
+            return itemIds.stream().filter(id -> id < ownerId + 2).map(id -> getItemStateView(id, 0L)).toList();
+        });
+        when(itemRepository.updateItems(anyLong(), anyCollection(), any(), any(), any())).thenAnswer(arguments -> {
+            Collection<Long> itemIds = arguments.getArgument(1);
+            return itemIds.size();
+        });
+
+        // Запрос без id вещей
+        BadRequestException exceptionIds = assertThrows(BadRequestException.class, () -> {
+            itemService.updateItems(realUserId, ItemBulkUpdateDto.builder().ids(List.of()).available(false).build());
+        });
+        assertEquals("Не указаны id вещей.", exceptionIds.getMessage());
+
+        // Запрос без изменяемых полей
+        BadRequestException exceptionFields = assertThrows(BadRequestException.class, () -> {
+            itemService.updateItems(realUserId, ItemBulkUpdateDto.builder().ids(ids).name(" ").build());
+        });
+        assertEquals("Не указаны поля для обновления.", exceptionFields.getMessage());
+
+        // Слишком длинное название
+        BadRequestException exceptionLength = assertThrows(BadRequestException.class, () -> {
+            itemService.updateItems(realUserId, ItemBulkUpdateDto.builder().ids(ids).name("a".repeat(256)).build());
+        });
+        assertEquals("Имя и описание не могут быть длиннее 255 символов.", exceptionLength.getMessage());
+
+        // Запрос от несуществующего пользователя
+        NotFoundException exceptionUser = assertThrows(NotFoundException.class, () -> {
+            itemService.updateItems(fakeUserId, ItemBulkUpdateDto.builder().ids(ids).available(false).build());
+        });
+        assertEquals("Пользователь с id = " + fakeUserId + " не существует.", exceptionUser.getMessage());
+
+        // Обновляются только вещи пользователя
+        List<ItemVersionDto> versions = itemService.updateItems(realUserId,
+                ItemBulkUpdateDto.builder().ids(ids).available(false).build());
+        assertEquals(List.of(realUserId, realUserId + 1), versions.stream().map(ItemVersionDto::getId).toList());
+        assertTrue(versions.stream().allMatch(version -> version.getVersion() == 1L));
+        verify(itemRepository, times(1)).updateItems(realUserId, List.of(realUserId, realUserId + 1),
+                null, null, Boolean.FALSE);
+    }
+
     @Test
     void searchItemsByText() {
 
@@ -408,6 +609,193 @@ class ItemServiceTest {
         }
     }
 
+    @Test
+    void searchItemsByTextPaged() {
+        Long realUserId = getRandomKey();
+        String substring = "substring";
+        count = 5;
+
+        KeysetPage<ItemDto> first = itemService.searchItemsByText(realUserId, substring, 2, null);
+        assertEquals(List.of(1L, 2L), first.items().stream().map(ItemDto::getId).toList());
+        assertNotNull(first.nextCursor());
+        assertNotNull(first.items().getFirst().getLastBooking());
+
+        KeysetPage<ItemDto> second = itemService.searchItemsByText(realUserId, substring, 2, first.nextCursor());
+        assertEquals(List.of(3L, 4L), second.items().stream().map(ItemDto::getId).toList());
+
+        KeysetPage<ItemDto> last = itemService.searchItemsByText(realUserId, substring, 2, second.nextCursor());
+        assertEquals(List.of(5L), last.items().stream().map(ItemDto::getId).toList());
+        assertNull(last.nextCursor());
+
+        // Проверка размера страницы и курсора
+        BadRequestException exceptionLimit = assertThrows(BadRequestException.class, () ->
+                itemService.searchItemsByText(realUserId, substring, 0, null));
+        assertEquals("Размер страницы должен быть от 1 до 100.", exceptionLimit.getMessage());
+        assertThrows(BadRequestException.class, () ->
+                itemService.searchItemsByText(realUserId, substring, 2, "не курсор"));
+    }
+
+    @Test
+    void searchFreeItemsByText() {
+        Long realUserId = getRandomKey();
+        String substring = "substring";
+        count = 5;
+        LocalDate day = LocalDate.now().plusDays(10);
+        Booking booking = Booking.builder()
+                .id(1L)
+                .item(getItem(2L, 2L, 2L, getRandomKey()))
+                .startTime(day.atTime(10, 0))
+                .endTime(day.plusDays(1).atTime(10, 0))
+                .status(BookingStatus.WAITING)
+                .build();
+        bookedDaysIndex.onBookingChanged(new BookingChangedEvent(null, booking));
+
+        // Вещь 2 занята в первые два дня периода и пропускается
+        KeysetPage<ItemDto> first = itemService.searchFreeItemsByText(realUserId, substring, day, day.plusDays(2),
+                2, null);
+        assertEquals(List.of(1L, 3L), first.items().stream().map(ItemDto::getId).toList());
+        assertNotNull(first.nextCursor());
+        KeysetPage<ItemDto> second = itemService.searchFreeItemsByText(realUserId, substring, day, day.plusDays(2),
+                2, first.nextCursor());
+        assertEquals(List.of(4L, 5L), second.items().stream().map(ItemDto::getId).toList());
+        assertNull(second.nextCursor());
+
+        // После отклонения аренды вещь снова свободна
+        booking.setStatus(BookingStatus.REJECTED);
+        bookedDaysIndex.onBookingChanged(new BookingChangedEvent(BookingStatus.WAITING, booking));
+        KeysetPage<ItemDto> all = itemService.searchFreeItemsByText(realUserId, substring, day, day, null, null);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), all.items().stream().map(ItemDto::getId).toList());
+
+        // Аренда вещи 3 создана на другом узле: карта дней ее не знает, занятость подтверждает БД
+        when(bookingRepository.getBusyItemIds(anyCollection(), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of(3L));
+        KeysetPage<ItemDto> confirmed = itemService.searchFreeItemsByText(realUserId, substring, day, day, null,
+                null);
+        assertEquals(List.of(1L, 2L, 4L, 5L), confirmed.items().stream().map(ItemDto::getId).toList());
+        verify(bookingRepository, atLeastOnce()).getBusyItemIds(List.of(1L, 2L, 3L, 4L, 5L),
+                BookingAvailabilityIndex.ACTIVE_STATUSES, day.atStartOfDay(), day.atTime(LocalTime.MAX));
+
+        // Если занято все, запрос просматривает ограниченное число вещей и возвращает курсор для продолжения
+        count = 6000;
+        when(bookingRepository.getBusyItemIds(anyCollection(), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenAnswer(arguments -> new ArrayList<>(arguments.getArgument(0)));
+        KeysetPage<ItemDto> busy = itemService.searchFreeItemsByText(realUserId, substring, day, day, 10, null);
+        assertTrue(busy.items().isEmpty());
+        assertEquals(KeysetPage.encodeCursor(5000L), busy.nextCursor());
+        KeysetPage<ItemDto> rest = itemService.searchFreeItemsByText(realUserId, substring, day, day, 10,
+                busy.nextCursor());
+        assertTrue(rest.items().isEmpty());
+        assertNull(rest.nextCursor());
+
+        // Проверка периода
+        ValidationException exceptionTime = assertThrows(ValidationException.class, () ->
+                itemService.searchFreeItemsByText(realUserId, substring, day, day.minusDays(1), null, null));
+        assertEquals("Время неверно относительно друг друга.", exceptionTime.getMessage());
+        assertThrows(ValidationException.class, () ->
+                itemService.searchFreeItemsByText(realUserId, substring, day, null, null, null));
+        assertThrows(BadRequestException.class, () ->
+                itemService.searchFreeItemsByText(realUserId, substring, day, day.plusYears(2), null, null));
+    }
+
+    @Test
+    void getComments() {
+        Long realItemId = getRandomKey();
+        Long fakeItemId = getFakeKey();
+        when(itemRepository.existsById(anyLong())).thenAnswer(arguments -> {
+            Long id = arguments.getArgument(0);
+            return id > 0 && id <= maxId;
+        });
+        when(commentRepository.findNewestByItemId(anyLong(), any(Limit.class))).thenAnswer(arguments ->
+                List.of(getCommentView(3L, realItemId, "name"), getCommentView(2L, realItemId, "name"),
+                        getCommentView(1L, realItemId, "name")));
+        when(commentRepository.findNewestByItemIdBefore(anyLong(), anyLong(), any(Limit.class))).thenAnswer(
+                arguments -> List.of(getCommentView(1L, realItemId, "name")));
+
+        KeysetPage<CommentDto> first = itemService.getComments(realItemId, 2, null);
+        assertEquals(List.of(3L, 2L), first.items().stream().map(CommentDto::getId).toList());
+        assertEquals(KeysetPage.encodeCursor(2L), first.nextCursor());
+
+        KeysetPage<CommentDto> second = itemService.getComments(realItemId, 2, first.nextCursor());
+        assertEquals(List.of(1L), second.items().stream().map(CommentDto::getId).toList());
+        assertNull(second.nextCursor());
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () ->
+                itemService.getComments(fakeItemId, 2, null));
+        assertEquals("Вещь с id = " + fakeItemId + " не существует.", exception.getMessage());
+
+        // В представлении вещи общее число отзывов
+        assertEquals(5L, itemService.getItem(realItemId, realItemId).getCommentsCount());
+    }
+
+    @Test
+    void getFreeIntervals() {
+        Long realItemId = getRandomKey();
+        Long fakeItemId = getFakeKey();
+        when(itemRepository.existsById(anyLong())).thenAnswer(arguments -> {
+            Long id = arguments.getArgument(0);
+            return id > 0 && id <= maxId;
+        });
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        BookingIntervalView booking = mock(BookingIntervalView.class);
+        when(booking.getStartTime()).thenReturn(from.plusDays(2));
+        when(booking.getEndTime()).thenReturn(from.plusDays(3));
+        when(bookingRepository.getBookingIntervals(anyLong(), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of(booking));
+
+        List<TimeIntervalDto> free = itemService.getFreeIntervals(realItemId, from, to);
+        assertEquals(List.of(new TimeIntervalDto(from, from.plusDays(2)), new TimeIntervalDto(from.plusDays(3), to)),
+                free);
+        verify(bookingRepository, times(1)).getBookingIntervals(realItemId,
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), from, to);
+
+        NotFoundException exception = assertThrows(NotFoundException.class, () ->
+                itemService.getFreeIntervals(fakeItemId, from, to));
+        assertEquals("Вещь с id = " + fakeItemId + " не существует.", exception.getMessage());
+        assertThrows(ValidationException.class, () -> itemService.getFreeIntervals(realItemId, to, from));
+        BadRequestException exceptionPeriod = assertThrows(BadRequestException.class, () ->
+                itemService.getFreeIntervals(realItemId, from, from.plusYears(2)));
+        assertEquals("Период не может быть длиннее 366 дней.", exceptionPeriod.getMessage());
+    }
+
+    @Test
+    void checkAvailability() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime end = start.plusDays(2);
+        when(itemRepository.findAvailableViewsByIdIn(List.of(3L, 2L, 1L, 4L))).thenReturn(List.of(
+                getAvailableView(1L, true), getAvailableView(2L, true), getAvailableView(3L, true),
+                getAvailableView(4L, false)));
+        when(bookingRepository.getBusyItemIds(anyCollection(), anyCollection(), any(LocalDateTime.class),
+                any(LocalDateTime.class))).thenReturn(List.of(2L));
+
+        ItemAvailabilityDto availability = itemService.checkAvailability(
+                new ItemAvailabilityRequestDto(List.of(3L, 2L, 1L, 3L, 4L), start, end));
+        assertEquals(List.of(3L, 1L), availability.getFreeItemIds());
+        // Недоступная для аренды вещь занята, ее аренды не проверяются
+        assertEquals(List.of(2L, 4L), availability.getBusyItemIds());
+        verify(bookingRepository, times(1)).getBusyItemIds(List.of(3L, 2L, 1L),
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), start, end);
+
+        when(itemRepository.findAvailableViewsByIdIn(List.of(1L, 99L))).thenReturn(List.of(
+                getAvailableView(1L, true)));
+        NotFoundException exceptionNotFound = assertThrows(NotFoundException.class, () ->
+                itemService.checkAvailability(new ItemAvailabilityRequestDto(List.of(1L, 99L), start, end)));
+        assertEquals("Вещь с id = 99 не существует.", exceptionNotFound.getMessage());
+        verifyNoMoreInteractions(bookingRepository);
+
+        BadRequestException exceptionEmpty = assertThrows(BadRequestException.class, () ->
+                itemService.checkAvailability(new ItemAvailabilityRequestDto(List.of(), start, end)));
+        assertEquals("Не указаны id вещей.", exceptionEmpty.getMessage());
+        List<Long> tooMany = LongStream.rangeClosed(1, ItemService.MAX_AVAILABILITY_ITEMS + 1).boxed().toList();
+        BadRequestException exceptionSize = assertThrows(BadRequestException.class, () ->
+                itemService.checkAvailability(new ItemAvailabilityRequestDto(tooMany, start, end)));
+        assertEquals("За один запрос можно проверить не более 500 вещей.", exceptionSize.getMessage());
+        assertThrows(ValidationException.class, () ->
+                itemService.checkAvailability(new ItemAvailabilityRequestDto(List.of(1L), end, start)));
+        assertThrows(ValidationException.class, () ->
+                itemService.checkAvailability(new ItemAvailabilityRequestDto(List.of(1L), null, end)));
+    }
+
     @Test
     void addComment() {
         Long realUserId = getRandomKey();
@@ -436,6 +824,11 @@ class ItemServiceTest {
         });
         assertEquals("Нельзя создать отзыв на предмет который не был арендован.", badRequestException.getMessage());
 
+        // аренда перенесена в архив
+        when(bookingArchiveRepository.containsCompletedBooking(eq(realUserId), eq(realItemId),
+                any(LocalDateTime.class))).thenReturn(true);
+        assertNotNull(itemService.addComment(realItemId, commentDto, realUserId));
+
         // аренда была
         isBooked = true;
         CommentDto commentDtoCreated = itemService.addComment(realItemId, commentDto, realUserId);
@@ -479,6 +872,108 @@ class ItemServiceTest {
                 .build();
     }
 
+    private BookingForItemView getBookingForItemView(Long bookingId, Long itemId, Long bookerId) {
+        return new BookingForItemView() {
+            @Override
+            public Long getId() {
+                return bookingId;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+        };
+    }
+
+    private CommentPreviewView getCommentView(Long commentId, Long itemId, String authorName) {
+        LocalDateTime created = LocalDateTime.now();
+        return new CommentPreviewView() {
+            @Override
+            public Long getTotal() {
+                return 5L;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getId() {
+                return commentId;
+            }
+
+            @Override
+            public String getText() {
+                return "text" + commentId;
+            }
+
+            @Override
+            public String getAuthorName() {
+                return authorName;
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return created;
+            }
+        };
+    }
+
+    private ItemStateView getItemStateView(Long itemId, Long version) {
+        return new ItemStateView() {
+            @Override
+            public Long getId() {
+                return itemId;
+            }
+
+            @Override
+            public String getName() {
+                return "name" + itemId;
+            }
+
+            @Override
+            public String getDescription() {
+                return "description" + itemId;
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return Boolean.TRUE;
+            }
+
+            @Override
+            public Long getRequestId() {
+                return null;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private ItemAvailableView getAvailableView(Long itemId, boolean available) {
+        return new ItemAvailableView() {
+            @Override
+            public Long getId() {
+                return itemId;
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return available;
+            }
+        };
+    }
+
     private ItemDto getItemDtoForCreate(Long requestId) {
         return ItemDto.builder()
                 .id(null)
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingForItem;
+import ru.practicum.shareit.booking.event.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.cache.ItemViewCache.OwnerView;
+import ru.practicum.shareit.item.cache.ItemViewCache.SharedView;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemViewCacheTest {
+
+    private ItemViewCache itemViewCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        itemViewCache = new ItemViewCache(10, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void sharedViewEvictedOnItemChange() {
+        assertEquals("name", sharedView().toItemDto().getName());
+        sharedView();
+        assertEquals(1, loads.get());
+
+        Item item = Item.builder().id(1L).name("name").description("description").available(true).build();
+        itemViewCache.onItemChanged(new ItemChangedEvent(item, item));
+        sharedView();
+        assertEquals(2, loads.get());
+
+        itemViewCache.evictSharedView(1L);
+        sharedView();
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void sharedViewReturnsCopy() {
+        ItemDto itemDto = sharedView().toItemDto();
+        itemDto.setLastBooking(new BookingForItem(1L, 2L));
+        assertNull(sharedView().toItemDto().getLastBooking());
+    }
+
+    @Test
+    void ownerViewEvictedOnBookingChange() {
+        ownerView(null);
+        ownerView(null);
+        assertEquals(1, loads.get());
+
+        Booking booking = Booking.builder()
+                .id(1L)
+                .item(Item.builder().id(1L).build())
+                .status(BookingStatus.APPROVED)
+                .build();
+        itemViewCache.onBookingChanged(new BookingChangedEvent(BookingStatus.WAITING, booking));
+        ownerView(null);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void ownerViewExpiresAtNearestBookingStart() {
+        ownerView(LocalDateTime.now().minusSeconds(1));
+        ownerView(LocalDateTime.now().plusDays(1));
+        assertEquals(2, loads.get());
+        ownerView(null);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void viewsEvictedOnUserDeleteAndRename() {
+        sharedView();
+        ownerView(null);
+        User user = new User(2L, "name", "user@email.com");
+        // Смена почты не меняет представление
+        itemViewCache.onUserChanged(new UserChangedEvent(user, new User(2L, "name", "new@email.com")));
+        sharedView();
+        assertEquals(2, loads.get());
+
+        itemViewCache.onUserChanged(new UserChangedEvent(user, new User(2L, "author", "user@email.com")));
+        sharedView();
+        ownerView(null);
+        assertEquals(3, loads.get());
+
+        itemViewCache.onUserDeleted(new UserDeletedEvent(user, List.of()));
+        sharedView();
+        ownerView(null);
+        assertEquals(5, loads.get());
+    }
+
+    @Test
+    void viewsExpireAfterMaxAge() {
+        itemViewCache = new ItemViewCache(10, Duration.ZERO, new SimpleMeterRegistry());
+        sharedView();
+        sharedView();
+        assertEquals(2, loads.get());
+    }
+
+    private SharedView sharedView() {
+        return itemViewCache.getSharedView(1L, () -> {
+            loads.incrementAndGet();
+            return new SharedView(1L, ItemDto.builder()
+                    .id(1L)
+                    .name("name")
+                    .description("description")
+                    .available(true)
+                    .comments(List.of())
+                    .build());
+        });
+    }
+
+    private OwnerView ownerView(LocalDateTime validUntil) {
+        return itemViewCache.getOwnerView(1L, () -> {
+            loads.incrementAndGet();
+            return new OwnerView(new BookingForItem(1L, 2L), null, validUntil);
+        });
+    }
+}
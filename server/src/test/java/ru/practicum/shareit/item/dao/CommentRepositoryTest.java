@@ -4,7 +4,10 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.CommentPreviewView;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserRepository;
@@ -25,34 +28,58 @@ class CommentRepositoryTest {
     private final UserRepository userRepository;
 
     @Test
-    void findAllByItemId() {
-        User user1 = getUser(1L);
-        userRepository.save(user1);
-        User user2 = getUser(2L);
-        userRepository.save(user2);
-        User user3 = getUser(3L);
-        userRepository.save(user3);
-
-        Item item1 = getItem(1L, user1);
-        Item item2 = getItem(2L, user2);
-        itemRepository.save(item1);
-        itemRepository.save(item2);
-
-        Comment comment1 = getComment(null, item1, user2);
-        Comment comment2 = getComment(null, item1, user3);
-        Comment comment3 = getComment(null, item2, user1);
-        Comment comment4 = getComment(null, item2, user3);
-        commentRepository.save(comment1);
-        commentRepository.save(comment2);
-        commentRepository.save(comment3);
-        commentRepository.save(comment4);
-
-        List<Comment> commentsForItem1 = commentRepository.findAllByItemId(1L);
-        List<Comment> commentsForItem2 = commentRepository.findAllByItemId(2L);
-        assertEquals(2, commentsForItem1.size());
-        assertEquals(2, commentsForItem2.size());
-        assertTrue(commentsForItem1.stream().allMatch(comment -> comment.getItem().getId().equals(1L)));
-        assertTrue(commentsForItem2.stream().allMatch(comment -> comment.getItem().getId().equals(2L)));
+    void findNewestByItemIdIn() {
+        User user1 = userRepository.save(getUser(1L));
+        User user2 = userRepository.save(getUser(2L));
+
+        Item item1 = itemRepository.save(getItem(null, user1));
+        Item item2 = itemRepository.save(getItem(null, user1));
+        Item item3 = itemRepository.save(getItem(null, user1));
+
+        LocalDateTime now = LocalDateTime.now();
+        commentRepository.save(getComment(null, item1, user2, now.minusDays(3)));
+        Comment newest1 = commentRepository.save(getComment(null, item1, user2, now.minusDays(1)));
+        Comment newest2 = commentRepository.save(getComment(null, item1, user2, now.minusDays(2)));
+        commentRepository.save(getComment(null, item2, user2, now));
+        commentRepository.save(getComment(null, item3, user2, now));
+
+        List<CommentPreviewView> comments = commentRepository.findNewestByItemIdIn(
+                List.of(item1.getId(), item2.getId()), 2);
+        assertEquals(3, comments.size());
+        List<CommentPreviewView> item1Comments = comments.stream()
+                .filter(comment -> comment.getItemId().equals(item1.getId()))
+                .toList();
+        assertEquals(List.of(newest1.getId(), newest2.getId()),
+                item1Comments.stream().map(CommentView::getId).toList());
+        assertTrue(item1Comments.stream().allMatch(comment -> comment.getTotal() == 3L));
+        assertTrue(comments.stream().allMatch(comment -> comment.getAuthorName().equals(user2.getName())));
+        assertNotNull(item1Comments.getFirst().getCreated());
+    }
+
+    @Test
+    void findNewestByItemIdBefore() {
+        User user1 = userRepository.save(getUser(1L));
+        User user2 = userRepository.save(getUser(2L));
+        Item item = itemRepository.save(getItem(null, user1));
+
+        // Комментарии с одинаковым временем упорядочиваются по id
+        LocalDateTime now = LocalDateTime.now();
+        Comment comment1 = commentRepository.save(getComment(null, item, user2, now.minusDays(1)));
+        Comment comment2 = commentRepository.save(getComment(null, item, user2, now));
+        Comment comment3 = commentRepository.save(getComment(null, item, user2, now));
+
+        List<CommentView> first = commentRepository.findNewestByItemId(item.getId(), Limit.of(2));
+        assertEquals(List.of(comment3.getId(), comment2.getId()), first.stream().map(CommentView::getId).toList());
+
+        List<CommentView> second = commentRepository.findNewestByItemIdBefore(item.getId(), comment2.getId(),
+                Limit.of(2));
+        assertEquals(List.of(comment1.getId()), second.stream().map(CommentView::getId).toList());
+    }
+
+    private Comment getComment(Long id, Item item, User author, LocalDateTime created) {
+        Comment comment = getComment(id, item, author);
+        comment.setCreated(created);
+        return comment;
     }
 
     private Comment getComment(Long id, Item item, User author) {
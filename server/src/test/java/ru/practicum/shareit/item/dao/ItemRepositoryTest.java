@@ -4,7 +4,11 @@ import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.item.dto.ItemStateView;
+import ru.practicum.shareit.item.dto.ItemAvailableView;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -13,6 +17,8 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -73,7 +79,7 @@ class ItemRepositoryTest {
         itemRepository.save(item4);
         itemRepository.save(item5);
         itemRepository.save(item6);
-        List<Item> items = itemRepository.findItemsBySubstring("smart");
+        List<Item> items = itemRepository.findItemsBySubstring("smart", Limit.of(10));
         assertEquals(2, items.size());
         assertTrue(items.stream().allMatch(item -> item.getOwner().getId().equals(1L)));
         assertTrue(items.stream().anyMatch(item -> item.getName().contains("Smartphone")));
@@ -81,31 +87,134 @@ class ItemRepositoryTest {
     }
 
     @Test
-    void findAllByRequestId() {
-        User user1 = getUser(1L);
-        userRepository.save(user1);
-        User user2 = getUser(2L);
-        userRepository.save(user2);
-        User user3 = getUser(3L);
-        userRepository.save(user3);
-
-        ItemRequest request1 = getItemRequest(1L, 3L);
-        ItemRequest request2 = getItemRequest(2L, 3L);
-        itemRequestRepository.save(request1);
-        itemRequestRepository.save(request2);
-
-        Item item1 = getItem(null, 1L, 1L, null); // Связан с запросом 1
-        Item item2 = getItem(null, 1L, 1L, null); // Связан с запросом 1
-        Item item3 = getItem(null, 2L, 2L, null); // Связан с запросом 2
-        Item item4 = getItem(null, 2L, 1L, null); // Связан с запросом 1
-        itemRepository.save(item1);
-        itemRepository.save(item2);
+    void findItemsBySubstringRankedAndLimited() {
+        userRepository.save(getUser(1L));
+        Item byDescription = getItem(null, 1L, null, null);
+        byDescription.setName("Hammer");
+        byDescription.setDescription("Drill bits included");
+        Item byName1 = getItem(null, 1L, null, null);
+        byName1.setName("Drill");
+        Item byName2 = getItem(null, 1L, null, null);
+        byName2.setName("Cordless drill");
+        itemRepository.save(byDescription);
+        itemRepository.save(byName1);
+        itemRepository.save(byName2);
+
+        List<Item> items = itemRepository.findItemsBySubstring("drill", Limit.of(10));
+        assertEquals(3, items.size());
+        assertEquals(byName1.getId(), items.get(0).getId());
+        assertEquals(byName2.getId(), items.get(1).getId());
+        assertEquals(byDescription.getId(), items.get(2).getId());
+
+        List<Item> limited = itemRepository.findItemsBySubstring("drill", Limit.of(2));
+        assertEquals(2, limited.size());
+        assertTrue(limited.stream().allMatch(item -> item.getName().toLowerCase().contains("drill")));
+    }
+
+    @Test
+    void findItemsBySubstringAfter() {
+        userRepository.save(getUser(1L));
+        Item item1 = itemRepository.save(getItem(null, 1L, null, null));
+        Item item2 = itemRepository.save(getItem(null, 1L, null, null));
+        Item item3 = itemRepository.save(getItem(null, 1L, null, null));
+
+        List<Item> first = itemRepository.findItemsBySubstringAfter("name", 0L, Limit.of(2));
+        assertEquals(List.of(item1.getId(), item2.getId()), first.stream().map(Item::getId).toList());
+
+        List<Item> second = itemRepository.findItemsBySubstringAfter("name", item2.getId(), Limit.of(2));
+        assertEquals(List.of(item3.getId()), second.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void findAllByIdIn() {
+        userRepository.save(getUser(1L));
+        Item item1 = itemRepository.save(getItem(null, 1L, null, null));
+        itemRepository.save(getItem(null, 1L, null, null));
+        Item item3 = itemRepository.save(getItem(null, 1L, null, null));
+
+        List<Item> items = itemRepository.findAllByIdIn(List.of(item1.getId(), item3.getId()));
+        assertEquals(2, items.size());
+        assertTrue(items.stream().allMatch(item -> item.getOwner().getId().equals(1L)));
+    }
+
+    @Test
+    void updateItems() {
+        User user1 = userRepository.save(getUser(1L));
+        User user2 = userRepository.save(getUser(2L));
+        Item item1 = itemRepository.save(getItem(null, user1.getId(), null, null));
+        Item item2 = itemRepository.save(getItem(null, user1.getId(), null, null));
+        Item item3 = itemRepository.save(getItem(null, user2.getId(), null, null));
+        assertEquals(0L, item1.getVersion());
+
+        List<Long> ids = List.of(item1.getId(), item2.getId(), item3.getId());
+        List<ItemStateView> states = itemRepository.lockStatesByOwnerIdAndIdIn(user1.getId(), ids);
+        assertEquals(List.of(item1.getId(), item2.getId()), states.stream().map(ItemStateView::getId).toList());
+        assertEquals(item1.getName(), states.getFirst().getName());
+        assertTrue(states.getFirst().getAvailable());
+        assertEquals(0L, states.getFirst().getVersion());
+
+        int updated = itemRepository.updateItems(user1.getId(), ids, null, "updated", Boolean.FALSE);
+        assertEquals(2, updated);
+        assertEquals(1L, itemRepository.findById(item2.getId()).orElseThrow().getVersion());
+
+        Item updatedItem = itemRepository.findById(item1.getId()).orElseThrow();
+        assertEquals(item1.getName(), updatedItem.getName());
+        assertEquals("updated", updatedItem.getDescription());
+        assertFalse(updatedItem.getAvailable());
+        Item otherItem = itemRepository.findById(item3.getId()).orElseThrow();
+        assertTrue(otherItem.getAvailable());
+        assertEquals(0L, otherItem.getVersion());
+    }
+
+    @Test
+    void findAvailableVersionsAfter() {
+        userRepository.save(getUser(1L));
+        Item item1 = itemRepository.save(getItem(null, 1L, null, null));
+        Item item2 = itemRepository.save(getItem(null, 1L, null, null));
+        Item item3 = getItem(null, 1L, null, null);
+        item3.setAvailable(Boolean.FALSE);
         itemRepository.save(item3);
-        itemRepository.save(item4);
+        Item item4 = itemRepository.save(getItem(null, 1L, null, null));
+
+        List<ItemVersionView> versions = itemRepository.findAvailableVersionsAfter(item1.getId(), Limit.of(2));
+        assertEquals(List.of(item2.getId(), item4.getId()), versions.stream().map(ItemVersionView::getId).toList());
+        assertTrue(versions.stream().allMatch(view -> view.getVersion() == 0L));
+    }
+
+    @Test
+    void findAvailableViewsByIdIn() {
+        userRepository.save(getUser(1L));
+        Item item1 = itemRepository.save(getItem(null, 1L, null, null));
+        Item item2 = getItem(null, 1L, null, null);
+        item2.setAvailable(Boolean.FALSE);
+        itemRepository.save(item2);
+
+        Map<Long, Boolean> availableById = itemRepository.findAvailableViewsByIdIn(
+                        List.of(item1.getId(), item2.getId(), item2.getId() + 1)).stream()
+                .collect(Collectors.toMap(ItemAvailableView::getId, ItemAvailableView::getAvailable));
+        assertEquals(Map.of(item1.getId(), true, item2.getId(), false), availableById);
+    }
+
+    @Test
+    void findAllByRequestIdIn() {
+        userRepository.save(getUser(1L));
+        userRepository.save(getUser(2L));
+        userRepository.save(getUser(3L));
+
+        itemRequestRepository.save(getItemRequest(1L, 3L));
+        itemRequestRepository.save(getItemRequest(2L, 3L));
+        itemRequestRepository.save(getItemRequest(3L, 3L));
+
+        itemRepository.save(getItem(null, 1L, 1L, 3L));
+        itemRepository.save(getItem(null, 1L, 2L, 3L));
+        itemRepository.save(getItem(null, 2L, 2L, 3L));
+        itemRepository.save(getItem(null, 2L, 3L, 3L));
+        itemRepository.save(getItem(null, 2L, null, null));
 
-        List<Item> items = itemRepository.findAllByRequestId(1L);
+        List<Item> items = itemRepository.findAllByRequestIdIn(List.of(1L, 2L));
         assertEquals(3, items.size());
-        assertTrue(items.stream().allMatch(item -> item.getRequest().getId().equals(1L)));
+        assertTrue(items.stream().allMatch(item -> List.of(1L, 2L).contains(item.getRequest().getId())));
+        assertTrue(items.stream().allMatch(item -> item.getRequest().getCreator().getId().equals(3L)));
     }
 
     private Item getItem(Long itemId, Long ownerId, Long requestId, Long requestOwnerId) {
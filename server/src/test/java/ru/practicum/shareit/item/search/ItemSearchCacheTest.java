@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache itemSearchCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemSearchCache = new ItemSearchCache(2, Duration.ofMinutes(1), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getCachesByTextAndCursor() {
+        Item drill = getItem(1L, "Дрель", "Ударная", true);
+        assertEquals(List.of(drill), search("дрель", null, List.of(drill)));
+        assertEquals(List.of(drill), search("дрель", null, List.of()));
+        assertEquals(1, loads.get());
+
+        search("дрель", "Mg", List.of());
+        assertEquals(2, loads.get());
+
+        assertEquals(1.0, meterRegistry.counter("shareit.search.cache.requests", "result", "hit").count());
+        assertEquals(2.0, meterRegistry.counter("shareit.search.cache.requests", "result", "miss").count());
+    }
+
+    @Test
+    void getEvictsLeastRecentlyUsed() {
+        search("дрель", null, List.of());
+        search("пила", null, List.of());
+        search("дрель", null, List.of());
+        search("отвертка", null, List.of());
+        assertEquals(2, itemSearchCache.size());
+        assertEquals(1.0, meterRegistry.counter("shareit.search.cache.evictions").count());
+
+        search("дрель", null, List.of());
+        assertEquals(3, loads.get());
+        search("пила", null, List.of());
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void onItemChangedInvalidatesMatchingEntries() {
+        Item saw = getItem(1L, "Пила", "Ручная", true);
+        search("дрель", null, List.of());
+        search("пила", null, List.of(saw));
+
+        // Изменение полей, не участвующих в поиске, кэш не сбрасывает
+        Item sawWithOwner = saw.toBuilder().build();
+        itemSearchCache.onItemChanged(new ItemChangedEvent(saw, sawWithOwner));
+        assertEquals(2, itemSearchCache.size());
+
+        Item unavailable = saw.toBuilder().available(false).build();
+        itemSearchCache.onItemChanged(new ItemChangedEvent(saw, unavailable));
+        assertEquals(1, itemSearchCache.size());
+
+        itemSearchCache.onItemChanged(new ItemChangedEvent(null, getItem(2L, "Дрель", "Новая", true)));
+        assertEquals(0, itemSearchCache.size());
+    }
+
+    @Test
+    void onUserDeletedInvalidatesEntriesWithOwnedItems() {
+        Item saw = getItem(1L, "Пила", "Ручная", true);
+        search("дрель", null, List.of(getItem(2L, "Дрель", "Ударная", true)));
+        search("пила", null, List.of(saw));
+
+        itemSearchCache.onUserDeleted(new UserDeletedEvent(User.builder().id(1L).build(), List.of(saw)));
+        assertEquals(1, itemSearchCache.size());
+        search("пила", null, List.of());
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void getReloadsEntriesOlderThanMaxAge() {
+        itemSearchCache = new ItemSearchCache(2, Duration.ZERO, meterRegistry);
+        search("дрель", null, List.of());
+        search("дрель", null, List.of());
+        assertEquals(2, loads.get());
+    }
+
+    private List<Item> search(String text, String cursor, List<Item> result) {
+        return itemSearchCache.get(text, null, cursor, () -> {
+            loads.incrementAndGet();
+            return result;
+        });
+    }
+
+    private Item getItem(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemVersionView;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class LuceneItemSearchTest {
+
+    @TempDir
+    private Path indexPath;
+
+    private ItemRepository itemRepository;
+    private LuceneItemSearch luceneItemSearch;
+    // Состояние вещей в БД для сверки индекса при запуске
+    private final List<Item> dbItems = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        itemRepository = mock(ItemRepository.class);
+        dbItems.addAll(List.of(
+                getItem(1L, "Дрель ударная", "Мощная дрель с набором сверл", true),
+                getItem(2L, "Отвертка", "Аккумуляторная отвертка, почти как дрель", true),
+                getItem(3L, "Перфоратор", "Не сдается", false)
+        ));
+        when(itemRepository.findAll(any(Pageable.class))).thenAnswer(arguments -> new PageImpl<>(List.copyOf(dbItems)));
+        when(itemRepository.findAvailableVersionsAfter(anyLong(), any(Limit.class))).thenAnswer(arguments -> {
+            long afterId = arguments.getArgument(0);
+            return dbItems.stream()
+                    .filter(item -> item.getAvailable() && item.getId() > afterId)
+                    .map(this::getItemVersionView)
+                    .toList();
+        });
+        when(itemRepository.findAllByIdIn(anyCollection())).thenAnswer(arguments -> {
+            Collection<Long> ids = arguments.getArgument(0);
+            return dbItems.stream().filter(item -> ids.contains(item.getId())).toList();
+        });
+        luceneItemSearch = new LuceneItemSearch(itemRepository, indexPath.toString(), 10, false);
+        luceneItemSearch.rebuildIfNeeded();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        luceneItemSearch.close();
+    }
+
+    @Test
+    void searchRankedByPrefix() {
+        List<Item> items = luceneItemSearch.search("дрел");
+        assertEquals(2, items.size());
+        assertEquals(1L, items.get(0).getId());
+        assertEquals(2L, items.get(1).getId());
+        assertTrue(luceneItemSearch.search("перфоратор").isEmpty());
+        assertTrue(luceneItemSearch.search("   ").isEmpty());
+    }
+
+    @Test
+    void searchPhrase() {
+        List<Item> items = luceneItemSearch.search("\"набором сверл\"");
+        assertEquals(1, items.size());
+        assertEquals(1L, items.getFirst().getId());
+        assertTrue(luceneItemSearch.search("\"сверл набором\"").isEmpty());
+    }
+
+    @Test
+    void indexUpdatesAreVisibleImmediately() {
+        Item created = getItem(4L, "Лобзик", "Электролобзик", true);
+        created.setRequest(ItemRequest.builder().id(7L).build());
+        luceneItemSearch.onItemChanged(new ItemChangedEvent(null, created));
+        List<Item> found = luceneItemSearch.search("лобзик");
+        assertEquals(1, found.size());
+        assertEquals(7L, found.getFirst().getRequest().getId());
+
+        Item hidden = getItem(1L, "Дрель ударная", "Мощная дрель с набором сверл", false);
+        luceneItemSearch.onItemChanged(new ItemChangedEvent(null, hidden));
+        assertEquals(List.of(2L), luceneItemSearch.search("дрель").stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void itemsOfDeletedUserAreRemoved() {
+        Item drill = dbItems.getFirst();
+        luceneItemSearch.onUserDeleted(new UserDeletedEvent(User.builder().id(1L).build(), List.of(drill)));
+        assertEquals(List.of(2L), luceneItemSearch.search("дрель").stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void indexPersistsAcrossRestarts() throws Exception {
+        Item created = getItem(5L, "Стремянка", "Три метра", true);
+        dbItems.add(created);
+        luceneItemSearch.onItemChanged(new ItemChangedEvent(null, created));
+        luceneItemSearch.close();
+
+        luceneItemSearch = new LuceneItemSearch(itemRepository, indexPath.toString(), 10, false);
+        luceneItemSearch.rebuildIfNeeded();
+        assertEquals(1, luceneItemSearch.search("стремянка").size());
+        assertEquals(2, luceneItemSearch.search("дрель").size());
+        // Индекс совпадает с БД, перестраивать и дочитывать вещи не нужно
+        verify(itemRepository, times(1)).findAll(any(Pageable.class));
+        verify(itemRepository, never()).findAllByIdIn(anyCollection());
+    }
+
+    @Test
+    void reconcileOnStartupPicksUpChangesMissedByIndex() throws Exception {
+        luceneItemSearch.close();
+        // Изменения, сделанные в БД без обновления индекса
+        Item renamed = getItem(1L, "Шуруповерт", "Мощный шуруповерт", true);
+        renamed.setVersion(1L);
+        dbItems.set(0, renamed);
+        dbItems.set(1, getItem(2L, "Отвертка", "Аккумуляторная отвертка, почти как дрель", false));
+        dbItems.add(getItem(6L, "Рубанок", "Электрорубанок", true));
+
+        luceneItemSearch = new LuceneItemSearch(itemRepository, indexPath.toString(), 10, false);
+        luceneItemSearch.rebuildIfNeeded();
+        assertTrue(luceneItemSearch.search("дрель").isEmpty());
+        assertEquals(List.of(1L), luceneItemSearch.search("шуруповерт").stream().map(Item::getId).toList());
+        assertEquals(List.of(6L), luceneItemSearch.search("рубанок").stream().map(Item::getId).toList());
+        verify(itemRepository, times(1)).findAll(any(Pageable.class));
+    }
+
+    private Item getItem(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+
+    private ItemVersionView getItemVersionView(Item item) {
+        return new ItemVersionView() {
+            @Override
+            public Long getId() {
+                return item.getId();
+            }
+
+            @Override
+            public Long getVersion() {
+                return item.getVersion();
+            }
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package ru.practicum.shareit.item.suggest;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.event.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemNameTrieTest {
+
+    private ItemNameTrie itemNameTrie;
+
+    @BeforeEach
+    void setUp() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAvailableItemNames()).thenReturn(List.of(
+                "Дрель", "Дрель ударная", "Дрель", "Аккумуляторная дрель", "Дрожжи", "Отвертка"));
+        itemNameTrie = new ItemNameTrie(itemRepository, 3);
+        itemNameTrie.rebuild();
+    }
+
+    @Test
+    void suggest() {
+        // Чаще встречающееся название выше, затем более короткое
+        assertEquals(List.of("Дрель", "Дрожжи", "Дрель ударная"), itemNameTrie.suggest("др"));
+        assertEquals(List.of("Дрель", "Дрель ударная", "Аккумуляторная дрель"), itemNameTrie.suggest(" ДРЕ"));
+        assertEquals(List.of("Дрель ударная"), itemNameTrie.suggest("удар"));
+        assertEquals(List.of(), itemNameTrie.suggest("пила"));
+        assertEquals(List.of(), itemNameTrie.suggest(" "));
+    }
+
+    @Test
+    void onItemChanged() {
+        Item created = getItem("Пила", true);
+        itemNameTrie.onItemChanged(new ItemChangedEvent(null, created));
+        assertEquals(List.of("Пила"), itemNameTrie.suggest("пи"));
+
+        Item renamed = getItem("Ножовка", true);
+        itemNameTrie.onItemChanged(new ItemChangedEvent(created, renamed));
+        assertEquals(List.of(), itemNameTrie.suggest("пи"));
+        assertEquals(List.of("Ножовка"), itemNameTrie.suggest("нож"));
+
+        Item unavailable = getItem("Ножовка", false);
+        itemNameTrie.onItemChanged(new ItemChangedEvent(renamed, unavailable));
+        assertEquals(List.of(), itemNameTrie.suggest("нож"));
+
+        itemNameTrie.onItemChanged(new ItemChangedEvent(unavailable, getItem("Ножовка", true)));
+        assertEquals(List.of("Ножовка"), itemNameTrie.suggest("нож"));
+    }
+
+    @Test
+    void onUserDeleted() {
+        Item saw = getItem("Пила", true);
+        itemNameTrie.onItemChanged(new ItemChangedEvent(null, saw));
+        // Недоступная вещь не была в дереве и не уменьшает число вещей с названием "Дрель"
+        itemNameTrie.onUserDeleted(new UserDeletedEvent(User.builder().id(1L).build(),
+                List.of(saw, getItem("Дрель", false))));
+        assertEquals(List.of(), itemNameTrie.suggest("пи"));
+        assertEquals(List.of("Дрель", "Дрожжи", "Дрель ударная"), itemNameTrie.suggest("др"));
+    }
+
+    @Test
+    void rankingFollowsCountChanges() {
+        // "Дрожжи" обгоняет "Дрель", когда вещей с этим названием становится больше
+        itemNameTrie.onItemChanged(new ItemChangedEvent(null, getItem("Дрожжи", true)));
+        itemNameTrie.onItemChanged(new ItemChangedEvent(null, getItem("Дрожжи", true)));
+        assertEquals(List.of("Дрожжи", "Дрель", "Дрель ударная"), itemNameTrie.suggest("др"));
+        assertEquals(List.of("Дрожжи"), itemNameTrie.suggest("дро"));
+
+        itemNameTrie.onItemChanged(new ItemChangedEvent(getItem("Дрожжи", true), getItem("Дрожжи", false)));
+        itemNameTrie.onItemChanged(new ItemChangedEvent(getItem("Дрожжи", true), getItem("Дрожжи", false)));
+        assertEquals(List.of("Дрель", "Дрожжи", "Дрель ударная"), itemNameTrie.suggest("др"));
+    }
+
+    @Test
+    void emptyBranchesArePruned() {
+        int nodeCount = itemNameTrie.nodeCount();
+        Item created = getItem("Дрель-миксер строительная", true);
+        itemNameTrie.onItemChanged(new ItemChangedEvent(null, created));
+        assertTrue(itemNameTrie.nodeCount() > nodeCount);
+        assertEquals(List.of("Дрель-миксер строительная"), itemNameTrie.suggest("стр"));
+        assertEquals(List.of("Дрель-миксер строительная"), itemNameTrie.suggest("дрель-"));
+
+        itemNameTrie.onItemChanged(new ItemChangedEvent(created, getItem("Дрель-миксер строительная", false)));
+        assertEquals(nodeCount, itemNameTrie.nodeCount());
+        assertEquals(List.of(), itemNameTrie.suggest("стр"));
+        assertEquals(List.of("Дрель", "Дрель ударная", "Аккумуляторная дрель"), itemNameTrie.suggest("дре"));
+    }
+
+    @Test
+    void matchesFullScanAfterRandomChanges() {
+        ItemRepository itemRepository = mock(ItemRepository.class);
+        when(itemRepository.findAvailableItemNames()).thenReturn(List.of());
+        ItemNameTrie trie = new ItemNameTrie(itemRepository, 3);
+        trie.rebuild();
+        List<String> vocabulary = List.of("Дрель", "дрель", "Дрель ударная", "Дрожжи", "Дверь", "Две дрели",
+                "Ударная дрель", "Удочка", "Уд", "Д");
+        Map<String, Integer> counts = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            String name = vocabulary.get(random.nextInt(vocabulary.size()));
+            boolean add = random.nextBoolean() || counts.getOrDefault(name, 0) == 0;
+            if (add) {
+                counts.merge(name, 1, Integer::sum);
+                trie.onItemChanged(new ItemChangedEvent(null, getItem(name, true)));
+            } else {
+                counts.merge(name, -1, Integer::sum);
+                trie.onItemChanged(new ItemChangedEvent(getItem(name, true), getItem(name, false)));
+            }
+            for (String prefix : List.of("д", "др", "дре", "дв", "у", "уд", "удо", "дрель у")) {
+                List<String> expected = counts.entrySet().stream()
+                        .filter(entry -> entry.getValue() > 0)
+                        .filter(entry -> hasWordStartingWith(entry.getKey(), prefix))
+                        .sorted(Map.Entry.<String, Integer>comparingByValue().reversed()
+                                .thenComparing(entry -> entry.getKey().length())
+                                .thenComparing(Map.Entry::getKey))
+                        .limit(3)
+                        .map(Map.Entry::getKey)
+                        .toList();
+                assertEquals(expected, trie.suggest(prefix), "prefix " + prefix + " at step " + i);
+            }
+        }
+    }
+
+    private boolean hasWordStartingWith(String name, String prefix) {
+        String key = name.toLowerCase(Locale.ROOT);
+        for (int start = 0; start < key.length(); start++) {
+            if ((start == 0 || key.charAt(start - 1) == ' ') && key.startsWith(prefix, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Item getItem(String name, boolean available) {
+        return Item.builder()
+                .id(1L)
+                .name(name)
+                .description("description")
+                .available(available)
+                .build();
+    }
+}
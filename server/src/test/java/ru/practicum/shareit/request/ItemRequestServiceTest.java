@@ -6,11 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.comment.CommentPreviews;
 import ru.practicum.shareit.item.dao.CommentRepository;
 import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.CommentPreviewView;
 import ru.practicum.shareit.item.dto.mapper.MapperCommentDto;
 import ru.practicum.shareit.item.dto.mapper.MapperItemDto;
-import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -21,12 +22,15 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -58,7 +62,7 @@ class ItemRequestServiceTest {
         mapperItemDto = new MapperItemDto();
         mapperCommentDto = new MapperCommentDto();
         itemRequestService = new ItemRequestService(itemRequestRepository, userRepository, itemRepository,
-                mapperItemRequestDto, mapperItemDto, commentRepository, mapperCommentDto);
+                mapperItemRequestDto, mapperItemDto, new CommentPreviews(commentRepository, mapperCommentDto));
 
         usedIds = new ArrayList<>();
 
@@ -88,20 +92,22 @@ class ItemRequestServiceTest {
             return itemRequests;
         });
 
-        when(itemRepository.findAllByRequestId(anyLong())).thenAnswer(arguments -> {
-            Long requestId = arguments.getArgument(0);
+        when(itemRepository.findAllByRequestIdIn(anyCollection())).thenAnswer(arguments -> {
+            Collection<Long> requestIds = arguments.getArgument(0);
             List<Item> items = new ArrayList<>();
-            items.add(getItem(requestId, 5L, null, null));
+            for (Long requestId : requestIds) {
+                items.add(getItem(requestId, 5L, requestId, 5L));
+            }
             return items;
         });
 
-        when(commentRepository.findAllByItemId(anyLong())).thenAnswer(arguments -> {
-           Long itemId = arguments.getArgument(0);
-           List<Comment> comments = new ArrayList<>();
-           User user = getUser(33L);
-           user.setName("commentAuthor" + itemId);
-           comments.add(getComment(itemId, null, user));
-           return comments;
+        when(commentRepository.findNewestByItemIdIn(anyCollection(), anyInt())).thenAnswer(arguments -> {
+            Collection<Long> itemIds = arguments.getArgument(0);
+            List<CommentPreviewView> comments = new ArrayList<>();
+            for (Long itemId : itemIds) {
+                comments.add(getCommentView(itemId, "commentAuthor" + itemId));
+            }
+            return comments;
         });
 
         when(userRepository.count()).thenReturn(maxId);
@@ -281,14 +287,39 @@ class ItemRequestServiceTest {
                 .build();
     }
 
-    private Comment getComment(Long commentId, Item item, User author) {
-        return Comment.builder()
-                .id(commentId)
-                .text("text" + commentId)
-                .item(item)
-                .author(author)
-                .created(LocalDateTime.now())
-                .build();
+    private CommentPreviewView getCommentView(Long itemId, String authorName) {
+        LocalDateTime created = LocalDateTime.now();
+        return new CommentPreviewView() {
+            @Override
+            public Long getTotal() {
+                return 1L;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getId() {
+                return itemId;
+            }
+
+            @Override
+            public String getText() {
+                return "text" + itemId;
+            }
+
+            @Override
+            public String getAuthorName() {
+                return authorName;
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return created;
+            }
+        };
     }
 
     private User getUser(Long userId) {
@@ -5,9 +5,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import ru.practicum.shareit.exception.DuplicatedDataException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.event.UserChangedEvent;
+import ru.practicum.shareit.user.event.UserDeletedEvent;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.*;
@@ -15,6 +20,8 @@ import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -23,13 +30,17 @@ class UserServiceTest {
 
     private UserService userService;
     private UserRepository userRepository;
+    private ItemRepository itemRepository;
+    private ApplicationEventPublisher eventPublisher;
 
     private final Long maxRealId = 100L;
 
     @BeforeEach
     void setUp() {
         userRepository = mock(UserRepository.class);
-        userService = new UserService(userRepository);
+        itemRepository = mock(ItemRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        userService = new UserService(userRepository, itemRepository, eventPublisher);
 
         when(userRepository.findById(anyLong())).thenAnswer(arguments -> {
             Long id = arguments.getArgument(0);
@@ -148,6 +159,8 @@ class UserServiceTest {
 
         User updatedUser = userService.updateUser(updateUser.getId(), updateUser);
         assertEquals(updateUser, updatedUser);
+        verify(eventPublisher, times(1)).publishEvent(new UserChangedEvent(
+                new User(maxRealId, "name" + maxRealId, "user" + maxRealId + "@email.com"), updateUser));
     }
 
     @Test
@@ -156,9 +169,13 @@ class UserServiceTest {
         Long fakeId = getFakeKey();
 
         User realUser = new User(realId, "name" + realId, "user" + realId + "@email.com");
+        List<Item> items = List.of(Item.builder().id(1L).owner(realUser).build());
+        when(itemRepository.findItemsByOwnerId(realId)).thenReturn(items);
 
         User deletedUser = userService.deleteUser(realId);
         assertEquals(realUser, deletedUser);
+        // Каскадно удаленные вещи передаются слушателям в событии
+        verify(eventPublisher, times(1)).publishEvent(new UserDeletedEvent(realUser, items));
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
             userService.deleteUser(fakeId);